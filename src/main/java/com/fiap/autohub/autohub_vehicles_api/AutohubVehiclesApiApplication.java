@@ -1,5 +1,6 @@
 package com.fiap.autohub.autohub_vehicles_api;
 
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.consumers.VehicleEventConsumer;
 import org.slf4j.Logger;
@@ -8,7 +9,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
-import java.util.function.Consumer;
+import java.util.function.Function;
 
 @SpringBootApplication
 public class AutohubVehiclesApiApplication {
@@ -19,8 +20,9 @@ public class AutohubVehiclesApiApplication {
         SpringApplication.run(AutohubVehiclesApiApplication.class, args);
     }
 
+    // Retorna só as mensagens que falharam (partial batch response): as processadas no mesmo lote não são reentregues
     @Bean
-    public Consumer<SQSEvent> vehicleEventsConsumer(VehicleEventConsumer consumerLogic) {
+    public Function<SQSEvent, SQSBatchResponse> vehicleEventsConsumer(VehicleEventConsumer consumerLogic) {
         log.info("Creating vehicleEventsConsumer bean for SQS profile.");
         return consumerLogic::consumeEvent;
     }
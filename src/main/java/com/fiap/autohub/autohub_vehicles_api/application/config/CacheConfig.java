@@ -0,0 +1,31 @@
+package com.fiap.autohub.autohub_vehicles_api.application.config;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.cache.BoundedTtlCache;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.cache.RevisionCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    // Totais por filtro (chave: status + filtros normalizados) usados no modo de listagem sem COUNT
+    @Bean
+    public BoundedTtlCache<String, Long> vehicleCountCache(
+            @Value("${vehicles.cache.counts.max-size}") int maxSize,
+            @Value("${vehicles.cache.counts.ttl}") Duration ttl) {
+        return new BoundedTtlCache<>("vehicle-counts", maxSize, ttl);
+    }
+
+    // Páginas de /vehicles/available (chave: filtros normalizados + paginação), invalidadas pela revisão do estoque
+    @Bean
+    public RevisionCache<String, Page<Vehicle>> availablePageCache(
+            @Value("${vehicles.cache.available-pages.max-size}") int maxSize,
+            @Value("${vehicles.cache.available-pages.ttl}") Duration ttl) {
+        return new RevisionCache<>("available-pages", maxSize, ttl);
+    }
+}
\ No newline at end of file
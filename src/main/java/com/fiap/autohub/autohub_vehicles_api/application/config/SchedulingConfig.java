@@ -0,0 +1,11 @@
+package com.fiap.autohub.autohub_vehicles_api.application.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tarefas de manutenção (@Scheduled). Na Lambda só rodam enquanto a instância está ativa, então cada tarefa
+// também precisa ser segura para rodar na inicialização e em mais de uma instância ao mesmo tempo.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.fiap.autohub.autohub_vehicles_api.application.config;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -8,12 +9,19 @@ import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.savedrequest.NullRequestCache;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Configuration
@@ -21,6 +29,20 @@ import java.util.List;
 @Profile({"http", "local"})
 public class SecurityConfig {
 
+    // Quem está no grupo vehicles.audit.reader-group do Cognito lê o histórico de qualquer veículo
+    public static final String AUDIT_READER_AUTHORITY = "AUDIT_READER";
+    private static final String COGNITO_GROUPS_CLAIM = "cognito:groups";
+
+    // GET /vehicles/{id} é público, mas com as_of reconstrói a auditoria: exige JWT
+    private static final RequestMatcher AS_OF_REQUEST = request ->
+            HttpMethod.GET.matches(request.getMethod()) && request.getParameter("as_of") != null;
+
+    private final String auditReaderGroup;
+
+    public SecurityConfig(@Value("${vehicles.audit.reader-group}") String auditReaderGroup) {
+        this.auditReaderGroup = auditReaderGroup;
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -28,10 +50,10 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .requestCache(cache -> cache.requestCache(new NullRequestCache()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {
-                }))
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
                 .authorizeHttpRequests(authorize ->
                         authorize
+                                .requestMatchers(AS_OF_REQUEST).authenticated()
                                 .requestMatchers(
                                         "/swagger-ui.html",
                                         "/swagger-ui/**",
@@ -43,6 +65,11 @@ public class SecurityConfig {
                                         HttpMethod.GET,
                                         "/vehicles/available",
                                         "/vehicles/sold",
+                                        "/vehicles/available/slice",
+                                        "/vehicles/available/facets",
+                                        "/vehicles/sold/slice",
+                                        "/vehicles/available/cursor",
+                                        "/vehicles/sold/cursor",
                                         "/vehicles/{id}"
                                 ).permitAll()
                                 .anyRequest().authenticated()
@@ -51,12 +78,28 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Mantém as autoridades padrão (SCOPE_*) e acrescenta a de auditoria para o grupo configurado
+    private JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter scopes = new JwtGrantedAuthoritiesConverter();
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            Collection<GrantedAuthority> authorities = new ArrayList<>(scopes.convert(jwt));
+            List<String> groups = jwt.getClaimAsStringList(COGNITO_GROUPS_CLAIM);
+            if (groups != null && groups.contains(auditReaderGroup)) {
+                authorities.add(new SimpleGrantedAuthority(AUDIT_READER_AUTHORITY));
+            }
+            return authorities;
+        });
+        return converter;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("*"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("ETag"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -8,16 +8,18 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 
 import java.net.URI;
 
 @Configuration
 public class SnsConfig {
+
+    // Cliente assíncrono: o relay do outbox envia vários PublishBatch em paralelo sem prender uma thread por chamada
     @Bean
     @Profile("!local")
-    public SnsClient snsClientProd(@Value("${aws.region}") String awsRegion) {
-        return SnsClient.builder()
+    public SnsAsyncClient snsAsyncClientProd(@Value("${aws.region}") String awsRegion) {
+        return SnsAsyncClient.builder()
                 .region(Region.of(awsRegion))
                 .credentialsProvider(DefaultCredentialsProvider.create())
                 .build();
@@ -25,12 +27,12 @@ public class SnsConfig {
 
     @Bean
     @Profile("local")
-    public SnsClient snsClientLocal(
+    public SnsAsyncClient snsAsyncClientLocal(
             @Value("${aws.region}") String awsRegion,
             @Value("${aws.localstack.endpoint}") String localstackEndpoint, // Endpoint do LocalStack
             @Value("${aws.credentials.accessKey}") String accessKey, // Credenciais dummy
             @Value("${aws.credentials.secretKey}") String secretKey) {
-        return SnsClient.builder()
+        return SnsAsyncClient.builder()
                 .region(Region.of(awsRegion))
                 .endpointOverride(URI.create(localstackEndpoint)) // Aponta para LocalStack
                 .credentialsProvider(StaticCredentialsProvider.create(
@@ -0,0 +1,42 @@
+package com.fiap.autohub.autohub_vehicles_api.application.config;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.events.ChargeCreationFailedEvent;
+import com.fiap.autohub.autohub_vehicles_api.domain.events.ChargeExpiredEvent;
+import com.fiap.autohub.autohub_vehicles_api.domain.events.PaymentCompletedEvent;
+import com.fiap.autohub.autohub_vehicles_api.domain.events.PaymentFailedEvent;
+import com.fiap.autohub.autohub_vehicles_api.domain.events.SaleCreatedEvent;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.consumers.VehicleEventHandler;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.listeners.PaymentEventsListener;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.listeners.SaleCreatedListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Eventos consumidos da fila SQS: um bean por event_type (ver tabela "Eventos Consumidos" no readme)
+@Configuration
+public class VehicleEventHandlersConfig {
+
+    @Bean
+    public VehicleEventHandler<SaleCreatedEvent> saleCreatedHandler(SaleCreatedListener listener) {
+        return VehicleEventHandler.of("SaleCreated", SaleCreatedEvent.class, listener::handleSaleCreatedEvent);
+    }
+
+    @Bean
+    public VehicleEventHandler<PaymentCompletedEvent> paymentCompletedHandler(PaymentEventsListener listener) {
+        return VehicleEventHandler.of("PaymentCompleted", PaymentCompletedEvent.class, listener::handlePaymentCompletedEvent);
+    }
+
+    @Bean
+    public VehicleEventHandler<PaymentFailedEvent> paymentFailedHandler(PaymentEventsListener listener) {
+        return VehicleEventHandler.of("PaymentFailed", PaymentFailedEvent.class, listener::handlePaymentFailedEvent);
+    }
+
+    @Bean
+    public VehicleEventHandler<ChargeCreationFailedEvent> chargeCreationFailedHandler(PaymentEventsListener listener) {
+        return VehicleEventHandler.of("ChargeCreationFailed", ChargeCreationFailedEvent.class, listener::handleChargeCreationFailedEvent);
+    }
+
+    @Bean
+    public VehicleEventHandler<ChargeExpiredEvent> chargeExpiredHandler(PaymentEventsListener listener) {
+        return VehicleEventHandler.of("ChargeExpired", ChargeExpiredEvent.class, listener::handleChargeExpiredEvent);
+    }
+}
\ No newline at end of file
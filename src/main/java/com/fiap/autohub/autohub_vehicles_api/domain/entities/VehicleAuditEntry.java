@@ -0,0 +1,17 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.entities;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+public record VehicleAuditEntry(
+        Long auditId,
+        UUID vehicleId,
+        OffsetDateTime changedAt,
+        String operation, // CREATE, UPDATE, DELETE
+        String changedBy, // Cognito Sub
+        Long version,
+        String snapshotType, // FULL (veículo inteiro) ou DELTA (só os campos alterados)
+        Map<String, Object> data
+) {
+}
\ No newline at end of file
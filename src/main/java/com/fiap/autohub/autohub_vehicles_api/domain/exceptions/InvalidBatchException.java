@@ -0,0 +1,7 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.exceptions;
+
+public class InvalidBatchException extends RuntimeException {
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.exceptions;
+
+public class UnsupportedSortException extends RuntimeException {
+    public UnsupportedSortException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -3,26 +3,60 @@ package com.fiap.autohub.autohub_vehicles_api.domain.ports.in;
 import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
 import com.fiap.autohub.autohub_vehicles_api.domain.commands.UpdateVehicleCommand;
 import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleAuditEntry;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleFacets;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface VehicleServicePort {
     Vehicle createVehicle(CreateVehicleCommand command, String ownerId);
 
+    List<Vehicle> createVehicles(List<CreateVehicleCommand> commands, String ownerId); // Lote atômico, na ordem recebida
+
     Vehicle updateVehicle(UUID id, UpdateVehicleCommand command, String ownerId);
 
     Optional<Vehicle> findVehicleById(UUID id);
 
-    Page<Vehicle> findAvailableVehicles(Specification<VehiclePersistenceEntity> spec, Pageable pageable); // Usa Specification + Pageable
+    Optional<Long> findVehicleVersion(UUID id); // Consulta só a versão, sem mapear o veículo
+
+    // Auditoria: só o dono do veículo ou quem tem o papel de auditoria (auditReader); para os demais, VehicleNotFoundException
+    Optional<Vehicle> findVehicleAsOf(UUID id, OffsetDateTime asOf, String requesterId, boolean auditReader); // Reconstruído do histórico de auditoria
+
+    Slice<VehicleAuditEntry> findVehicleHistory(UUID id, OffsetDateTime lastChangedAt, Long lastAuditId, int limit, String requesterId, boolean auditReader); // Keyset, mais recentes primeiro
+
+    long findInventoryRevision(); // Muda a cada commit que escreve em qualquer veículo
+
+    // revision: a de findInventoryRevision, já lida pelo chamador (ETag); cache e índice só servem resultados pelo menos tão novos
+    Page<Vehicle> findAvailableVehicles(VehicleSearchCriteria criteria, Pageable pageable, long revision);
+
+    Page<Vehicle> searchAvailableVehicles(VehicleSearchCriteria criteria, String text, Pageable pageable, long revision); // Busca textual, ordenada por relevância
+
+    VehicleFacets findAvailableFacets(VehicleSearchCriteria criteria); // Contagens mantidas incrementalmente
+
+    Page<Vehicle> findSoldVehicles(VehicleSearchCriteria criteria, Pageable pageable);
+
+    void exportSoldVehicles(VehicleSearchCriteria criteria, Consumer<Vehicle> consumer); // Streaming, sem paginação
+
+    Slice<Vehicle> findAvailableVehicleSlice(VehicleSearchCriteria criteria, Pageable pageable); // Sem COUNT
+
+    Slice<Vehicle> findSoldVehicleSlice(VehicleSearchCriteria criteria, Pageable pageable);
+
+    long countAvailableVehicles(VehicleSearchCriteria criteria); // Total aproximado (cache por filtro com TTL)
+
+    long countSoldVehicles(VehicleSearchCriteria criteria);
+
+    Slice<Vehicle> findAvailableVehiclesAfter(VehicleSearchCriteria criteria, BigDecimal lastPrice, UUID lastId, int limit); // Keyset (price, id)
 
-    Page<Vehicle> findSoldVehicles(Specification<VehiclePersistenceEntity> spec, Pageable pageable);
+    Slice<Vehicle> findSoldVehiclesBefore(VehicleSearchCriteria criteria, OffsetDateTime lastUpdatedAt, UUID lastId, int limit); // Keyset (updated_at, id)
 
     List<Vehicle> findVehiclesByOwner(String ownerId); // Lista simples por owner
 
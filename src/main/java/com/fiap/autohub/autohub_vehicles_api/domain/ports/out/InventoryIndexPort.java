@@ -0,0 +1,22 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.ports.out;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Índice em memória dos veículos AVAILABLE, opcional. Não substitui o banco: quem chama cai na consulta SQL quando o
+ * índice não atende.
+ */
+public interface InventoryIndexPort {
+    // Vazio quando não atende: ainda carregando, ordenação não suportada ou snapshot anterior à revisão pedida
+    Optional<Page<Vehicle>> findAvailable(VehicleSearchCriteria criteria, Pageable pageable, long revision);
+
+    void applyAfterCommit(Vehicle vehicle); // Nova versão do veículo, aplicada depois do commit
+
+    void removeAfterCommit(UUID id);
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.ports.out;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleAuditEntry;
+import org.springframework.data.domain.Slice;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface VehicleAuditRepositoryPort {
+    // createdAt (do veículo) limita as consultas por baixo: nenhuma auditoria é anterior à criação
+    Optional<Vehicle> findVehicleAsOf(UUID vehicleId, OffsetDateTime createdAt, OffsetDateTime asOf); // Estado na última alteração até asOf, reconstruído da auditoria
+
+    Slice<VehicleAuditEntry> findHistoryBefore(UUID vehicleId, OffsetDateTime createdAt, OffsetDateTime lastChangedAt, Long lastAuditId, int limit); // Keyset, mais recentes primeiro
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.ports.out;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.events.VehicleReservationFailedEvent;
+import com.fiap.autohub.autohub_vehicles_api.domain.events.VehicleReservedEvent;
+
+// Publicação durável: o evento é registrado na transação corrente e entregue ao broker depois do commit
+public interface VehicleEventPublisherPort {
+    void publishVehicleReserved(VehicleReservedEvent event);
+
+    void publishVehicleReservationFailed(VehicleReservationFailedEvent event);
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.ports.out;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleFacets;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+
+import java.util.List;
+
+public interface VehicleFacetRepositoryPort {
+    void adjust(Vehicle leftAvailable, Vehicle enteredAvailable); // -1 / +1 nas células; qualquer um pode ser null
+
+    void addAvailable(List<Vehicle> enteredAvailable); // +1 por veículo, um UPSERT por célula distinta
+
+    VehicleFacets countAvailable(VehicleSearchCriteria criteria);
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.ports.out;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import org.springframework.data.domain.Page;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache das leituras públicas do catálogo (read-through: o loader só roda quando o cache não pode responder).
+ */
+public interface VehicleQueryCachePort {
+    // Por id, ciente de versão: versionLoader confirma que a entrada em cache ainda é a versão atual
+    Optional<Vehicle> findVehicle(UUID id, Function<UUID, Optional<Long>> versionLoader,
+                                  Function<UUID, Optional<Vehicle>> loader);
+
+    // revision: revisão do estoque já lida pelo chamador; página carregada numa revisão anterior não é servida
+    Page<Vehicle> findPage(String key, long revision, Supplier<Page<Vehicle>> loader);
+
+    long countVehicles(String key, Supplier<Long> loader); // Total aproximado: vale até o TTL
+}
\ No newline at end of file
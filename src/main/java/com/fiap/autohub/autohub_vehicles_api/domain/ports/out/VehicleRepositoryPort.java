@@ -1,26 +1,62 @@
 package com.fiap.autohub.autohub_vehicles_api.domain.ports.out;
 
 import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface VehicleRepositoryPort {
     Vehicle save(Vehicle vehicle); // Create ou Update
 
+    List<Vehicle> saveAll(List<Vehicle> vehicles); // Só criações: veículos e auditoria em INSERTs de lote
+
+    /**
+     * Transição de status em um único UPDATE condicional (compare-and-set): só altera se o status atual for from.
+     *
+     * @return o veículo já atualizado; vazio se a transição perdeu a corrida (status diferente de from ou veículo
+     * inexistente)
+     */
+    Optional<Vehicle> transitionStatus(UUID id, VehicleStatus from, VehicleStatus to);
+
     Optional<Vehicle> findById(UUID id);
 
     Optional<Vehicle> findByIdAndOwnerId(UUID id, String ownerId); // Para update/delete seguro
 
-    Page<Vehicle> findAll(Specification<VehiclePersistenceEntity> spec, Pageable pageable); // Para listagem filtrada/ordenada
+    Optional<Long> findVersionById(UUID id); // Apenas a coluna version (GET condicional)
+
+    Optional<OffsetDateTime> findLatestUpdatedAt(); // max(updated_at) de toda a tabela
+
+    long findInventoryRevision(); // Anda a cada commit que escreve em vehicles (V14)
+
+    Page<Vehicle> findAll(VehicleSearchCriteria criteria, VehicleStatus status, Pageable pageable); // Para listagem filtrada/ordenada
+
+    Page<Vehicle> searchText(VehicleSearchCriteria criteria, VehicleStatus status, String text, Pageable pageable); // Ordenada por relevância
+
+    Slice<Vehicle> findSlice(VehicleSearchCriteria criteria, VehicleStatus status, Pageable pageable); // Sem COUNT: busca size + 1 linhas
+
+    Slice<Vehicle> findAvailableAfter(VehicleSearchCriteria criteria, BigDecimal lastPrice, UUID lastId, int limit); // Keyset (price, id)
+
+    Slice<Vehicle> findSoldBefore(VehicleSearchCriteria criteria, OffsetDateTime lastUpdatedAt, UUID lastId, int limit); // Keyset (updated_at, id)
+
+    long count(VehicleSearchCriteria criteria, VehicleStatus status);
 
     List<Vehicle> findByOwnerId(String ownerId);
 
+    List<Vehicle> findAllByStatus(VehicleStatus status); // Carga do índice em memória
+
+    List<Vehicle> findUpdatedSince(OffsetDateTime since); // Delta por updated_at (todos os status)
+
+    void forEachSold(VehicleSearchCriteria criteria, Consumer<Vehicle> consumer); // Cursor do servidor, linha a linha
+
     void deleteLogically(Vehicle vehicle); // Recebe entidade para auditoria fácil
 
     boolean existsById(UUID id); // Útil para verificar antes de deletar
@@ -0,0 +1,115 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.queries;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Contagens por faceta (marca, cor, faixa de ano e faixa de preço) dos veículos disponíveis.
+ * <p>
+ * As contagens são agregadas a partir de células (marca, cor, ano, faixa de preço) → quantidade, que é a
+ * granularidade da tabela vehicle_facet_counts. As regras de faixa abaixo precisam bater com a migração V6.
+ */
+public record VehicleFacets(
+        List<FacetCount> makes,
+        List<FacetCount> colors,
+        List<FacetCount> years,
+        List<FacetCount> prices
+) {
+
+    public static final int YEAR_BUCKET_SPAN = 5;
+    public static final BigDecimal PRICE_BUCKET_WIDTH = BigDecimal.valueOf(10_000);
+    public static final int MAX_PRICE_BUCKET = 20; // a partir de 200.000 tudo cai na última faixa
+
+    public record FacetCount(String value, long count) {
+    }
+
+    /**
+     * Uma célula do cubo de facetas. make e color já normalizados (minúsculas), como nos filtros.
+     */
+    public record Cell(String make, String color, int year, int priceBucket, long count) {
+
+        /**
+         * Ordem da chave (marca, cor, ano, faixa de preço). Quem atualiza mais de uma célula na mesma transação usa
+         * essa ordem, para que transações concorrentes travem as linhas na mesma sequência e não entrem em deadlock.
+         */
+        public static final Comparator<Cell> KEY_ORDER = Comparator.comparing(Cell::make)
+                .thenComparing(Cell::color)
+                .thenComparingInt(Cell::year)
+                .thenComparingInt(Cell::priceBucket);
+
+        public boolean sameKey(Cell other) {
+            return KEY_ORDER.compare(this, other) == 0;
+        }
+    }
+
+    /**
+     * Chave da célula em que um veículo é contado.
+     */
+    public static Cell cellOf(Vehicle vehicle, long count) {
+        return new Cell(normalize(vehicle.make()), normalize(vehicle.color()), vehicle.year(), priceBucket(vehicle.price()), count);
+    }
+
+    public static int priceBucket(BigDecimal price) {
+        int bucket = price.divide(PRICE_BUCKET_WIDTH, 0, RoundingMode.FLOOR).intValue();
+        return Math.max(0, Math.min(bucket, MAX_PRICE_BUCKET));
+    }
+
+    public static VehicleFacets aggregate(List<Cell> cells) {
+        Map<String, Long> makes = new HashMap<>();
+        Map<String, Long> colors = new HashMap<>();
+        Map<Integer, Long> years = new TreeMap<>();
+        Map<Integer, Long> prices = new TreeMap<>();
+        for (Cell cell : cells) {
+            if (cell.count() <= 0) {
+                continue;
+            }
+            makes.merge(cell.make(), cell.count(), Long::sum);
+            colors.merge(cell.color(), cell.count(), Long::sum);
+            years.merge(Math.floorDiv(cell.year(), YEAR_BUCKET_SPAN) * YEAR_BUCKET_SPAN, cell.count(), Long::sum);
+            prices.merge(Math.min(cell.priceBucket(), MAX_PRICE_BUCKET), cell.count(), Long::sum);
+        }
+        return new VehicleFacets(
+                byCountDesc(makes),
+                byCountDesc(colors),
+                inBucketOrder(years, VehicleFacets::yearLabel),
+                inBucketOrder(prices, VehicleFacets::priceLabel));
+    }
+
+    private static List<FacetCount> byCountDesc(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .map(e -> new FacetCount(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(FacetCount::count).reversed().thenComparing(FacetCount::value))
+                .toList();
+    }
+
+    private static List<FacetCount> inBucketOrder(Map<Integer, Long> counts, Function<Integer, String> label) {
+        return counts.entrySet().stream()
+                .map(e -> new FacetCount(label.apply(e.getKey()), e.getValue()))
+                .toList();
+    }
+
+    private static String yearLabel(int start) {
+        return start + "-" + (start + YEAR_BUCKET_SPAN - 1);
+    }
+
+    private static String priceLabel(int bucket) {
+        BigDecimal start = PRICE_BUCKET_WIDTH.multiply(BigDecimal.valueOf(bucket));
+        if (bucket >= MAX_PRICE_BUCKET) {
+            return start.toPlainString() + "+";
+        }
+        return start.toPlainString() + "-" + start.add(PRICE_BUCKET_WIDTH).toPlainString();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.queries;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Filtros de busca de veículos já normalizados (texto em minúsculas e sem espaços nas pontas,
+ * valores em branco viram null), para que filtros equivalentes sejam iguais entre si.
+ */
+public record VehicleSearchCriteria(
+        String make,
+        String model,
+        Integer minYear,
+        Integer maxYear,
+        String color,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+) {
+
+    public VehicleSearchCriteria {
+        make = normalize(make);
+        model = normalize(model);
+        color = normalize(color);
+        minPrice = normalize(minPrice);
+        maxPrice = normalize(maxPrice);
+    }
+
+    public static VehicleSearchCriteria byMake(String make) {
+        return new VehicleSearchCriteria(make, null, null, null, null, null, null);
+    }
+
+    /**
+     * Representação canônica e estável dos filtros (usada para assinar cursores e compor chaves).
+     */
+    public String fingerprint() {
+        return "make=" + valueOf(make)
+                + ";model=" + valueOf(model)
+                + ";minYear=" + valueOf(minYear)
+                + ";maxYear=" + valueOf(maxYear)
+                + ";color=" + valueOf(color)
+                + ";minPrice=" + (minPrice != null ? minPrice.toPlainString() : "")
+                + ";maxPrice=" + (maxPrice != null ? maxPrice.toPlainString() : "");
+    }
+
+    private static String valueOf(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros() : null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.queries;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.UnsupportedSortException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordenações aceitas nas listagens. Cada propriedade corresponde a um índice parcial composto
+ * (propriedade, id) WHERE status = ... (migração V5), percorrido para frente ou para trás conforme a direção;
+ * por isso o id entra sempre como desempate na mesma direção. Qualquer outra ordenação é rejeitada com 400,
+ * evitando que uma requisição force a ordenação da tabela inteira.
+ * <p>
+ * A primeira entrada de cada status, com a direção dela, é a ordenação usada quando nenhuma é pedida: preço crescente
+ * para os disponíveis e vendas mais recentes primeiro (updated_at DESC, como o índice parcial de vendidos).
+ */
+public final class VehicleSortRegistry {
+
+    private static final String TIE_BREAKER = "id";
+
+    private static final Map<VehicleStatus, List<SortableProperty>> SORTABLE_PROPERTIES = Map.of(
+            VehicleStatus.AVAILABLE, List.of(
+                    new SortableProperty("price", Sort.Direction.ASC),
+                    new SortableProperty("year", Sort.Direction.ASC),
+                    new SortableProperty("updatedAt", Sort.Direction.ASC)),
+            VehicleStatus.SOLD, List.of(
+                    new SortableProperty("updatedAt", Sort.Direction.DESC),
+                    new SortableProperty("price", Sort.Direction.ASC))
+    );
+
+    // Propriedade aceita e a direção usada quando ela é a ordenação padrão do status
+    private record SortableProperty(String property, Sort.Direction defaultDirection) {
+    }
+
+    private VehicleSortRegistry() {
+    }
+
+    /**
+     * Valida a ordenação pedida para a listagem do status informado e devolve a paginação com a ordenação
+     * canônica (propriedade + id). Aceita também a forma canônica já com o desempate explícito.
+     */
+    public static Pageable resolve(VehicleStatus status, Pageable pageable) {
+        List<SortableProperty> sortable = SORTABLE_PROPERTIES.getOrDefault(status, List.of());
+        List<String> allowed = sortable.stream().map(SortableProperty::property).toList();
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.isEmpty()) {
+            if (pageable.isUnpaged() || sortable.isEmpty()) {
+                return pageable;
+            }
+            SortableProperty fallback = sortable.get(0);
+            return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    canonical(fallback.defaultDirection(), fallback.property()));
+        }
+
+        Sort.Order primary = orders.get(0);
+        boolean supported = allowed.contains(primary.getProperty())
+                && isPlain(primary)
+                && (orders.size() == 1 || (orders.size() == 2
+                && TIE_BREAKER.equals(orders.get(1).getProperty())
+                && orders.get(1).getDirection() == primary.getDirection()
+                && isPlain(orders.get(1))));
+        if (!supported) {
+            throw new UnsupportedSortException("Unsupported sort '" + pageable.getSort() + "' for " + status
+                    + " vehicles. Allowed properties: " + allowed + " (asc or desc).");
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), canonical(primary.getDirection(), primary.getProperty()));
+    }
+
+    private static boolean isPlain(Sort.Order order) {
+        return !order.isIgnoreCase() && order.getNullHandling() == Sort.NullHandling.NATIVE;
+    }
+
+    private static Sort canonical(Sort.Direction direction, String property) {
+        return Sort.by(new Sort.Order(direction, property), new Sort.Order(direction, TIE_BREAKER));
+    }
+}
\ No newline at end of file
@@ -3,21 +3,29 @@ package com.fiap.autohub.autohub_vehicles_api.domain.services;
 import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
 import com.fiap.autohub.autohub_vehicles_api.domain.commands.UpdateVehicleCommand;
 import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleAuditEntry;
 import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
 import com.fiap.autohub.autohub_vehicles_api.domain.events.VehicleReservedEvent;
 import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.OptimisticLockingException;
 import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.VehicleNotFoundException;
 import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.VehicleUpdateForbiddenException;
 import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.InventoryIndexPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleAuditRepositoryPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleEventPublisherPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleFacetRepositoryPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleQueryCachePort;
 import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleRepositoryPort;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.publishers.SNSEventPublisher;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleFacets;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSortRegistry;
 import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,9 +33,12 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class VehicleServiceImpl implements VehicleServicePort {
@@ -35,11 +46,30 @@ public class VehicleServiceImpl implements VehicleServicePort {
     private static final Logger logger = LoggerFactory.getLogger(VehicleServiceImpl.class);
 
     private final VehicleRepositoryPort vehicleRepository;
-    private final SNSEventPublisher eventPublisher;
+    private final VehicleEventPublisherPort eventPublisher;
+    private final VehicleQueryCachePort queryCache;
+    private final VehicleFacetRepositoryPort vehicleFacetRepository;
+    private final Optional<InventoryIndexPort> inventoryIndex;
+    private final VehicleAuditRepositoryPort vehicleAuditRepository;
 
-    public VehicleServiceImpl(VehicleRepositoryPort vehicleRepository, SNSEventPublisher eventPublisher) {
+    public VehicleServiceImpl(VehicleRepositoryPort vehicleRepository,
+                              VehicleEventPublisherPort eventPublisher,
+                              VehicleQueryCachePort queryCache,
+                              VehicleFacetRepositoryPort vehicleFacetRepository,
+                              Optional<InventoryIndexPort> inventoryIndex,
+                              VehicleAuditRepositoryPort vehicleAuditRepository) {
         this.vehicleRepository = vehicleRepository;
         this.eventPublisher = eventPublisher;
+        this.queryCache = queryCache;
+        this.vehicleFacetRepository = vehicleFacetRepository;
+        this.inventoryIndex = inventoryIndex;
+        this.vehicleAuditRepository = vehicleAuditRepository;
+    }
+
+    // Toda escrita passa por aqui: atualiza o índice em memória (se habilitado). As páginas em cache não precisam de
+    // aviso: a escrita anda a revisão do estoque e elas deixam de ser servidas.
+    private void onInventoryChanged(Vehicle saved) {
+        inventoryIndex.ifPresent(index -> index.applyAfterCommit(saved));
     }
 
     @Override
@@ -60,11 +90,43 @@ public class VehicleServiceImpl implements VehicleServicePort {
                 now,
                 now
         );
-        return vehicleRepository.save(newVehicle);
+        Vehicle created = vehicleRepository.save(newVehicle);
+        vehicleFacetRepository.adjust(null, created);
+        onInventoryChanged(created);
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public List<Vehicle> createVehicles(List<CreateVehicleCommand> commands, String ownerId) {
+        if (commands.isEmpty()) {
+            return List.of();
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<Vehicle> newVehicles = commands.stream()
+                .map(command -> new Vehicle(
+                        null,
+                        command.make(),
+                        command.model(),
+                        command.year(),
+                        command.color(),
+                        command.price(),
+                        command.description(),
+                        VehicleStatus.AVAILABLE,
+                        ownerId,
+                        0L,
+                        now,
+                        now
+                ))
+                .collect(Collectors.toList());
+        List<Vehicle> created = vehicleRepository.saveAll(newVehicles);
+        vehicleFacetRepository.addAvailable(created);
+        inventoryIndex.ifPresent(index -> created.forEach(index::applyAfterCommit));
+        return created;
     }
 
     @Override
-//    @Transactional // Garante atomicidade na atualização
+    @Transactional // Leitura e escrita no mesmo contexto de persistência: o save reaproveita a entidade já carregada
     public Vehicle updateVehicle(UUID id, UpdateVehicleCommand command, String ownerId) {
         // Busca o veículo garantindo que pertence ao ownerId correto
         Vehicle existingVehicle = vehicleRepository.findByIdAndOwnerId(id, ownerId)
@@ -97,7 +159,10 @@ public class VehicleServiceImpl implements VehicleServicePort {
         );
 
         try {
-            return vehicleRepository.save(updatedVehicle);
+            Vehicle saved = vehicleRepository.save(updatedVehicle);
+            vehicleFacetRepository.adjust(existingVehicle, saved); // Só muda algo se marca/cor/ano/faixa de preço mudaram
+            onInventoryChanged(saved);
+            return saved;
         } catch (OptimisticLockException ex) {
             throw new OptimisticLockingException("Failed to update vehicle due to concurrent modification.", ex);
         }
@@ -105,21 +170,115 @@ public class VehicleServiceImpl implements VehicleServicePort {
 
     @Override
     public Optional<Vehicle> findVehicleById(UUID id) {
-        return vehicleRepository.findById(id);
+        // Somente a leitura pública usa o cache; reserva/venda/compensação sempre leem do banco
+        return queryCache.findVehicle(id, vehicleRepository::findVersionById, vehicleRepository::findById);
     }
 
     @Override
-    public Page<Vehicle> findAvailableVehicles(Specification<VehiclePersistenceEntity> spec, Pageable pageable) {
-        Specification<VehiclePersistenceEntity> availableSpec = Specification.where(spec)
-                .and((root, query, cb) -> cb.equal(root.get("status"), VehicleStatus.AVAILABLE));
-        return vehicleRepository.findAll(availableSpec, pageable);
+    public Optional<Long> findVehicleVersion(UUID id) {
+        return vehicleRepository.findVersionById(id);
     }
 
     @Override
-    public Page<Vehicle> findSoldVehicles(Specification<VehiclePersistenceEntity> spec, Pageable pageable) {
-        Specification<VehiclePersistenceEntity> soldSpec = Specification.where(spec)
-                .and((root, query, cb) -> cb.equal(root.get("status"), VehicleStatus.SOLD));
-        return vehicleRepository.findAll(soldSpec, pageable);
+    public Optional<Vehicle> findVehicleAsOf(UUID id, OffsetDateTime asOf, String requesterId, boolean auditReader) {
+        Vehicle vehicle = findAuditedVehicle(id, requesterId, auditReader);
+        return vehicleAuditRepository.findVehicleAsOf(id, vehicle.createdAt(), asOf);
+    }
+
+    @Override
+    public Slice<VehicleAuditEntry> findVehicleHistory(UUID id, OffsetDateTime lastChangedAt, Long lastAuditId, int limit,
+                                                       String requesterId, boolean auditReader) {
+        Vehicle vehicle = findAuditedVehicle(id, requesterId, auditReader);
+        return vehicleAuditRepository.findHistoryBefore(id, vehicle.createdAt(), lastChangedAt, lastAuditId, limit);
+    }
+
+    // Como em update/delete, um veículo de outro dono "não existe" para quem pergunta
+    private Vehicle findAuditedVehicle(UUID id, String requesterId, boolean auditReader) {
+        Optional<Vehicle> vehicle = auditReader
+                ? vehicleRepository.findById(id)
+                : vehicleRepository.findByIdAndOwnerId(id, requesterId);
+        return vehicle.orElseThrow(() -> new VehicleNotFoundException("Vehicle not found with id: " + id + " for owner: " + requesterId));
+    }
+
+    @Override
+    public long findInventoryRevision() {
+        return vehicleRepository.findInventoryRevision();
+    }
+
+    @Override
+    public Page<Vehicle> findAvailableVehicles(VehicleSearchCriteria criteria, Pageable requested, long revision) {
+        Pageable pageable = VehicleSortRegistry.resolve(VehicleStatus.AVAILABLE, requested);
+        Optional<Page<Vehicle>> indexed = inventoryIndex.flatMap(index -> index.findAvailable(criteria, pageable, revision));
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+        // Combinações quentes de filtro/ordenação são servidas da memória entre uma escrita e outra
+        String key = criteria.fingerprint() + "|" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        return queryCache.findPage(key, revision,
+                () -> vehicleRepository.findAll(criteria, VehicleStatus.AVAILABLE, pageable));
+    }
+
+    @Override
+    public Page<Vehicle> searchAvailableVehicles(VehicleSearchCriteria criteria, String text, Pageable pageable, long revision) {
+        // A ordem é sempre por relevância (definida no repositório); a ordenação pedida é ignorada
+        Pageable byRelevance = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        String key = criteria.fingerprint() + "|q=" + text.trim().toLowerCase(Locale.ROOT) + "|"
+                + byRelevance.getPageNumber() + ":" + byRelevance.getPageSize();
+        return queryCache.findPage(key, revision,
+                () -> vehicleRepository.searchText(criteria, VehicleStatus.AVAILABLE, text, byRelevance));
+    }
+
+    @Override
+    public VehicleFacets findAvailableFacets(VehicleSearchCriteria criteria) {
+        return vehicleFacetRepository.countAvailable(criteria);
+    }
+
+    @Override
+    public Page<Vehicle> findSoldVehicles(VehicleSearchCriteria criteria, Pageable pageable) {
+        return vehicleRepository.findAll(criteria, VehicleStatus.SOLD, VehicleSortRegistry.resolve(VehicleStatus.SOLD, pageable));
+    }
+
+    @Override
+    public void exportSoldVehicles(VehicleSearchCriteria criteria, Consumer<Vehicle> consumer) {
+        vehicleRepository.forEachSold(criteria, consumer);
+    }
+
+    @Override
+    public Slice<Vehicle> findAvailableVehicleSlice(VehicleSearchCriteria criteria, Pageable pageable) {
+        return vehicleRepository.findSlice(criteria, VehicleStatus.AVAILABLE,
+                VehicleSortRegistry.resolve(VehicleStatus.AVAILABLE, pageable));
+    }
+
+    @Override
+    public Slice<Vehicle> findSoldVehicleSlice(VehicleSearchCriteria criteria, Pageable pageable) {
+        return vehicleRepository.findSlice(criteria, VehicleStatus.SOLD,
+                VehicleSortRegistry.resolve(VehicleStatus.SOLD, pageable));
+    }
+
+    @Override
+    public long countAvailableVehicles(VehicleSearchCriteria criteria) {
+        return countWithCache(criteria, VehicleStatus.AVAILABLE);
+    }
+
+    @Override
+    public long countSoldVehicles(VehicleSearchCriteria criteria) {
+        return countWithCache(criteria, VehicleStatus.SOLD);
+    }
+
+    // O COUNT(*) exato roda no máximo uma vez por filtro a cada TTL; entre uma carga e outra o total é aproximado
+    private long countWithCache(VehicleSearchCriteria criteria, VehicleStatus status) {
+        String key = status.name() + "|" + criteria.fingerprint();
+        return queryCache.countVehicles(key, () -> vehicleRepository.count(criteria, status));
+    }
+
+    @Override
+    public Slice<Vehicle> findAvailableVehiclesAfter(VehicleSearchCriteria criteria, BigDecimal lastPrice, UUID lastId, int limit) {
+        return vehicleRepository.findAvailableAfter(criteria, lastPrice, lastId, limit);
+    }
+
+    @Override
+    public Slice<Vehicle> findSoldVehiclesBefore(VehicleSearchCriteria criteria, OffsetDateTime lastUpdatedAt, UUID lastId, int limit) {
+        return vehicleRepository.findSoldBefore(criteria, lastUpdatedAt, lastId, limit);
     }
 
     @Override
@@ -139,86 +298,64 @@ public class VehicleServiceImpl implements VehicleServicePort {
         }
 
         vehicleRepository.deleteLogically(vehicleToDelete);
+        vehicleFacetRepository.adjust(vehicleToDelete, null);
+        inventoryIndex.ifPresent(index -> index.removeAfterCommit(vehicleToDelete.id()));
     }
 
+    // As transições de status são um UPDATE condicional (compare-and-set) cada: sem SELECT antes, sem merge e sem
+    // exceção de lock otimista quando dois eventos disputam o mesmo veículo; quem perde recebe Optional vazio.
+
     @Override
     @Transactional
     public Vehicle reserveVehicle(UUID id, UUID saleId, BigDecimal price) {
         logger.info("Attempting to reserve vehicle {} for sale {}", id, saleId);
-        Vehicle vehicle = vehicleRepository.findById(id)
-                .orElseThrow(() -> new VehicleNotFoundException("Vehicle " + id + " not found for reservation by sale " + saleId));
-
-        if (vehicle.status() != VehicleStatus.AVAILABLE) {
-            logger.warn("Reservation failed for vehicle {}: not available (status: {})", id, vehicle.status());
-            throw new VehicleUpdateForbiddenException("Vehicle " + id + " is not available for reservation. Status: " + vehicle.status());
-        }
-
-        Vehicle reservedVehicle = new Vehicle(
-                vehicle.id(), vehicle.make(), vehicle.model(), vehicle.year(), vehicle.color(), vehicle.price(), vehicle.description(),
-                VehicleStatus.RESERVED,
-                vehicle.ownerId(), vehicle.version(),
-                vehicle.createdAt(), OffsetDateTime.now(ZoneOffset.UTC)
-        );
-        try {
-            Vehicle saved = vehicleRepository.save(reservedVehicle);
-            logger.info("Vehicle {} reserved successfully for sale {}", id, saleId);
-            eventPublisher.publishVehicleReserved(new VehicleReservedEvent(saleId, saved.id(), price));
-            return saved;
-        } catch (OptimisticLockException ex) {
-            throw new OptimisticLockingException("Failed to update vehicle due to concurrent modification.", ex);
-        }
+        Vehicle saved = vehicleRepository.transitionStatus(id, VehicleStatus.AVAILABLE, VehicleStatus.RESERVED)
+                .orElseThrow(() -> {
+                    Vehicle current = vehicleRepository.findById(id)
+                            .orElseThrow(() -> new VehicleNotFoundException("Vehicle " + id + " not found for reservation by sale " + saleId));
+                    logger.warn("Reservation failed for vehicle {}: not available (status: {})", id, current.status());
+                    return new VehicleUpdateForbiddenException("Vehicle " + id + " is not available for reservation. Status: " + current.status());
+                });
+        vehicleFacetRepository.adjust(saved, null); // Saiu de AVAILABLE; marca/cor/ano/preço não mudam na transição
+        onInventoryChanged(saved);
+        logger.info("Vehicle {} reserved successfully for sale {}", id, saleId);
+        // Grava no outbox na mesma transação; o SNS só é chamado depois do commit, pelo relay
+        eventPublisher.publishVehicleReserved(new VehicleReservedEvent(saleId, saved.id(), price));
+        return saved;
     }
 
     @Override
     @Transactional
     public Vehicle markVehicleAsSold(UUID id) {
         logger.info("Attempting to mark vehicle {} as SOLD", id);
-        Vehicle vehicle = vehicleRepository.findById(id)
-                .orElseThrow(() -> new VehicleNotFoundException("Vehicle " + id + " not found to mark as sold."));
-
-        if (vehicle.status() != VehicleStatus.RESERVED) {
-            throw new VehicleUpdateForbiddenException("Vehicle " + id + " cannot be marked as sold from status " + vehicle.status());
-        }
-
-        Vehicle soldVehicle = new Vehicle(
-                vehicle.id(), vehicle.make(), vehicle.model(), vehicle.year(), vehicle.color(), vehicle.price(), vehicle.description(),
-                VehicleStatus.SOLD,
-                vehicle.ownerId(), vehicle.version(),
-                vehicle.createdAt(), OffsetDateTime.now(ZoneOffset.UTC)
-        );
-        try {
-            Vehicle saved = vehicleRepository.save(soldVehicle);
-            logger.info("Vehicle {} marked as SOLD successfully", id);
-            // TODO: Publicar evento VehicleSold (com vehicleId, ownerId, etc.) para o SNS/EventBridge
-            return saved;
-        } catch (OptimisticLockException ex) {
-            logger.warn("Optimistic lock exception while marking vehicle {} as sold.", id, ex);
-            throw new OptimisticLockingException("Failed to mark vehicle as sold due to concurrent modification.", ex);
-        }
+        Vehicle saved = vehicleRepository.transitionStatus(id, VehicleStatus.RESERVED, VehicleStatus.SOLD)
+                .orElseThrow(() -> {
+                    Vehicle current = vehicleRepository.findById(id)
+                            .orElseThrow(() -> new VehicleNotFoundException("Vehicle " + id + " not found to mark as sold."));
+                    return new VehicleUpdateForbiddenException("Vehicle " + id + " cannot be marked as sold from status " + current.status());
+                });
+        onInventoryChanged(saved);
+        logger.info("Vehicle {} marked as SOLD successfully", id);
+        // TODO: Publicar evento VehicleSold (com vehicleId, ownerId, etc.) para o SNS/EventBridge
+        return saved;
     }
 
     @Override
     @Transactional
     public void unreserveVehicle(UUID id) {
         logger.info("Attempting to unreserve vehicle {}", id);
-        Vehicle vehicle = vehicleRepository.findById(id).orElse(null);
-
-        if (vehicle != null && vehicle.status() == VehicleStatus.RESERVED) {
-            Vehicle availableVehicle = new Vehicle(
-                    vehicle.id(), vehicle.make(), vehicle.model(), vehicle.year(), vehicle.color(), vehicle.price(), vehicle.description(),
-                    VehicleStatus.AVAILABLE,
-                    vehicle.ownerId(), vehicle.version(),
-                    vehicle.createdAt(), OffsetDateTime.now(ZoneOffset.UTC)
-            );
-            try {
-                vehicleRepository.save(availableVehicle);
-                logger.info("Vehicle {} unreserved successfully.", id);
-            } catch (OptimisticLockException ex) {
-                logger.error("CRITICAL: Failed to unreserve vehicle {} due to concurrent modification during compensation.", id, ex);
-                throw new OptimisticLockingException("Failed to unreserve vehicle during compensation.", ex);
-            }
-        } else if (vehicle != null) {
-            logger.warn("Attempted to unreserve vehicle {} which was not in RESERVED state (current: {}). Skipping compensation.", id, vehicle.status());
+        Optional<Vehicle> saved = vehicleRepository.transitionStatus(id, VehicleStatus.RESERVED, VehicleStatus.AVAILABLE);
+
+        if (saved.isPresent()) {
+            vehicleFacetRepository.adjust(null, saved.get());
+            onInventoryChanged(saved.get());
+            logger.info("Vehicle {} unreserved successfully.", id);
+            return;
+        }
+        // Compensação idempotente: só lê o veículo para registrar por que não havia o que desfazer
+        Optional<Vehicle> current = vehicleRepository.findById(id);
+        if (current.isPresent()) {
+            logger.warn("Attempted to unreserve vehicle {} which was not in RESERVED state (current: {}). Skipping compensation.", id, current.get().status());
         } else {
             logger.warn("Attempted to unreserve vehicle {} which was not found. Skipping compensation.", id);
         }
@@ -0,0 +1,127 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache em memória limitado por tamanho (LRU) e por tempo de vida (TTL), com contadores de acerto,
+ * falha e remoção. O carregamento em getOrLoad roda fora do lock, então leituras lentas ao banco
+ * não bloqueiam outras chaves.
+ */
+public class BoundedTtlCache<K, V> implements CacheStatsProvider {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, CachedValue<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedTtlCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized V get(K key) {
+        CachedValue<V> cached = entries.get(key);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        if (cached.isExpired(System.nanoTime())) {
+            entries.remove(key);
+            evictions++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return cached.value();
+    }
+
+    public V getOrLoad(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new CachedValue<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Recalcula a entrada de forma atômica. A função recebe o valor atual (null se ausente ou expirado);
+     * retornar null remove a entrada. Não conta como leitura nas estatísticas.
+     */
+    public synchronized V compute(K key, UnaryOperator<V> remapping) {
+        long now = System.nanoTime();
+        CachedValue<V> cached = entries.get(key);
+        V current = (cached == null || cached.isExpired(now)) ? null : cached.value();
+        V updated = remapping.apply(current);
+        if (updated == null) {
+            entries.remove(key);
+        } else {
+            entries.put(key, new CachedValue<>(updated, now + ttlNanos));
+        }
+        return updated;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Remove as entradas expiradas (as demais expiram de forma preguiçosa na leitura).
+     */
+    public synchronized void purgeExpired() {
+        long now = System.nanoTime();
+        Iterator<CachedValue<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+                evictions++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized CacheStats stats() {
+        return new CacheStats(name, entries.size(), maxSize, hits, misses, evictions);
+    }
+
+    private record CachedValue<V>(V value, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
\ No newline at end of file
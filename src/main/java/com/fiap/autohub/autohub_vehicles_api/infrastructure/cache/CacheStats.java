@@ -0,0 +1,11 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.cache;
+
+public record CacheStats(
+        String name,
+        int size,
+        int maxSize,
+        long hits,
+        long misses,
+        long evictions
+) {
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.cache;
+
+/**
+ * Qualquer cache que exponha contadores para dimensionamento (ver InternalMetricsController).
+ */
+public interface CacheStatsProvider {
+    CacheStats stats();
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.cache;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleQueryCachePort;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caches em memória da instância por trás do VehicleQueryCachePort: veículo por id (VehicleCache), páginas de
+ * disponíveis carimbadas com a revisão do estoque (RevisionCache) e totais por filtro (BoundedTtlCache).
+ */
+@Component
+public class InMemoryVehicleQueryCacheAdapter implements VehicleQueryCachePort {
+
+    private final VehicleCache vehicleCache;
+    private final RevisionCache<String, Page<Vehicle>> availablePageCache;
+    private final BoundedTtlCache<String, Long> vehicleCountCache;
+
+    public InMemoryVehicleQueryCacheAdapter(VehicleCache vehicleCache,
+                                            RevisionCache<String, Page<Vehicle>> availablePageCache,
+                                            BoundedTtlCache<String, Long> vehicleCountCache) {
+        this.vehicleCache = vehicleCache;
+        this.availablePageCache = availablePageCache;
+        this.vehicleCountCache = vehicleCountCache;
+    }
+
+    @Override
+    public Optional<Vehicle> findVehicle(UUID id, Function<UUID, Optional<Long>> versionLoader,
+                                         Function<UUID, Optional<Vehicle>> loader) {
+        return vehicleCache.getOrLoad(id, versionLoader, loader);
+    }
+
+    @Override
+    public Page<Vehicle> findPage(String key, long revision, Supplier<Page<Vehicle>> loader) {
+        return availablePageCache.getOrLoad(key, revision, loader);
+    }
+
+    @Override
+    public long countVehicles(String key, Supplier<Long> loader) {
+        return vehicleCountCache.getOrLoad(key, k -> loader.get());
+    }
+}
\ No newline at end of file
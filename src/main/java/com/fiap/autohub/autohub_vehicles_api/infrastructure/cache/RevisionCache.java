@@ -0,0 +1,50 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache de resultados carimbados com a revisão do estoque (inventory_revisions, V14) que o chamador leu antes da
+ * carga. A revisão é global: escritas de qualquer instância a fazem andar, então uma entrada só é servida a quem pede
+ * uma revisão igual ou anterior à dela; para os demais, recarrega. O TTL só limita o uso de memória.
+ */
+public class RevisionCache<K, V> implements CacheStatsProvider {
+
+    private final BoundedTtlCache<K, Stamped<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RevisionCache(String name, int maxSize, Duration ttl) {
+        this.entries = new BoundedTtlCache<>(name, maxSize, ttl);
+    }
+
+    /**
+     * @param revision revisão lida antes de chamar: o loader enxerga pelo menos os commits até ela
+     */
+    public V getOrLoad(K key, long revision, Supplier<V> loader) {
+        Stamped<V> cached = entries.get(key);
+        if (cached != null && cached.revision() >= revision) {
+            hits.increment();
+            return cached.value();
+        }
+        misses.increment();
+        V loaded = loader.get();
+        if (loaded != null) {
+            // Não sobrescreve uma entrada carregada numa revisão mais nova por outra requisição
+            entries.compute(key, existing -> existing != null && existing.revision() > revision
+                    ? existing
+                    : new Stamped<>(revision, loaded));
+        }
+        return loaded;
+    }
+
+    @Override
+    public CacheStats stats() {
+        CacheStats base = entries.stats();
+        return new CacheStats(base.name(), base.size(), base.maxSize(), hits.sum(), misses.sum(), base.evictions());
+    }
+
+    private record Stamped<V>(long revision, V value) {
+    }
+}
\ No newline at end of file
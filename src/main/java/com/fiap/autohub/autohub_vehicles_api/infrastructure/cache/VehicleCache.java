@@ -0,0 +1,113 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.cache;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache read-through de veículos por id, ciente da coluna version.
+ * <p>
+ * Escritas não apenas removem a entrada: deixam uma lápide com a versão mínima aceitável. Assim, uma leitura
+ * lenta que começou antes da escrita e termina depois dela (trazendo a versão antiga) é descartada em vez de
+ * sobrescrever o cache. Uma entrada só é substituída por outra de versão igual ou maior.
+ * <p>
+ * A lápide é gravada depois do commit (como a atualização do índice em memória): um rollback não deixa o veículo fora do cache até o
+ * TTL, e uma carga feita durante a transação (ainda com a versão antiga) é substituída pela lápide no commit.
+ * <p>
+ * O cache e as lápides são locais à instância, e escritas de outra instância (ex.: reserva e venda na Lambda SQS) não
+ * passam por aqui. Por isso todo acerto é revalidado com a versão atual no banco (SELECT version pela PK, sem carregar
+ * nem mapear a linha): versão diferente descarta a entrada e recarrega. O que o cache economiza é a leitura e o
+ * mapeamento do veículo, não a ida ao banco; em troca, nunca serve um status vencido.
+ */
+@Component
+public class VehicleCache implements CacheStatsProvider {
+
+    private final BoundedTtlCache<UUID, CachedVehicle> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VehicleCache(@Value("${vehicles.cache.by-id.max-size}") int maxSize,
+                        @Value("${vehicles.cache.by-id.ttl}") Duration ttl) {
+        this.entries = new BoundedTtlCache<>("vehicles-by-id", maxSize, ttl);
+    }
+
+    /**
+     * Serve a entrada em cache se a versão dela ainda é a do banco (versionLoader); senão carrega com loader.
+     */
+    public Optional<Vehicle> getOrLoad(UUID id, Function<UUID, Optional<Long>> versionLoader,
+                                       Function<UUID, Optional<Vehicle>> loader) {
+        CachedVehicle cached = entries.get(id);
+        if (cached != null && cached.vehicle() != null) {
+            Optional<Long> currentVersion = versionLoader.apply(id);
+            if (currentVersion.isEmpty()) {
+                entries.invalidate(id); // A linha não existe mais
+                misses.increment();
+                return Optional.empty();
+            }
+            if (currentVersion.get() == cached.version()) {
+                hits.increment();
+                return Optional.of(cached.vehicle());
+            }
+            // Escrita de outra instância: a versão do banco vira o mínimo aceito para a carga abaixo
+            invalidate(id, currentVersion.get());
+        }
+        misses.increment();
+        Optional<Vehicle> loaded = loader.apply(id);
+        loaded.ifPresent(this::putIfNewer);
+        return loaded;
+    }
+
+    /**
+     * Invalida a entrada do veículo quando a transação atual fizer commit (na hora, se não houver transação).
+     */
+    public void invalidateAfterCommit(UUID id, long minVersion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id, minVersion);
+                }
+            });
+        } else {
+            invalidate(id, minVersion);
+        }
+    }
+
+    /**
+     * Invalida a entrada do veículo, rejeitando futuras cargas com versão menor que minVersion.
+     */
+    public void invalidate(UUID id, long minVersion) {
+        entries.compute(id, current -> new CachedVehicle(
+                current != null ? Math.max(current.version(), minVersion) : minVersion, null));
+    }
+
+    private void putIfNewer(Vehicle vehicle) {
+        if (vehicle.id() == null || vehicle.version() == null) {
+            return;
+        }
+        entries.compute(vehicle.id(), current ->
+                current == null || vehicle.version() >= current.version()
+                        ? new CachedVehicle(vehicle.version(), vehicle)
+                        : current);
+    }
+
+    @Override
+    public CacheStats stats() {
+        CacheStats base = entries.stats();
+        return new CacheStats(base.name(), base.size(), base.maxSize(), hits.sum(), misses.sum(), base.evictions());
+    }
+
+    /**
+     * vehicle == null representa uma lápide: a entrada foi invalidada e só aceita versões >= version.
+     */
+    private record CachedVehicle(long version, Vehicle vehicle) {
+    }
+}
\ No newline at end of file
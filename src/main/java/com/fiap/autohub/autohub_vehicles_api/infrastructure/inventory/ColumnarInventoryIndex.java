@@ -0,0 +1,571 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.inventory;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.InventoryIndexPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleRepositoryPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice colunar em memória dos veículos AVAILABLE, opcional (vehicles.inventory-index.enabled).
+ * <p>
+ * Cada veículo ocupa um slot; as colunas são arrays primitivos (preço em centavos, ano, ids de dicionário de
+ * marca/cor) e há um bitmap por marca, por cor e por ano. Uma permutação dos slots ordenada por (preço, id) atende a
+ * ordenação por preço sem sort por requisição; escritas a mantêm com busca binária + arraycopy.
+ * <p>
+ * Uma consulta cruza os bitmaps dos filtros (marca AND cor AND anos da faixa) e acha a faixa de preço na permutação
+ * por busca binária. O total sai da cardinalidade dos bitmaps (ou do tamanho da faixa); a página é lida a partir da
+ * ponta da faixa e a varredura para assim que ela enche. Com poucos candidatos, só eles são ordenados.
+ * Só o filtro de modelo (substring) exige testar cada candidato.
+ * <p>
+ * Carregado no ApplicationReadyEvent e atualizado pelas transições do VehicleServiceImpl após o commit. Como
+ * escritas de outras instâncias (ex.: a Lambda SQS) não passam por aqui, uma tarefa agendada aplica a cada
+ * consistency-check-interval o delta por updated_at e compara o total com o banco; divergência recarrega tudo.
+ * Nada disso roda na thread da requisição.
+ * <p>
+ * Cada carga e cada sincronização carimbam o índice com a revisão do estoque (V14) lida antes de consultar o banco.
+ * Uma consulta que pede uma revisão mais nova (a do ETag que vai na resposta) não é atendida: quem chama usa o SQL.
+ * Entre uma escrita de qualquer instância e a sincronização seguinte, portanto, as buscas vão ao banco.
+ */
+@Component
+@ConditionalOnProperty(name = "vehicles.inventory-index.enabled", havingValue = "true")
+public class ColumnarInventoryIndex implements InventoryIndexPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarInventoryIndex.class);
+    private static final int INITIAL_CAPACITY = 1024;
+    // Candidatos abaixo de 1/8 da faixa de preço: ordenar só eles sai mais barato que percorrer a permutação
+    private static final int SPARSE_CANDIDATE_RATIO = 8;
+    private static final VehicleSearchCriteria ALL_VEHICLES = VehicleSearchCriteria.byMake(null);
+
+    private final VehicleRepositoryPort vehicleRepository;
+    private final Duration syncOverlap;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Colunas por slot
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private int[] years = new int[INITIAL_CAPACITY];
+    private int[] makeIds = new int[INITIAL_CAPACITY];
+    private int[] colorIds = new int[INITIAL_CAPACITY];
+    private long[] idMsb = new long[INITIAL_CAPACITY];
+    private long[] idLsb = new long[INITIAL_CAPACITY];
+    private String[] models = new String[INITIAL_CAPACITY];
+    private Vehicle[] vehicles = new Vehicle[INITIAL_CAPACITY];
+
+    // Dicionários e bitmaps por valor
+    private final Map<String, Integer> makeDictionary = new HashMap<>();
+    private final Map<String, Integer> colorDictionary = new HashMap<>();
+    private final List<BitSet> makeBitmaps = new ArrayList<>();
+    private final List<BitSet> colorBitmaps = new ArrayList<>();
+    private final NavigableMap<Integer, BitSet> yearBitmaps = new TreeMap<>();
+
+    private final Map<UUID, Integer> slotById = new HashMap<>();
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int highWaterMark;
+
+    // Slots ocupados ordenados por (preço, id)
+    private int[] byPrice = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private volatile boolean ready;
+    private volatile OffsetDateTime watermark;
+    private volatile long revision;
+
+    public ColumnarInventoryIndex(VehicleRepositoryPort vehicleRepository,
+                                  @Value("${vehicles.inventory-index.sync-overlap}") Duration syncOverlap) {
+        this.vehicleRepository = vehicleRepository;
+        this.syncOverlap = syncOverlap;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Override
+    public Optional<Page<Vehicle>> findAvailable(VehicleSearchCriteria criteria, Pageable pageable, long minRevision) {
+        if (!canServe(pageable) || revision < minRevision) {
+            return Optional.empty();
+        }
+        return Optional.of(findAvailable(criteria, pageable));
+    }
+
+    /**
+     * O índice atende a listagem de disponíveis quando já carregado e ordenada por preço.
+     */
+    boolean canServe(Pageable pageable) {
+        if (!ready || pageable.isUnpaged()) {
+            return false;
+        }
+        Sort.Order primary = pageable.getSort().stream().findFirst().orElse(null);
+        return primary != null && "price".equals(primary.getProperty());
+    }
+
+    long revision() {
+        return revision;
+    }
+
+    Page<Vehicle> findAvailable(VehicleSearchCriteria criteria, Pageable pageable) {
+        boolean descending = pageable.getSort().stream().findFirst().map(Sort.Order::isDescending).orElse(false);
+        // price é DECIMAL(12,2): arredonda os limites para dentro da faixa, como a comparação exata do banco
+        long minCents = criteria.minPrice() != null ? toCents(criteria.minPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxCents = criteria.maxPrice() != null ? toCents(criteria.maxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+        String model = criteria.model();
+        long offset = pageable.getOffset();
+        int pageSize = pageable.getPageSize();
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = candidates(criteria);
+            int low = lowerBound(minCents);
+            int high = upperBound(maxCents);
+            if (low >= high || (candidates != null && candidates.isEmpty())) {
+                return new PageImpl<>(List.of(), pageable, 0);
+            }
+            int candidateCount = candidates != null ? candidates.cardinality() : high - low;
+            if (candidates != null && candidateCount < (high - low) / SPARSE_CANDIDATE_RATIO) {
+                return pageOfCandidates(candidates, candidateCount, minCents, maxCents, model, descending, pageable);
+            }
+
+            // Percorre a permutação a partir da ponta da faixa de preço; para quando a página enche
+            List<Vehicle> content = new ArrayList<>(pageSize);
+            long skipped = 0;
+            boolean exhausted = true;
+            int start = descending ? high - 1 : low;
+            int step = descending ? -1 : 1;
+            for (int i = start; i >= low && i < high; i += step) {
+                int slot = byPrice[i];
+                if (!matches(slot, candidates, model)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                if (content.size() == pageSize) {
+                    exhausted = false;
+                    break;
+                }
+                content.add(vehicles[slot]);
+            }
+            long total = exhausted
+                    ? skipped + content.size()
+                    : countMatches(candidates, candidateCount, low, high, minCents, maxCents, model);
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Interseção dos bitmaps dos filtros de marca, cor e faixa de ano; null quando nenhum desses filtros foi pedido
+     * (todos os slots são candidatos). Valor fora do dicionário devolve um bitmap vazio.
+     */
+    private BitSet candidates(VehicleSearchCriteria criteria) {
+        BitSet result = null;
+        if (criteria.make() != null) {
+            result = intersect(result, bitmapFor(makeDictionary, makeBitmaps, criteria.make()));
+        }
+        if (criteria.color() != null) {
+            result = intersect(result, bitmapFor(colorDictionary, colorBitmaps, criteria.color()));
+        }
+        if (criteria.minYear() != null || criteria.maxYear() != null) {
+            int minYear = criteria.minYear() != null ? criteria.minYear() : Integer.MIN_VALUE;
+            int maxYear = criteria.maxYear() != null ? criteria.maxYear() : Integer.MAX_VALUE;
+            BitSet inRange = new BitSet();
+            if (minYear <= maxYear) {
+                yearBitmaps.subMap(minYear, true, maxYear, true).values().forEach(inRange::or);
+            }
+            result = intersect(result, inRange);
+        }
+        return result;
+    }
+
+    private static BitSet intersect(BitSet current, BitSet filter) {
+        if (filter == null) {
+            return new BitSet();
+        }
+        if (current == null) {
+            return (BitSet) filter.clone(); // Os bitmaps do índice não podem ser alterados pela consulta
+        }
+        current.and(filter);
+        return current;
+    }
+
+    private boolean matches(int slot, BitSet candidates, String model) {
+        return (candidates == null || candidates.get(slot)) && (model == null || models[slot].contains(model));
+    }
+
+    /**
+     * Total da consulta sem montar a página: cardinalidade dos bitmaps ou tamanho da faixa de preço quando só um dos
+     * dois restringe; senão percorre o menor dos dois conjuntos.
+     */
+    private long countMatches(BitSet candidates, int candidateCount, int low, int high,
+                              long minCents, long maxCents, String model) {
+        if (model == null) {
+            if (candidates == null) {
+                return high - low;
+            }
+            if (low == 0 && high == size) {
+                return candidateCount;
+            }
+        }
+        long count = 0;
+        if (candidates != null && candidateCount < high - low) {
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if (priceCents[slot] >= minCents && priceCents[slot] <= maxCents && matches(slot, null, model)) {
+                    count++;
+                }
+            }
+        } else {
+            for (int i = low; i < high; i++) {
+                if (matches(byPrice[i], candidates, model)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Poucos candidatos: filtra e ordena só eles por (preço, id), na direção pedida
+    private Page<Vehicle> pageOfCandidates(BitSet candidates, int candidateCount, long minCents, long maxCents,
+                                           String model, boolean descending, Pageable pageable) {
+        Integer[] matching = new Integer[candidateCount];
+        int count = 0;
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            if (priceCents[slot] >= minCents && priceCents[slot] <= maxCents && matches(slot, null, model)) {
+                matching[count++] = slot;
+            }
+        }
+        Arrays.sort(matching, 0, count, descending ? (a, b) -> compare(b, a) : this::compare);
+
+        List<Vehicle> content = new ArrayList<>(pageable.getPageSize());
+        for (long i = pageable.getOffset(); i < count && content.size() < pageable.getPageSize(); i++) {
+            content.add(vehicles[matching[(int) i]]);
+        }
+        return new PageImpl<>(content, pageable, count);
+    }
+
+    /**
+     * Aplica a nova versão do veículo depois do commit (ou imediatamente, fora de transação). Não mexe na revisão:
+     * escritas de outras instâncias entre o carimbo e este commit continuam de fora até a próxima sincronização.
+     */
+    @Override
+    public void applyAfterCommit(Vehicle vehicle) {
+        afterCommit(() -> apply(vehicle));
+    }
+
+    @Override
+    public void removeAfterCommit(UUID id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slotById.get(id);
+                if (slot != null) {
+                    removeSlot(slot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Vehicle vehicle) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(vehicle);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Idempotente e ciente de versão: o delta de sincronização pode reaplicar linhas já vistas
+    private void applyLocked(Vehicle vehicle) {
+        Integer slot = slotById.get(vehicle.id());
+        if (slot != null) {
+            Long indexedVersion = vehicles[slot].version();
+            if (indexedVersion != null && vehicle.version() != null && vehicle.version() < indexedVersion) {
+                return;
+            }
+            removeSlot(slot);
+        }
+        if (vehicle.status() == VehicleStatus.AVAILABLE) {
+            insert(vehicle);
+        }
+    }
+
+    /**
+     * Sincronização com o banco fora das requisições: aplica o delta por updated_at e compara o total de AVAILABLE.
+     * A revisão é lida antes do delta; com a sobreposição, o delta cobre todo commit até ela (desde que nenhuma
+     * transação de escrita dure mais que sync-overlap).
+     */
+    @Scheduled(fixedDelayString = "${vehicles.inventory-index.consistency-check-interval}",
+            initialDelayString = "${vehicles.inventory-index.consistency-check-interval}")
+    public void synchronize() {
+        if (!ready) {
+            return; // Ainda carregando no ApplicationReadyEvent
+        }
+        try {
+            long syncRevision = vehicleRepository.findInventoryRevision();
+            // A sobreposição recupera escritas com updated_at anterior à marca d'água que só commitaram depois dela
+            List<Vehicle> changed = watermark != null
+                    ? vehicleRepository.findUpdatedSince(watermark.minus(syncOverlap))
+                    : List.of();
+            OffsetDateTime newWatermark = watermark;
+            lock.writeLock().lock();
+            try {
+                for (Vehicle vehicle : changed) {
+                    applyLocked(vehicle);
+                    if (newWatermark == null || vehicle.updatedAt().isAfter(newWatermark)) {
+                        newWatermark = vehicle.updatedAt();
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            watermark = newWatermark;
+
+            long databaseCount = vehicleRepository.count(ALL_VEHICLES, VehicleStatus.AVAILABLE);
+            int indexed = size();
+            if (databaseCount != indexed) {
+                logger.warn("Inventory index out of sync (indexed: {}, database: {}). Reloading.", indexed, databaseCount);
+                reload();
+                return;
+            }
+            revision = Math.max(revision, syncRevision);
+        } catch (RuntimeException e) {
+            logger.error("Inventory index synchronization failed; serving current snapshot.", e);
+        }
+    }
+
+    void reload() {
+        long started = System.nanoTime();
+        long loadRevision = vehicleRepository.findInventoryRevision();
+        OffsetDateTime loadWatermark = vehicleRepository.findLatestUpdatedAt().orElse(null);
+        List<Vehicle> available = vehicleRepository.findAllByStatus(VehicleStatus.AVAILABLE);
+
+        lock.writeLock().lock();
+        try {
+            clear(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, available.size())) << 1));
+            for (Vehicle vehicle : available) {
+                insert(vehicle);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        watermark = loadWatermark;
+        revision = loadRevision;
+        ready = true;
+        logger.info("Inventory index loaded with {} available vehicles in {} ms", available.size(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private void clear(int capacity) {
+        priceCents = new long[capacity];
+        years = new int[capacity];
+        makeIds = new int[capacity];
+        colorIds = new int[capacity];
+        idMsb = new long[capacity];
+        idLsb = new long[capacity];
+        models = new String[capacity];
+        vehicles = new Vehicle[capacity];
+        freeSlots = new int[capacity];
+        byPrice = new int[capacity];
+        makeDictionary.clear();
+        colorDictionary.clear();
+        makeBitmaps.clear();
+        colorBitmaps.clear();
+        yearBitmaps.clear();
+        slotById.clear();
+        freeCount = 0;
+        highWaterMark = 0;
+        size = 0;
+    }
+
+    private void insert(Vehicle vehicle) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        priceCents[slot] = toCents(vehicle.price(), RoundingMode.HALF_UP);
+        years[slot] = vehicle.year();
+        makeIds[slot] = encode(makeDictionary, makeBitmaps, normalize(vehicle.make()));
+        colorIds[slot] = encode(colorDictionary, colorBitmaps, normalize(vehicle.color()));
+        idMsb[slot] = vehicle.id().getMostSignificantBits();
+        idLsb[slot] = vehicle.id().getLeastSignificantBits();
+        models[slot] = normalize(vehicle.model());
+        vehicles[slot] = vehicle;
+        makeBitmaps.get(makeIds[slot]).set(slot);
+        colorBitmaps.get(colorIds[slot]).set(slot);
+        yearBitmaps.computeIfAbsent(years[slot], year -> new BitSet()).set(slot);
+        slotById.put(vehicle.id(), slot);
+
+        int position = insertionPoint(slot);
+        System.arraycopy(byPrice, position, byPrice, position + 1, size - position);
+        byPrice[position] = slot;
+        size++;
+    }
+
+    private void removeSlot(int slot) {
+        int position = insertionPoint(slot);
+        System.arraycopy(byPrice, position + 1, byPrice, position, size - position - 1);
+        size--;
+
+        makeBitmaps.get(makeIds[slot]).clear(slot);
+        colorBitmaps.get(colorIds[slot]).clear(slot);
+        yearBitmaps.get(years[slot]).clear(slot);
+        slotById.remove(vehicles[slot].id());
+        vehicles[slot] = null;
+        models[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int nextSlot() {
+        if (highWaterMark == priceCents.length) {
+            int capacity = priceCents.length << 1;
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            years = Arrays.copyOf(years, capacity);
+            makeIds = Arrays.copyOf(makeIds, capacity);
+            colorIds = Arrays.copyOf(colorIds, capacity);
+            idMsb = Arrays.copyOf(idMsb, capacity);
+            idLsb = Arrays.copyOf(idLsb, capacity);
+            models = Arrays.copyOf(models, capacity);
+            vehicles = Arrays.copyOf(vehicles, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+            byPrice = Arrays.copyOf(byPrice, capacity);
+        }
+        return highWaterMark++;
+    }
+
+    /**
+     * Posição de um slot na permutação (busca binária por preço e id). Se o slot já está na permutação,
+     * é a posição dele; senão, onde deve ser inserido.
+     */
+    private int insertionPoint(int slot) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(byPrice[mid], slot) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Primeira posição com preço >= cents
+    private int lowerBound(long cents) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (priceCents[byPrice[mid]] < cents) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Primeira posição com preço > cents
+    private int upperBound(long cents) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (priceCents[byPrice[mid]] <= cents) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Desempate por id sem sinal, byte a byte, como o tipo uuid do Postgres ordena
+    private int compare(int a, int b) {
+        int byPriceCents = Long.compare(priceCents[a], priceCents[b]);
+        if (byPriceCents != 0) {
+            return byPriceCents;
+        }
+        int byMsb = Long.compareUnsigned(idMsb[a], idMsb[b]);
+        return byMsb != 0 ? byMsb : Long.compareUnsigned(idLsb[a], idLsb[b]);
+    }
+
+    private static int encode(Map<String, Integer> dictionary, List<BitSet> bitmaps, String value) {
+        return dictionary.computeIfAbsent(value, v -> {
+            bitmaps.add(new BitSet());
+            return bitmaps.size() - 1;
+        });
+    }
+
+    private static BitSet bitmapFor(Map<String, Integer> dictionary, List<BitSet> bitmaps, String value) {
+        if (value == null) {
+            return null;
+        }
+        Integer id = dictionary.get(value);
+        return id != null ? bitmaps.get(id) : null;
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
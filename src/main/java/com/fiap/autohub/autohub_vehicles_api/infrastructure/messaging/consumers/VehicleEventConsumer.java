@@ -1,111 +1,172 @@
 package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.consumers; // Verifique o pacote
 
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fiap.autohub.autohub_vehicles_api.domain.events.*;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.listeners.PaymentEventsListener;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.listeners.SaleCreatedListener;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.outbox.OutboxRelay;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * Componente central que recebe eventos SQS e os roteia para os listeners apropriados
- * com base no eventType. Chamado pelo @Bean Consumer<SQSEvent>.
+ * com base no eventType (via VehicleEventHandlerRegistry). Chamado pelo @Bean Function<SQSEvent, SQSBatchResponse>.
+ * <p>
+ * As mensagens do lote são agrupadas por vehicle_id. Grupos de veículos diferentes rodam em paralelo (virtual threads,
+ * no máximo max-concurrency ao mesmo tempo, para não esgotar o pool de conexões); dentro de um grupo a ordem de
+ * chegada é mantida (ex.: SaleCreated antes de PaymentCompleted). Se uma mensagem falha, as seguintes do mesmo veículo
+ * não são processadas e voltam junto com ela, preservando a ordem na reentrega.
+ * <p>
+ * Uma mensagem com erro não interrompe o lote: ela entra na lista de falhas da resposta e só ela volta para a fila
+ * (requer FunctionResponseTypes=ReportBatchItemFailures no event source mapping).
  */
 @Component
 public class VehicleEventConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(VehicleEventConsumer.class);
 
-    private final SaleCreatedListener saleCreatedListener;
-    private final PaymentEventsListener paymentEventsListener;
-    private final ObjectMapper objectMapper;
-
-    public VehicleEventConsumer(SaleCreatedListener saleCreatedListener,
-                                PaymentEventsListener paymentEventsListener,
-                                ObjectMapper objectMapper) {
-        this.saleCreatedListener = saleCreatedListener;
-        this.paymentEventsListener = paymentEventsListener;
-        this.objectMapper = objectMapper;
+    private final VehicleEventHandlerRegistry handlerRegistry;
+    private final Optional<OutboxRelay> outboxRelay;
+    private final Semaphore concurrency;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public VehicleEventConsumer(VehicleEventHandlerRegistry handlerRegistry,
+                                Optional<OutboxRelay> outboxRelay,
+                                @Value("${vehicles.events.max-concurrency}") int maxConcurrency) {
+        this.handlerRegistry = handlerRegistry;
+        this.outboxRelay = outboxRelay;
+        this.concurrency = new Semaphore(maxConcurrency);
     }
 
     /**
      * Ponto de entrada principal para processar eventos SQS.
      *
      * @param sqsEvent O evento SQS recebido.
+     * @return os ids das mensagens que falharam; as demais são removidas da fila
      */
-    public void consumeEvent(SQSEvent sqsEvent) {
+    public SQSBatchResponse consumeEvent(SQSEvent sqsEvent) {
+        List<SQSBatchResponse.BatchItemFailure> failures = new ArrayList<>();
         if (sqsEvent == null || sqsEvent.getRecords() == null) {
             log.warn("Received null or empty SQSEvent in VehicleEventConsumer.");
-            return;
+            return new SQSBatchResponse(failures);
         }
         log.info("Processing SQS event with {} record(s) in VehicleEventConsumer.", sqsEvent.getRecords().size());
         List<SQSEvent.SQSMessage> messages = sqsEvent.getRecords();
 
-        for (SQSEvent.SQSMessage message : messages) {
-            String messageId = message.getMessageId();
-            String messageBody = message.getBody();
-            log.debug("Processing message ID: {}, Body: {}", messageId, messageBody);
-
-            try {
-                JsonNode rootNode = objectMapper.readTree(messageBody);
-                String eventType = rootNode.path("event_type").asText(null);
+        try {
+            Map<String, List<ParsedMessage>> groups = new LinkedHashMap<>();
+            for (SQSEvent.SQSMessage message : messages) {
+                ParsedMessage parsed = parse(message);
+                if (parsed == null) {
+                    failures.add(new SQSBatchResponse.BatchItemFailure(message.getMessageId()));
+                    continue;
+                }
+                groups.computeIfAbsent(parsed.groupKey(), key -> new ArrayList<>()).add(parsed);
+            }
 
-                if (eventType == null) {
-                    log.error("Received message (ID: {}) without 'eventType' field: {}", messageId, messageBody);
-                    throw new IllegalArgumentException("Missing eventType in message body for message ID: " + messageId);
+            List<List<ParsedMessage>> groupList = new ArrayList<>(groups.values());
+            List<Future<List<String>>> results = new ArrayList<>(groupList.size());
+            for (List<ParsedMessage> group : groupList) {
+                results.add(executor.submit(() -> processGroup(group)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get().forEach(id -> failures.add(new SQSBatchResponse.BatchItemFailure(id)));
+                } catch (ExecutionException e) {
+                    log.error("Unexpected failure processing message group", e.getCause());
+                    failGroup(groupList.get(i), failures);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failGroup(groupList.get(i), failures);
                 }
+            }
+        } finally {
+            // A Lambda congela a instância ao retornar: os eventos gravados no outbox por este lote são entregues
+            // antes disso, em vez de esperar o drain assíncrono ou a próxima varredura
+            outboxRelay.ifPresent(OutboxRelay::drain);
+        }
+        log.info("Finished processing batch of {} message(s) in VehicleEventConsumer, {} failed.", messages.size(), failures.size());
+        return new SQSBatchResponse(failures);
+    }
+
+    private ParsedMessage parse(SQSEvent.SQSMessage message) {
+        String messageId = message.getMessageId();
+        String messageBody = message.getBody();
+        log.debug("Processing message ID: {}, Body: {}", messageId, messageBody);
+        try {
+            JsonNode rootNode = handlerRegistry.readTree(messageBody);
+            String eventType = rootNode.path("event_type").asText(null);
+
+            if (eventType == null) {
+                log.error("Received message (ID: {}) without 'eventType' field: {}", messageId, messageBody);
+                return null;
+            }
+            // Sem vehicle_id a mensagem forma um grupo sozinha
+            String vehicleId = rootNode.path("data").path("vehicle_id").asText(null);
+            return new ParsedMessage(messageId, messageBody, eventType, rootNode, vehicleId != null ? vehicleId : "message:" + messageId);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to parse message body (Message ID: {}): {}", messageId, messageBody, e);
+            return null;
+        }
+    }
 
-                log.info("Routing event (Message ID: {}) based on eventType: {}", messageId, eventType);
-
-                // Roteamento baseado no eventType
-                switch (eventType) {
-                    case "SaleCreated":
-                        SaleCreatedEvent sce = objectMapper.readValue(messageBody, SaleCreatedEvent.class);
-                        // Chama o método do listener original, mas sem a anotação SQSListener
-                        saleCreatedListener.handleSaleCreatedEvent(sce);
-                        break;
-
-                    case "PaymentCompleted":
-                        PaymentCompletedEvent pce = objectMapper.readValue(messageBody, PaymentCompletedEvent.class);
-                        // Chama o método do listener original
-                        paymentEventsListener.handlePaymentCompletedEvent(pce);
-                        break;
-
-                    case "PaymentFailed":
-                        PaymentFailedEvent pfe = objectMapper.readValue(messageBody, PaymentFailedEvent.class);
-                        paymentEventsListener.handlePaymentFailedEvent(pfe);
-                        break;
-
-                    case "ChargeCreationFailed":
-                        ChargeCreationFailedEvent ccfe = objectMapper.readValue(messageBody, ChargeCreationFailedEvent.class);
-                        paymentEventsListener.handleChargeCreationFailedEvent(ccfe);
-                        break;
-
-                    case "ChargeExpired":
-                        ChargeExpiredEvent cee = objectMapper.readValue(messageBody, ChargeExpiredEvent.class);
-                        paymentEventsListener.handleChargeExpiredEvent(cee);
-                        break;
-
-                    default:
-                        log.warn("Received unhandled eventType '{}' for message ID: {}", eventType, messageId);
-                        break;
+    /**
+     * Processa as mensagens de um veículo em ordem.
+     *
+     * @return ids das mensagens que falharam ou que ficaram depois de uma falha
+     */
+    private List<String> processGroup(List<ParsedMessage> group) throws InterruptedException {
+        List<String> failed = new ArrayList<>();
+        concurrency.acquire();
+        try {
+            for (ParsedMessage message : group) {
+                if (!failed.isEmpty()) {
+                    log.warn("Skipping message (ID: {}) after an earlier failure for the same vehicle", message.messageId());
+                    failed.add(message.messageId());
+                    continue;
+                }
+                try {
+                    log.info("Routing event (Message ID: {}) based on eventType: {}", message.messageId(), message.eventType());
+
+                    // Roteamento baseado no eventType; o evento tipado sai da mesma árvore, sem reler o corpo
+                    if (!handlerRegistry.dispatch(message.eventType(), message.rootNode())) {
+                        log.warn("Received unhandled eventType '{}' for message ID: {}", message.eventType(), message.messageId());
+                    }
+                    log.debug("Finished processing message ID: {} for eventType: {}", message.messageId(), message.eventType());
+                } catch (Exception e) {
+                    log.error("Failed to process message (Message ID: {}): {}", message.messageId(), message.body(), e);
+                    failed.add(message.messageId());
                 }
-                log.debug("Finished processing message ID: {} for eventType: {}", messageId, eventType);
-
-            } catch (JsonProcessingException e) {
-                log.error("Failed to parse message body (Message ID: {}): {}", messageId, messageBody, e);
-                throw new RuntimeException("Message parsing failed for message ID: " + messageId, e);
-            } catch (Exception e) {
-                log.error("Failed to process message (Message ID: {}): {}", messageId, messageBody, e);
-                throw new RuntimeException("Message processing failed for message ID: " + messageId, e);
             }
+        } finally {
+            concurrency.release();
         }
-        log.info("Finished processing batch of {} message(s) in VehicleEventConsumer.", messages.size());
+        return failed;
+    }
+
+    private static void failGroup(List<ParsedMessage> group, List<SQSBatchResponse.BatchItemFailure> failures) {
+        group.forEach(message -> failures.add(new SQSBatchResponse.BatchItemFailure(message.messageId())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private record ParsedMessage(String messageId, String body, String eventType, JsonNode rootNode, String groupKey) {
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.consumers;
+
+import java.util.function.Consumer;
+
+/**
+ * Associa um event_type ao tipo concreto do evento e a quem o processa. Cada handler é um bean: um novo tipo de evento
+ * entra no roteamento do VehicleEventConsumer só declarando o seu (ver VehicleEventHandlersConfig).
+ */
+public record VehicleEventHandler<E>(String eventType, Class<E> eventClass, Consumer<E> handler) {
+
+    public static <E> VehicleEventHandler<E> of(String eventType, Class<E> eventClass, Consumer<E> handler) {
+        return new VehicleEventHandler<>(eventType, eventClass, handler);
+    }
+}
\ No newline at end of file
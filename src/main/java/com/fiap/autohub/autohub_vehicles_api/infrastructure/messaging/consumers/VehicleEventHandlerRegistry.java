@@ -0,0 +1,64 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.consumers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Roteamento dos eventos SQS por event_type. O corpo é tokenizado uma única vez (readTree); o tipo concreto é obtido
+ * convertendo a árvore já lida, com um ObjectReader montado na inicialização para cada tipo (sem lookup de
+ * desserializador por mensagem).
+ */
+@Component
+public class VehicleEventHandlerRegistry {
+
+    private final ObjectReader treeReader;
+    private final Map<String, Route<?>> routes = new HashMap<>();
+
+    public VehicleEventHandlerRegistry(List<VehicleEventHandler<?>> handlers, ObjectMapper objectMapper) {
+        this.treeReader = objectMapper.reader();
+        for (VehicleEventHandler<?> handler : handlers) {
+            Route<?> previous = routes.put(handler.eventType(), Route.of(objectMapper, handler));
+            if (previous != null) {
+                throw new IllegalStateException("More than one handler registered for eventType " + handler.eventType());
+            }
+        }
+    }
+
+    public JsonNode readTree(String messageBody) throws IOException {
+        return treeReader.readTree(messageBody);
+    }
+
+    /**
+     * Converte a árvore no evento do tipo e chama o handler.
+     *
+     * @return false se não há handler para o eventType
+     */
+    public boolean dispatch(String eventType, JsonNode event) throws IOException {
+        Route<?> route = routes.get(eventType);
+        if (route == null) {
+            return false;
+        }
+        route.dispatch(event);
+        return true;
+    }
+
+    private record Route<E>(ObjectReader reader, Consumer<E> handler) {
+
+        static <E> Route<E> of(ObjectMapper objectMapper, VehicleEventHandler<E> handler) {
+            return new Route<>(objectMapper.readerFor(handler.eventClass()), handler.handler());
+        }
+
+        void dispatch(JsonNode event) throws IOException {
+            E value = reader.readValue(event);
+            handler.accept(value);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.idempotency;
+
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.cache.UuidBloomFilter;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories.JpaProcessedEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Idempotência do consumidor SQS (a fila entrega "pelo menos uma vez").
+ * <p>
+ * runOnce grava o event_id em processed_events na mesma transação do trabalho: se o trabalho falha, a marca some
+ * junto e a reentrega processa de novo; se já existe, o trabalho nem começa (a linha do veículo não é lida).
+ * <p>
+ * Na frente do banco fica um filtro de Bloom com os ids processados recentemente nesta instância. Para um evento
+ * nunca visto (o caso comum) o filtro responde "não" sem consulta; só um "talvez" paga o SELECT pela PK. O filtro é
+ * apenas um atalho: a garantia vem do INSERT ... ON CONFLICT, que também cobre eventos processados por outra instância.
+ */
+@Component
+public class ProcessedEventStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedEventStore.class);
+
+    private static final int PURGE_CHUNK_SIZE = 5000;
+
+    private final JpaProcessedEventRepository processedEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration warmupWindow;
+    private final long bloomExpectedInsertions;
+    private final double bloomFalsePositiveRate;
+    private volatile UuidBloomFilter recentlyProcessed;
+
+    public ProcessedEventStore(JpaProcessedEventRepository processedEventRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${vehicles.events.dedupe.ttl}") Duration ttl,
+                               @Value("${vehicles.events.dedupe.warmup-window}") Duration warmupWindow,
+                               @Value("${vehicles.events.dedupe.bloom-expected-insertions}") long bloomExpectedInsertions,
+                               @Value("${vehicles.events.dedupe.bloom-false-positive-rate}") double bloomFalsePositiveRate) {
+        this.processedEventRepository = processedEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.warmupWindow = warmupWindow;
+        this.bloomExpectedInsertions = bloomExpectedInsertions;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        this.recentlyProcessed = new UuidBloomFilter(bloomExpectedInsertions, bloomFalsePositiveRate);
+    }
+
+    /**
+     * Executa o trabalho uma única vez por eventId, em uma transação que também grava a marca de processado.
+     * Exceções do trabalho desfazem a transação (inclusive a marca) e são propagadas.
+     *
+     * @return false se o evento já tinha sido processado (o trabalho não rodou)
+     */
+    public boolean runOnce(UUID eventId, String eventType, Runnable work) {
+        if (eventId == null) {
+            logger.warn("Event of type {} has no event_id, processing without deduplication", eventType);
+            work.run();
+            return true;
+        }
+        if (recentlyProcessed.mightContain(eventId) && processedEventRepository.existsById(eventId)) {
+            return duplicate(eventId, eventType);
+        }
+        Boolean processed = transactionTemplate.execute(status -> {
+            if (processedEventRepository.claim(eventId, eventType) == 0) {
+                return false;
+            }
+            work.run();
+            return true;
+        });
+        if (!Boolean.TRUE.equals(processed)) {
+            return duplicate(eventId, eventType);
+        }
+        recentlyProcessed.put(eventId);
+        return true;
+    }
+
+    private boolean duplicate(UUID eventId, String eventType) {
+        recentlyProcessed.put(eventId);
+        logger.info("Skipping duplicate event {} of type {}", eventId, eventType);
+        return false;
+    }
+
+    // Carrega os ids recentes no filtro: reentregas logo após um cold start também são respondidas pelo atalho
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildFilter();
+    }
+
+    // Remove as marcas fora da janela e remonta o filtro (Bloom não remove; sem isso ele só enche)
+    @Scheduled(fixedDelayString = "${vehicles.events.dedupe.cleanup-interval}",
+            initialDelayString = "${vehicles.events.dedupe.cleanup-interval}")
+    public void onSchedule() {
+        OffsetDateTime cutoff = OffsetDateTime.now(ZoneOffset.UTC).minus(ttl);
+        try {
+            int deleted;
+            do {
+                Integer chunk = transactionTemplate.execute(status ->
+                        processedEventRepository.deleteProcessedBefore(cutoff, PURGE_CHUNK_SIZE));
+                deleted = chunk != null ? chunk : 0;
+                if (deleted > 0) {
+                    logger.info("Purged {} processed event marker(s) older than {}", deleted, cutoff);
+                }
+            } while (deleted == PURGE_CHUNK_SIZE);
+        } catch (DataAccessException e) {
+            logger.error("Processed events cleanup failed", e);
+        }
+        rebuildFilter();
+    }
+
+    private void rebuildFilter() {
+        try {
+            List<UUID> recent = processedEventRepository.findEventIdsProcessedSince(
+                    OffsetDateTime.now(ZoneOffset.UTC).minus(warmupWindow));
+            UuidBloomFilter filter = new UuidBloomFilter(bloomExpectedInsertions, bloomFalsePositiveRate);
+            recent.forEach(filter::put);
+            recentlyProcessed = filter;
+            logger.info("Processed events filter rebuilt with {} id(s)", recent.size());
+        } catch (DataAccessException e) {
+            logger.error("Failed to load processed events into filter; keeping the current one", e);
+        }
+    }
+}
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.fiap.autohub.autohub_vehicles_api.domain.events.ChargeExpiredEvent;
 import com.fiap.autohub.autohub_vehicles_api.domain.events.PaymentCompletedEvent;
 import com.fiap.autohub.autohub_vehicles_api.domain.events.PaymentFailedEvent;
 import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.idempotency.ProcessedEventStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -23,9 +24,12 @@ public class PaymentEventsListener {
     private static final Logger log = LoggerFactory.getLogger(PaymentEventsListener.class);
 
     private final VehicleServicePort vehicleService;
+    private final ProcessedEventStore processedEvents;
 
-    public PaymentEventsListener(VehicleServicePort vehicleService) {
+    public PaymentEventsListener(VehicleServicePort vehicleService,
+                                 ProcessedEventStore processedEvents) {
         this.vehicleService = vehicleService;
+        this.processedEvents = processedEvents;
     }
 
 
@@ -37,7 +41,7 @@ public class PaymentEventsListener {
         UUID vehicleId = event.getVehicleId();
         log.info("Processing PaymentCompletedEvent for vehicleId: {}", vehicleId);
         try {
-            vehicleService.markVehicleAsSold(vehicleId);
+            processedEvents.runOnce(event.eventId(), "PaymentCompleted", () -> vehicleService.markVehicleAsSold(vehicleId));
         } catch (Exception e) {
             log.error("Failed to process PaymentCompletedEvent for vehicleId {}: {}", vehicleId, e.getMessage(), e);
             throw new RuntimeException("Failed to mark vehicle as sold for vehicleId: " + vehicleId, e);
@@ -52,7 +56,7 @@ public class PaymentEventsListener {
         UUID vehicleId = event.getVehicleId();
         log.warn("Processing PaymentFailedEvent for vehicleId: {}. Unreserving.", vehicleId);
         try {
-            vehicleService.unreserveVehicle(vehicleId);
+            processedEvents.runOnce(event.eventId(), "PaymentFailed", () -> vehicleService.unreserveVehicle(vehicleId));
         } catch (Exception e) {
             log.error("Failed to process PaymentFailedEvent for vehicleId {}: {}", vehicleId, e.getMessage(), e);
             throw new RuntimeException("Failed to unreserve vehicle after payment failure for vehicleId: " + vehicleId, e);
@@ -67,7 +71,7 @@ public class PaymentEventsListener {
         UUID vehicleId = event.getVehicleId();
         log.warn("Processing ChargeCreationFailedEvent for vehicleId: {}. Unreserving.", vehicleId);
         try {
-            vehicleService.unreserveVehicle(vehicleId);
+            processedEvents.runOnce(event.eventId(), "ChargeCreationFailed", () -> vehicleService.unreserveVehicle(vehicleId));
         } catch (Exception e) {
             log.error("Failed to process ChargeCreationFailedEvent for vehicleId {}: {}", vehicleId, e.getMessage(), e);
             throw new RuntimeException("Failed to unreserve vehicle after charge creation failure for vehicleId: " + vehicleId, e);
@@ -82,7 +86,7 @@ public class PaymentEventsListener {
         UUID vehicleId = event.getVehicleId();
         log.warn("Processing ChargeExpiredEvent for vehicleId: {}. Unreserving.", vehicleId);
         try {
-            vehicleService.unreserveVehicle(vehicleId);
+            processedEvents.runOnce(event.eventId(), "ChargeExpired", () -> vehicleService.unreserveVehicle(vehicleId));
         } catch (Exception e) {
             log.error("Failed to process ChargeExpiredEvent for vehicleId {}: {}", vehicleId, e.getMessage(), e);
             throw new RuntimeException("Failed to unreserve vehicle after charge expiration for vehicleId: " + vehicleId, e);
@@ -8,7 +8,8 @@ import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.OptimisticLocking
 import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.VehicleNotFoundException;
 import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.VehicleUpdateForbiddenException;
 import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.publishers.SNSEventPublisher;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleEventPublisherPort;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.idempotency.ProcessedEventStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -21,12 +22,15 @@ public class SaleCreatedListener {
     private static final Logger logger = LoggerFactory.getLogger(SaleCreatedListener.class);
 
     private final VehicleServicePort vehicleService;
-    private final SNSEventPublisher eventPublisher;
+    private final VehicleEventPublisherPort eventPublisher;
+    private final ProcessedEventStore processedEvents;
 
     public SaleCreatedListener(VehicleServicePort vehicleService,
-                               SNSEventPublisher eventPublisher) {
+                               VehicleEventPublisherPort eventPublisher,
+                               ProcessedEventStore processedEvents) {
         this.vehicleService = vehicleService;
         this.eventPublisher = eventPublisher;
+        this.processedEvents = processedEvents;
     }
 
     public void handleSaleCreatedEvent(SaleCreatedEvent event) {
@@ -42,7 +46,11 @@ public class SaleCreatedListener {
         logger.info("Processing SaleCreatedEvent for saleId: {}, vehicleId: {}", saleId, vehicleId);
 
         try {
-            vehicleService.reserveVehicle(vehicleId, saleId, event.data().price());
+            boolean processed = processedEvents.runOnce(event.eventId(), "SaleCreated",
+                    () -> vehicleService.reserveVehicle(vehicleId, saleId, event.data().price()));
+            if (!processed) {
+                return; // Reentrega: a reserva (ou a falha) já foi registrada
+            }
 
             logger.info("Successfully processed SaleCreatedEvent for vehicleId: {}", vehicleId);
 
@@ -50,10 +58,14 @@ public class SaleCreatedListener {
             String reason = e.getMessage();
             logger.warn("HANDLED business error processing SaleCreatedEvent for saleId {}: {}", saleId, reason);
 
+            // A transação da reserva foi desfeita com a marca de processado; a falha é registrada em outra, junto com a
+            // marca, para que uma reentrega não publique o VehicleReservationFailed de novo
             try {
                 VehicleReservationFailedEvent failureEvent = new VehicleReservationFailedEvent(saleId, vehicleId, reason);
-                eventPublisher.publishVehicleReservationFailed(failureEvent);
-                logger.info("Published VehicleReservationFailed event for saleId {}", saleId);
+                if (processedEvents.runOnce(event.eventId(), "SaleCreated",
+                        () -> eventPublisher.publishVehicleReservationFailed(failureEvent))) {
+                    logger.info("Published VehicleReservationFailed event for saleId {}", saleId);
+                }
             } catch (Exception publishEx) {
                 logger.error("CRITICAL: Failed to publish VehicleReservationFailed event for saleId {} after processing failure. Message ID: {}",
                         saleId, messageId, publishEx);
@@ -0,0 +1,77 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.autohub.autohub_vehicles_api.domain.events.VehicleReservationFailedEvent;
+import com.fiap.autohub.autohub_vehicles_api.domain.events.VehicleReservedEvent;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleEventPublisherPort;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.OutboxEventPersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories.JpaOutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Grava os eventos na tabela event_outbox, dentro da transação de quem publica: o evento existe se e somente se a
+ * escrita que o originou foi confirmada, e o commit não espera o SNS. A entrega fica com o OutboxRelay, acionado
+ * logo após o commit (e por varredura periódica, para o que sobrar).
+ */
+@Component
+public class OutboxEventPublisher implements VehicleEventPublisherPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxEventPublisher.class);
+
+    private final JpaOutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final Optional<OutboxRelay> outboxRelay;
+
+    public OutboxEventPublisher(JpaOutboxEventRepository outboxRepository,
+                                ObjectMapper objectMapper,
+                                Optional<OutboxRelay> outboxRelay) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.outboxRelay = outboxRelay;
+    }
+
+    @Override
+    public void publishVehicleReserved(VehicleReservedEvent event) {
+        enqueue(event.eventId(), event.eventType(), event.getVehicleId(), event);
+    }
+
+    @Override
+    public void publishVehicleReservationFailed(VehicleReservationFailedEvent event) {
+        enqueue(event.eventId(), event.eventType(), event.getVehicleId(), event);
+    }
+
+    private void enqueue(UUID eventId, String eventType, UUID aggregateId, Object eventPayload) {
+        String messageBody;
+        try {
+            messageBody = objectMapper.writeValueAsString(eventPayload);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize event payload for type {}: {}", eventType, eventPayload, e);
+            throw new RuntimeException(e.getMessage());
+        }
+        // Sem transação ativa o save roda na sua própria, e o relay pode ser acionado na hora
+        outboxRepository.save(new OutboxEventPersistenceEntity(eventId, eventType, aggregateId, messageBody));
+        logger.info("Event type '{}' ({}) stored in outbox", eventType, eventId);
+        outboxRelay.ifPresent(OutboxEventPublisher::requestDrainAfterCommit);
+    }
+
+    private static void requestDrainAfterCommit(OutboxRelay relay) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.requestDrain();
+                }
+            });
+        } else {
+            relay.requestDrain();
+        }
+    }
+}
\ No newline at end of file
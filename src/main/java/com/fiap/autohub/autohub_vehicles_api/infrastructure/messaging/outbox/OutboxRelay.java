@@ -0,0 +1,179 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.outbox;
+
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.publishers.OutgoingEvent;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.publishers.SNSEventPublisher;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.OutboxEventPersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories.JpaOutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entrega os eventos do event_outbox ao SNS. Cada lote é lido com FOR UPDATE SKIP LOCKED dentro de uma transação
+ * própria: relays de instâncias diferentes (ou a varredura e o acionamento pós-commit da mesma instância) pegam
+ * linhas disjuntas, sem esperar uns pelos outros. Linhas publicadas recebem published_at; falhas são reagendadas
+ * com backoff exponencial. Cada lote vai ao SNS em uma única chamada a publishAll (PublishBatch de 10 em 10).
+ * <p>
+ * O drain pós-commit espera drain-linger antes de ler a tabela, para que os eventos de commits próximos (ex.: as
+ * mensagens de um mesmo lote SQS) saiam juntos: a entrega é limitada por tamanho (batch-size) e por tempo.
+ * <p>
+ * A entrega é "pelo menos uma vez": se o commit do lote falhar depois do publish, o evento sai de novo. Consumidores
+ * devem deduplicar pelo event_id.
+ */
+@Component
+@ConditionalOnProperty(name = "vehicles.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final int PURGE_CHUNK_SIZE = 1000;
+
+    private final JpaOutboxEventRepository outboxRepository;
+    private final SNSEventPublisher snsEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerDrain;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration retention;
+    private final Duration drainLinger;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    public OutboxRelay(JpaOutboxEventRepository outboxRepository,
+                       SNSEventPublisher snsEventPublisher,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${vehicles.outbox.batch-size}") int batchSize,
+                       @Value("${vehicles.outbox.max-batches-per-drain}") int maxBatchesPerDrain,
+                       @Value("${vehicles.outbox.retry-backoff}") Duration retryBackoff,
+                       @Value("${vehicles.outbox.max-retry-backoff}") Duration maxRetryBackoff,
+                       @Value("${vehicles.outbox.retention}") Duration retention,
+                       @Value("${vehicles.outbox.drain-linger}") Duration drainLinger) {
+        this.outboxRepository = outboxRepository;
+        this.snsEventPublisher = snsEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerDrain = maxBatchesPerDrain;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.retention = retention;
+        this.drainLinger = drainLinger;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pede um drain assíncrono (chamado após o commit de quem gravou no outbox), após drain-linger. Pedidos que
+     * chegam enquanto um drain ainda está agendado são agrupados nele.
+     */
+    public void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                drainRequested.set(false);
+                drain();
+            }, drainLinger.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Varredura de segurança: eventos cujo acionamento se perdeu (instância reiniciada, falha no SNS) e a retenção
+    @Scheduled(fixedDelayString = "${vehicles.outbox.relay-interval}")
+    public void onSchedule() {
+        drain();
+        purgePublished();
+    }
+
+    /**
+     * Publica os pendentes em lotes de batch-size, até esvaziar a fila ou atingir max-batches-per-drain.
+     *
+     * @return quantidade de linhas processadas (publicadas ou reagendadas)
+     */
+    public int drain() {
+        int processed = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerDrain; i++) {
+                Integer relayed = transactionTemplate.execute(status -> relayBatch());
+                int count = relayed != null ? relayed : 0;
+                processed += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.error("Outbox relay failed after {} event(s)", processed, e);
+        }
+        return processed;
+    }
+
+    // As linhas voltam gerenciadas pelo JPA: as marcações viram UPDATEs no commit, que também solta os locks
+    private int relayBatch() {
+        List<OutboxEventPersistenceEntity> batch = outboxRepository.lockPending(OffsetDateTime.now(ZoneOffset.UTC), batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OutgoingEvent> outgoing = batch.stream()
+                .map(event -> new OutgoingEvent(event.getId().toString(), event.getEventType(), event.getPayload()))
+                .toList();
+        Map<String, String> failures = snsEventPublisher.publishAll(outgoing);
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for (OutboxEventPersistenceEntity event : batch) {
+            String error = failures.get(event.getId().toString());
+            if (error == null) {
+                event.markPublished(now);
+                continue;
+            }
+            OffsetDateTime retryAt = now.plus(backoff(event.getAttempts()));
+            logger.warn("Failed to relay outbox event {} (type {}, attempt {}), retrying at {}: {}",
+                    event.getEventId(), event.getEventType(), event.getAttempts() + 1, retryAt, error);
+            event.markFailed(error, retryAt);
+        }
+        return batch.size();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private void purgePublished() {
+        OffsetDateTime cutoff = OffsetDateTime.now(ZoneOffset.UTC).minus(retention);
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxRepository.deletePublishedBefore(cutoff, PURGE_CHUNK_SIZE));
+            if (deleted != null && deleted > 0) {
+                logger.info("Purged {} published outbox event(s) older than {}", deleted, cutoff);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Outbox purge failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.publishers;
+
+/**
+ * Evento já serializado, pronto para o SNS. O id identifica a entrada dentro do PublishBatch (até 80 caracteres
+ * alfanuméricos, '-' ou '_') e é o que volta na lista de falhas.
+ */
+public record OutgoingEvent(String id, String eventType, String body) {
+}
\ No newline at end of file
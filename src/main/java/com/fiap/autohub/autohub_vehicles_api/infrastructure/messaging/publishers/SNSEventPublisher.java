@@ -1,72 +1,165 @@
 package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.publishers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fiap.autohub.autohub_vehicles_api.domain.events.VehicleReservationFailedEvent;
-import com.fiap.autohub.autohub_vehicles_api.domain.events.VehicleReservedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
 import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
-import software.amazon.awssdk.services.sns.model.PublishRequest;
-import software.amazon.awssdk.services.sns.model.SnsException;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Transporte para o tópico SNS. Os eventos de negócio não passam direto por aqui: são gravados no outbox
+ * (OutboxEventPublisher) e o OutboxRelay entrega cada lote lido da tabela em uma única chamada a publishAll.
+ * <p>
+ * O lote vira PublishBatch de até 10 entradas, todos enviados em paralelo pelo cliente assíncrono. Falhas parciais
+ * são reenviadas só para as entradas que falharam (exceto erros do remetente, que não mudam numa nova tentativa),
+ * e o tempo total da chamada é limitado por publish-timeout.
+ */
 @Component
 public class SNSEventPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(SNSEventPublisher.class);
 
-    private final SnsClient snsClient;
-    private final ObjectMapper objectMapper;
+    private static final int MAX_BATCH_ENTRIES = 10; // Limite do PublishBatch
+
+    private final SnsAsyncClient snsAsyncClient;
     private final String topicArn;
+    private final int maxAttempts;
+    private final Duration publishTimeout;
+    // Os atributos só dependem do tipo do evento: montados uma vez e reaproveitados em todas as entradas
+    private final Map<String, Map<String, MessageAttributeValue>> attributesByEventType = new ConcurrentHashMap<>();
 
-    public SNSEventPublisher(SnsClient snsClient,
-                             ObjectMapper objectMapper,
-                             @Value("${sns.topic.main-event-bus-arn}") String topicArn) { // Pega ARN do application.yml
-        this.snsClient = snsClient;
-        this.objectMapper = objectMapper;
+    public SNSEventPublisher(SnsAsyncClient snsAsyncClient,
+                             @Value("${sns.topic.main-event-bus-arn}") String topicArn, // Pega ARN do application.yml
+                             @Value("${vehicles.sns.max-attempts}") int maxAttempts,
+                             @Value("${vehicles.sns.publish-timeout}") Duration publishTimeout) {
+        this.snsAsyncClient = snsAsyncClient;
         this.topicArn = topicArn;
+        this.maxAttempts = maxAttempts;
+        this.publishTimeout = publishTimeout;
     }
 
-    public void publishVehicleReserved(VehicleReservedEvent event) {
-        publishEvent(event, "VehicleReserved");
-    }
+    /**
+     * Publica os eventos e espera a confirmação de todos (ou o fim do publish-timeout).
+     *
+     * @return motivo da última falha por id, para os eventos que não foram publicados; vazio quando todos foram aceitos
+     */
+    public Map<String, String> publishAll(List<OutgoingEvent> events) {
+        Map<String, OutgoingEvent> pending = new LinkedHashMap<>();
+        events.forEach(event -> pending.put(event.id(), event));
+        Map<String, String> failures = new HashMap<>();
+        int rejected = 0;
+        long deadline = System.nanoTime() + publishTimeout.toNanos();
 
-    public void publishVehicleReservationFailed(VehicleReservationFailedEvent event) {
-        publishEvent(event, "VehicleReservationFailed");
-    }
+        for (int attempt = 1; attempt <= maxAttempts && !pending.isEmpty() && !Thread.currentThread().isInterrupted(); attempt++) {
+            if (attempt > 1) {
+                logger.info("Retrying {} event(s) not accepted by SNS topic {} (attempt {} of {})",
+                        pending.size(), topicArn, attempt, maxAttempts);
+            }
+            List<List<OutgoingEvent>> chunks = chunk(new ArrayList<>(pending.values()));
+            List<CompletableFuture<PublishBatchResponse>> futures = new ArrayList<>(chunks.size());
+            for (List<OutgoingEvent> chunk : chunks) {
+                try {
+                    futures.add(snsAsyncClient.publishBatch(toRequest(chunk)));
+                } catch (RuntimeException e) { // Falha de validação/cliente antes do envio
+                    futures.add(CompletableFuture.failedFuture(e));
+                }
+            }
+            for (int i = 0; i < chunks.size(); i++) {
+                List<OutgoingEvent> chunk = chunks.get(i);
+                PublishBatchResponse response;
+                try {
+                    response = await(futures.get(i), deadline, chunk.size());
+                } catch (RuntimeException e) {
+                    // Chamada inteira falhou: todas as entradas do pedaço seguem pendentes
+                    chunk.forEach(event -> failures.put(event.id(), e.getMessage()));
+                    continue;
+                }
+                for (PublishBatchResultEntry ok : response.successful()) {
+                    pending.remove(ok.id());
+                    failures.remove(ok.id());
+                }
+                for (BatchResultErrorEntry failed : response.failed()) {
+                    logger.warn("SNS rejected event {} (code {}, sender fault {}): {}",
+                            failed.id(), failed.code(), failed.senderFault(), failed.message());
+                    failures.put(failed.id(), failed.code() + ": " + failed.message());
+                    if (Boolean.TRUE.equals(failed.senderFault())) {
+                        pending.remove(failed.id());
+                        rejected++;
+                    }
+                }
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
 
-    private void publishEvent(Object eventPayload, String eventType) {
-        try {
-            String messageBody = objectMapper.writeValueAsString(eventPayload);
-            logger.info("Publishing event type '{}' to SNS topic {}: {}", eventType, topicArn, messageBody);
+        int published = events.size() - pending.size() - rejected;
+        logger.info("Published {} of {} event(s) to SNS topic {}", published, events.size(), topicArn);
+        return failures;
+    }
 
-            Map<String, MessageAttributeValue> messageAttributes = new HashMap<>();
-            messageAttributes.put("eventType", MessageAttributeValue.builder()
-                    .dataType("String")
-                    .stringValue(eventType)
+    private PublishBatchRequest toRequest(List<OutgoingEvent> chunk) {
+        List<PublishBatchRequestEntry> entries = new ArrayList<>(chunk.size());
+        for (OutgoingEvent event : chunk) {
+            logger.debug("Publishing event {} type '{}': {}", event.id(), event.eventType(), event.body());
+            entries.add(PublishBatchRequestEntry.builder()
+                    .id(event.id())
+                    .message(event.body())
+                    .messageAttributes(attributesFor(event.eventType()))
                     .build());
+        }
+        return PublishBatchRequest.builder()
+                .topicArn(topicArn)
+                .publishBatchRequestEntries(entries)
+                .build();
+    }
 
-            PublishRequest publishRequest = PublishRequest.builder()
-                    .topicArn(topicArn)
-                    .message(messageBody)
-                    .messageAttributes(messageAttributes)
-                    .build();
+    private Map<String, MessageAttributeValue> attributesFor(String eventType) {
+        return attributesByEventType.computeIfAbsent(eventType, type -> Map.of("eventType",
+                MessageAttributeValue.builder().dataType("String").stringValue(type).build()));
+    }
 
-            snsClient.publish(publishRequest);
-            logger.info("Event type '{}' published successfully.", eventType);
+    private PublishBatchResponse await(CompletableFuture<PublishBatchResponse> future, long deadline, int entries) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("PublishBatch of {} event(s) to SNS topic {} timed out", entries, topicArn);
+            throw new IllegalStateException("PublishBatch timed out", e);
+        } catch (ExecutionException e) {
+            logger.error("PublishBatch of {} event(s) to SNS topic {} failed: {}", entries, topicArn,
+                    e.getCause().getMessage(), e.getCause());
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for PublishBatch", e);
+        }
+    }
 
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to serialize event payload for type {}: {}", eventType, eventPayload, e);
-            throw new RuntimeException(e.getMessage());
-        } catch (SnsException e) {
-            logger.error("Failed to publish event type '{}' to SNS topic {}: {}", eventType, topicArn, e.getMessage(), e);
-            throw new RuntimeException(e.getMessage());
+    private static List<List<OutgoingEvent>> chunk(List<OutgoingEvent> events) {
+        List<List<OutgoingEvent>> chunks = new ArrayList<>();
+        for (int from = 0; from < events.size(); from += MAX_BATCH_ENTRIES) {
+            chunks.add(events.subList(from, Math.min(from + MAX_BATCH_ENTRIES, events.size())));
         }
+        return chunks;
     }
 }
\ No newline at end of file
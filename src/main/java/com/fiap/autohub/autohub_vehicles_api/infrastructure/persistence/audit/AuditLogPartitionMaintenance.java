@@ -0,0 +1,105 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantém as partições mensais do vehicle_audit_log (V9): cria as dos próximos meses antes que sejam necessárias e
+ * remove as que passaram da retenção (DROP, ou apenas DETACH para arquivar a tabela fora do particionamento).
+ * <p>
+ * Roda só pela tarefa diária, nunca na inicialização: o DDL trava o vehicle_audit_log e não deve pesar em cada
+ * cold start da Lambda. Na Lambda a tarefa pode não rodar por dias; as partições futuras também vêm das migrações
+ * (V19) e do AuditLogRelay, que cria a do mês que faltar quando um lote falha (AuditLogPartitions). Um advisory lock
+ * de transação garante que só uma instância faça a manutenção por vez; as demais apenas pulam. Todas as operações
+ * são idempotentes.
+ */
+@Component
+@ConditionalOnProperty(name = "vehicles.audit.partitions.maintenance-enabled", havingValue = "true", matchIfMissing = true)
+public class AuditLogPartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogPartitionMaintenance.class);
+
+    private static final String PARENT_TABLE = AuditLogPartitions.PARENT_TABLE;
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARENT_TABLE + "_p(\\d{6})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditLogPartitions partitions;
+    private final int retentionMonths;
+    private final boolean dropExpired;
+
+    public AuditLogPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        AuditLogPartitions partitions,
+                                        @Value("${vehicles.audit.partitions.retention-months}") int retentionMonths,
+                                        @Value("${vehicles.audit.partitions.drop-expired}") boolean dropExpired) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.partitions = partitions;
+        this.retentionMonths = retentionMonths;
+        this.dropExpired = dropExpired;
+    }
+
+    @Scheduled(cron = "${vehicles.audit.partitions.cron}", zone = "UTC")
+    public void onSchedule() {
+        maintain();
+    }
+
+    public void maintain() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!partitions.isPartitioned()) {
+                    logger.info("Table {} is not partitioned, skipping partition maintenance", PARENT_TABLE);
+                    return;
+                }
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                        AuditLogPartitions.ADVISORY_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    logger.info("Audit log partition maintenance already running elsewhere, skipping");
+                    return;
+                }
+                YearMonth current = YearMonth.now(ZoneOffset.UTC);
+                partitions.createUpcoming(current);
+                removeExpired(current);
+            });
+        } catch (DataAccessException e) {
+            logger.error("Audit log partition maintenance failed", e);
+        }
+    }
+
+    private void removeExpired(YearMonth current) {
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        List<String> attached = jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?)
+                """, String.class, PARENT_TABLE);
+        for (String partition : attached) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches() || !YearMonth.parse(matcher.group(1), AuditLogPartitions.SUFFIX).isBefore(oldestKept)) {
+                continue; // As partições dentro da retenção ficam
+            }
+            if (dropExpired) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                logger.info("Dropped expired audit log partition {}", partition);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+                logger.info("Detached expired audit log partition {}", partition);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Criação das partições mensais do vehicle_audit_log (V9, limites em UTC), usada pela manutenção diária e pelo
+ * AuditLogRelay quando um lote falha. Na Lambda a tarefa agendada pode passar dias sem rodar e não há partição
+ * DEFAULT (V17): o relay é quem garante que o mês de cada linha da staging tenha partição, sem esperar pelo cron.
+ * <p>
+ * Quem cria partições segura o mesmo advisory lock de transação: dois CREATE TABLE IF NOT EXISTS concorrentes da mesma
+ * partição podem falhar em vez de um deles não fazer nada.
+ */
+@Component
+public class AuditLogPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogPartitions.class);
+
+    static final String PARENT_TABLE = "vehicle_audit_log";
+    static final long ADVISORY_LOCK_KEY = 0x7665_6869_636c_6531L; // "vehicle1"
+    static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String STAGED_MONTHS_SQL = "SELECT DISTINCT to_char(change_timestamp AT TIME ZONE 'UTC', 'YYYYMM')"
+            + " FROM vehicle_audit_staging";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int premakeMonths;
+
+    public AuditLogPartitions(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${vehicles.audit.partitions.premake-months}") int premakeMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.premakeMonths = premakeMonths;
+    }
+
+    /**
+     * Cria, na transação atual, as partições do mês corrente até premake-months à frente. Quem chama já segura o
+     * advisory lock.
+     */
+    int createUpcoming(YearMonth current) {
+        Set<YearMonth> months = new TreeSet<>();
+        for (int i = 0; i <= premakeMonths; i++) {
+            months.add(current.plusMonths(i));
+        }
+        return createMissing(months);
+    }
+
+    /**
+     * Cria as partições que faltam para as linhas da staging (inclusive as já reagendadas) e para os próximos
+     * premake-months, em transação própria.
+     *
+     * @return quantidade de partições criadas; 0 também quando a tabela não é particionada
+     */
+    public int createForStagedRows() {
+        Integer created = transactionTemplate.execute(status -> {
+            if (!isPartitioned()) {
+                return 0;
+            }
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, ADVISORY_LOCK_KEY);
+            Set<YearMonth> months = new TreeSet<>();
+            jdbcTemplate.queryForList(STAGED_MONTHS_SQL, String.class)
+                    .forEach(month -> months.add(YearMonth.parse(month, SUFFIX)));
+            return createMissing(months) + createUpcoming(YearMonth.now(ZoneOffset.UTC));
+        });
+        return created != null ? created : 0;
+    }
+
+    boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)",
+                String.class, PARENT_TABLE);
+        return kinds.contains("p");
+    }
+
+    private int createMissing(Set<YearMonth> months) {
+        int created = 0;
+        for (YearMonth month : months) {
+            String partition = partitionName(month);
+            String existing = jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, partition);
+            if (existing != null) {
+                continue;
+            }
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE %s PARTITION OF %s FOR VALUES FROM ('%s-01 00:00:00+00') TO ('%s-01 00:00:00+00')",
+                    partition, PARENT_TABLE, month, month.plusMonths(1)));
+            logger.info("Created audit log partition {}", partition);
+            created++;
+        }
+        return created;
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + month.format(SUFFIX);
+    }
+}
\ No newline at end of file
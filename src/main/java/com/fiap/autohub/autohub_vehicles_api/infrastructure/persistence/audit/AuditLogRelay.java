@@ -0,0 +1,244 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Move a auditoria da vehicle_audit_staging para o vehicle_audit_log. Cada lote é um único comando: trava até
+ * batch-size linhas com FOR UPDATE SKIP LOCKED, apaga-as com DELETE ... RETURNING e insere o resultado no
+ * vehicle_audit_log, tudo na mesma transação. Relays de instâncias diferentes (ou a varredura e o acionamento
+ * pós-commit da mesma instância) pegam linhas disjuntas, e uma linha só sai da staging quando entra no log.
+ * <p>
+ * Se o lote falha, o relay primeiro cria as partições que faltam para os meses da staging (AuditLogPartitions: na
+ * Lambda a manutenção diária pode não ter rodado) e, se criou alguma, tenta o lote de novo. Persistindo a falha, as
+ * linhas são movidas uma a uma; as que falham de novo são reagendadas com backoff exponencial em next_attempt_at e
+ * ficam com o erro em last_error. Elas nunca são descartadas, e as demais seguem passando na frente.
+ * <p>
+ * O drain pós-commit espera flush-interval antes de ler a tabela, para juntar as escritas próximas no mesmo lote.
+ * Se a instância parar antes (ou congelar, na Lambda), as linhas continuam na staging até a próxima varredura.
+ */
+@Component
+public class AuditLogRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogRelay.class);
+
+    // nextval explícito: o schema do ddl-auto não tem o DEFAULT da V9. A subconsulta ordenada faz os audit_ids
+    // seguirem a ordem de gravação
+    private static final String MOVE_SQL = """
+            WITH picked AS (
+                SELECT id FROM vehicle_audit_staging
+                WHERE %s
+                ORDER BY next_attempt_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), moved AS (
+                DELETE FROM vehicle_audit_staging s USING picked
+                WHERE s.id = picked.id
+                RETURNING s.*
+            )
+            INSERT INTO vehicle_audit_log (audit_id, vehicle_id, change_timestamp, operation_type, changed_by_user_id,
+                                           vehicle_data_snapshot, vehicle_version, snapshot_type)
+            SELECT nextval('vehicle_audit_log_audit_id_seq'), vehicle_id, change_timestamp, operation_type,
+                   changed_by_user_id, vehicle_data_snapshot, vehicle_version, snapshot_type
+            FROM (SELECT * FROM moved ORDER BY id) ordered
+            """;
+    private static final String MOVE_BATCH_SQL = MOVE_SQL.formatted("next_attempt_at <= now()");
+    private static final String MOVE_ONE_SQL = MOVE_SQL.formatted("id = ?");
+    private static final String PENDING_IDS_SQL = "SELECT id FROM vehicle_audit_staging WHERE next_attempt_at <= now()"
+            + " ORDER BY next_attempt_at, id LIMIT ?";
+    private static final String MARK_FAILED_SQL = "UPDATE vehicle_audit_staging SET attempts = attempts + 1,"
+            + " next_attempt_at = now() + LEAST(? * power(2, LEAST(attempts, 20)), ?) * INTERVAL '1 millisecond',"
+            + " last_error = ? WHERE id = ?";
+    private static final String STATS_SQL = "SELECT count(*), count(*) FILTER (WHERE attempts > 0),"
+            + " COALESCE(EXTRACT(EPOCH FROM now() - min(change_timestamp)) * 1000, 0)::bigint FROM vehicle_audit_staging";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditLogPartitions partitions;
+    private final int batchSize;
+    private final int maxBatchesPerDrain;
+    private final Duration flushInterval;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder totalFlushNanos = new LongAdder();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    public AuditLogRelay(JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         AuditLogPartitions partitions,
+                         @Value("${vehicles.audit.batch-size}") int batchSize,
+                         @Value("${vehicles.audit.max-batches-per-drain}") int maxBatchesPerDrain,
+                         @Value("${vehicles.audit.flush-interval}") Duration flushInterval,
+                         @Value("${vehicles.audit.retry-backoff}") Duration retryBackoff,
+                         @Value("${vehicles.audit.max-retry-backoff}") Duration maxRetryBackoff) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.partitions = partitions;
+        this.batchSize = batchSize;
+        this.maxBatchesPerDrain = maxBatchesPerDrain;
+        this.flushInterval = flushInterval;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-log-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pede um drain assíncrono (chamado após o commit de quem gravou na staging), após flush-interval. Pedidos que
+     * chegam enquanto um drain ainda está agendado são agrupados nele.
+     */
+    public void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                drainRequested.set(false);
+                drain();
+            }, flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Varredura de segurança: linhas cujo acionamento se perdeu (instância parada) e as reagendadas após falha
+    @Scheduled(fixedDelayString = "${vehicles.audit.relay-interval}")
+    public void onSchedule() {
+        drain();
+    }
+
+    /**
+     * Move as linhas prontas em lotes de batch-size, até esvaziar a fila ou atingir max-batches-per-drain.
+     *
+     * @return quantidade de linhas processadas (movidas ou reagendadas)
+     */
+    public int drain() {
+        int processed = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerDrain; i++) {
+                int count = moveBatch();
+                processed += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.error("Audit log relay failed after {} entries", processed, e);
+        }
+        return processed;
+    }
+
+    public AuditWriterStats stats() {
+        long flushCount = flushes.sum();
+        return jdbcTemplate.queryForObject(STATS_SQL, (rs, rowNum) -> new AuditWriterStats(
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getLong(3),
+                written.sum(),
+                flushCount,
+                failedFlushes.sum(),
+                TimeUnit.NANOSECONDS.toMillis(lastFlushNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(maxFlushNanos.get()),
+                flushCount > 0 ? totalFlushNanos.sum() / (double) flushCount / 1_000_000 : 0));
+    }
+
+    private int moveBatch() {
+        try {
+            return tryMoveBatch();
+        } catch (DataAccessException e) {
+            failedFlushes.increment();
+            if (createMissingPartitions() > 0) {
+                try {
+                    return tryMoveBatch();
+                } catch (DataAccessException retryFailure) {
+                    failedFlushes.increment();
+                    e = retryFailure;
+                }
+            }
+            logger.warn("Failed to move audit log batch, retrying entry by entry", e);
+            return moveOneByOne();
+        }
+    }
+
+    private int tryMoveBatch() {
+        long start = System.nanoTime();
+        Integer moved = transactionTemplate.execute(status -> jdbcTemplate.update(MOVE_BATCH_SQL, batchSize));
+        int count = moved != null ? moved : 0;
+        long elapsed = System.nanoTime() - start;
+        if (count > 0) {
+            written.add(count);
+            flushes.increment();
+            totalFlushNanos.add(elapsed);
+            lastFlushNanos.set(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        }
+        return count;
+    }
+
+    // Mês sem partição é a falha esperada de um lote; qualquer outra segue para o caminho linha a linha
+    private int createMissingPartitions() {
+        try {
+            return partitions.createForStagedRows();
+        } catch (DataAccessException e) {
+            logger.error("Failed to create missing audit log partitions", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Isola as linhas problemáticas do lote que falhou: cada uma é movida na sua própria transação e, se falhar,
+     * reagendada. Uma falha ao reagendar (ex.: banco fora) interrompe o drain.
+     */
+    private int moveOneByOne() {
+        List<Long> ids = jdbcTemplate.queryForList(PENDING_IDS_SQL, Long.class, batchSize);
+        for (Long id : ids) {
+            try {
+                Integer moved = transactionTemplate.execute(status -> jdbcTemplate.update(MOVE_ONE_SQL, id, 1));
+                if (moved != null) {
+                    written.add(moved);
+                }
+            } catch (DataAccessException e) {
+                String error = e.getMostSpecificCause().getMessage();
+                logger.error("Failed to move audit log entry {} from staging, rescheduling: {}", id, error);
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(MARK_FAILED_SQL,
+                        retryBackoff.toMillis(), maxRetryBackoff.toMillis(), truncate(error), id));
+            }
+        }
+        return ids.size();
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grava a auditoria das escritas de veículo na vehicle_audit_staging (V16), dentro da transação da própria escrita:
+ * a auditoria existe se e somente se a escrita fez commit.
+ * <p>
+ * O snapshot JSON é gerado na chamada, a partir do estado já descarregado (versão e updated_at finais), e não de uma
+ * referência lida depois: completo (FULL) em criações, a cada full-snapshot-every versões e na primeira escrita do
+ * veículo em cada mês (partição), e nas demais só com os campos que mudaram (DELTA, ver AuditSnapshots). As linhas de uma transação são acumuladas e vão ao banco em um
+ * único lote no beforeCommit (INSERT multi-linha pelo reWriteBatchedInserts do driver), então cada transação paga
+ * uma ida ao banco, qualquer que seja o número de veículos. A staging é pequena e sem partições nem índices além da
+ * fila; a cópia para o vehicle_audit_log particionado fica com o AuditLogRelay, acionado após o commit.
+ */
+@Component
+public class AuditLogWriter {
+
+    // change_timestamp pelo relógio do banco na hora do INSERT: a escrita seguinte do mesmo veículo só chega aqui
+    // depois do commit desta (lock da linha), então as versões de um veículo ficam em ordem também no tempo, mesmo
+    // entre instâncias com relógios diferentes
+    private static final String INSERT_SQL = "INSERT INTO vehicle_audit_staging"
+            + " (vehicle_id, change_timestamp, operation_type, changed_by_user_id, vehicle_data_snapshot, vehicle_version,"
+            + " snapshot_type, attempts, next_attempt_at)"
+            + " VALUES (?, clock_timestamp(), ?, ?, ?::jsonb, ?, ?, 0, now())";
+    private static final String CREATED_AT = "created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditLogRelay auditLogRelay;
+    private final int fullSnapshotEvery;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          AuditLogRelay auditLogRelay,
+                          @Value("${vehicles.audit.full-snapshot-every}") int fullSnapshotEvery) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.auditLogRelay = auditLogRelay;
+        // É o divisor da regra de FULL: zero quebraria toda escrita, negativo nunca gravaria FULL
+        if (fullSnapshotEvery < 1) {
+            throw new IllegalStateException("vehicles.audit.full-snapshot-every must be at least 1, got " + fullSnapshotEvery);
+        }
+        this.fullSnapshotEvery = fullSnapshotEvery;
+    }
+
+    /**
+     * Registra a auditoria da escrita. A entidade precisa estar descarregada: o snapshot é gerado aqui.
+     *
+     * @param before estado anterior à escrita (null em criações); com ele o snapshot é gravado como DELTA
+     */
+    public void record(VehiclePersistenceEntity entity, Vehicle before, String operation, String userId) {
+        Object[] row = toRow(entity, before, operation, userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(row));
+            auditLogRelay.requestDrain();
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> pending = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Object[]> transactionRows = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionRows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // Ainda dentro da transação: uma falha aqui desfaz a escrita junto
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(transactionRows);
+                }
+
+                @Override
+                public void afterCommit() {
+                    auditLogRelay.requestDrain();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditLogWriter.this);
+                }
+            });
+            pending = transactionRows;
+        }
+        pending.add(row);
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    private Object[] toRow(VehiclePersistenceEntity entity, Vehicle before, String operation, String userId) {
+        Long version = entity.getVersion();
+        ObjectNode afterNode = objectMapper.valueToTree(entity);
+        ObjectNode beforeNode = before != null ? objectMapper.valueToTree(before) : null;
+        if (beforeNode != null && !afterNode.has(CREATED_AT) && beforeNode.has(CREATED_AT)) {
+            afterNode.set(CREATED_AT, beforeNode.get(CREATED_AT)); // O merge não traz created_at (coluna não atualizável)
+        }
+        boolean full = beforeNode == null || version == null || version % fullSnapshotEvery == 0
+                || AuditSnapshots.mayStartNewPartition(before.updatedAt(), OffsetDateTime.now(ZoneOffset.UTC));
+        String snapshot;
+        try {
+            snapshot = objectMapper.writeValueAsString(full ? afterNode : AuditSnapshots.diff(beforeNode, afterNode));
+        } catch (JsonProcessingException e) {
+            // Sem auditoria a escrita não pode fazer commit
+            throw new IllegalStateException("Failed to serialize vehicle snapshot for audit log during " + operation
+                    + " operation. Vehicle ID: " + entity.getId(), e);
+        }
+        return new Object[]{
+                entity.getId(),
+                operation,
+                userId,
+                snapshot,
+                version,
+                full ? AuditSnapshots.FULL : AuditSnapshots.DELTA
+        };
+    }
+}
\ No newline at end of file
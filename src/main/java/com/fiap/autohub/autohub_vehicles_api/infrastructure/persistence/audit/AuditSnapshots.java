@@ -0,0 +1,83 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Formato do vehicle_data_snapshot: FULL guarda o veículo inteiro; DELTA guarda só os campos que mudaram em relação
+ * à versão anterior (um campo que passou a null vem como null explícito). Para reconstruir a versão N, parte-se do
+ * último FULL com vehicle_version <= N e aplicam-se os DELTAs seguintes em ordem. O resultado é idêntico ao snapshot
+ * completo da versão N (campos null ficam ausentes, como na serialização).
+ * <p>
+ * A retenção remove partições mensais inteiras, então a cadeia de um veículo não pode atravessar meses: a primeira
+ * linha dele em cada partição é FULL (ver {@link #mayStartNewPartition}) e cada mês se reconstrói sozinho.
+ */
+public final class AuditSnapshots {
+
+    public static final String FULL = "FULL";
+    public static final String DELTA = "DELTA";
+
+    // updated_at vem do relógio da aplicação e change_timestamp (chave da partição) do banco, na hora do INSERT
+    private static final Duration PARTITION_CLOCK_MARGIN = Duration.ofHours(1);
+
+    private AuditSnapshots() {
+    }
+
+    /**
+     * Campos de after diferentes de before, incluindo os que sumiram de after (a serialização omite nulls).
+     */
+    public static ObjectNode diff(ObjectNode before, ObjectNode after) {
+        ObjectNode delta = after.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> afterFields = after.fields();
+        while (afterFields.hasNext()) {
+            Map.Entry<String, JsonNode> field = afterFields.next();
+            if (!field.getValue().equals(before.get(field.getKey()))) {
+                delta.set(field.getKey(), field.getValue());
+            }
+        }
+        Iterator<String> beforeNames = before.fieldNames();
+        while (beforeNames.hasNext()) {
+            String name = beforeNames.next();
+            if (!after.has(name)) {
+                delta.set(name, NullNode.getInstance());
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Se a linha gravada agora pode cair em outra partição mensal (UTC) que a linha anterior do mesmo veículo, cujo
+     * change_timestamp é próximo do updated_at da escrita anterior. Na dúvida (perto da virada do mês, dentro da
+     * margem de relógio) responde true: um FULL a mais custa espaço, um DELTA órfão perde a história do mês.
+     */
+    public static boolean mayStartNewPartition(OffsetDateTime previousChange, OffsetDateTime now) {
+        if (previousChange == null) {
+            return true;
+        }
+        return !utcMonth(previousChange.minus(PARTITION_CLOCK_MARGIN)).equals(utcMonth(now.plus(PARTITION_CLOCK_MARGIN)));
+    }
+
+    private static YearMonth utcMonth(OffsetDateTime instant) {
+        return YearMonth.from(instant.withOffsetSameInstant(ZoneOffset.UTC));
+    }
+
+    public static void apply(ObjectNode state, ObjectNode delta) {
+        Iterator<Map.Entry<String, JsonNode>> fields = delta.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                state.remove(field.getKey());
+            } else {
+                state.set(field.getKey(), field.getValue());
+            }
+        }
+    }
+}
\ No newline at end of file
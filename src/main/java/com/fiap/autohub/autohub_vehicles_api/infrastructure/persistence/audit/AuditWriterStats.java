@@ -0,0 +1,16 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit;
+
+// backlog, retrying e oldestPendingAgeMillis vêm da vehicle_audit_staging (todas as instâncias); os demais contam
+// só os lotes movidos por esta instância
+public record AuditWriterStats(
+        long backlog,
+        long retrying,
+        long oldestPendingAgeMillis,
+        long written,
+        long flushes,
+        long failedFlushes,
+        long lastFlushMillis,
+        long maxFlushMillis,
+        double avgFlushMillis
+) {
+}
\ No newline at end of file
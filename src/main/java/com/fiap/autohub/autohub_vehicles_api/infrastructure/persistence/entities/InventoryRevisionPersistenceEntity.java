@@ -0,0 +1,24 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+
+// Contador de revisões do estoque (V14). Incrementado via SQL pelo PostgresVehicleRepositoryAdapter, nunca pela JPA.
+@Entity
+@Table(name = "inventory_revisions")
+public class InventoryRevisionPersistenceEntity {
+
+    @Id
+    @Column(name = "shard", nullable = false)
+    private Short shard;
+
+    @Column(name = "revision", nullable = false)
+    private Long revision;
+
+    public Short getShard() {
+        return shard;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+// Evento aguardando publicação no SNS (V12). O índice parcial dos pendentes existe só na migração.
+@Entity
+@Table(name = "event_outbox")
+public class OutboxEventPersistenceEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, unique = true)
+    private UUID eventId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(name = "aggregate_id")
+    private UUID aggregateId;
+
+    // Corpo publicado exatamente como foi serializado na transação de origem
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "published_at")
+    private OffsetDateTime publishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public OutboxEventPersistenceEntity() {
+    }
+
+    public OutboxEventPersistenceEntity(UUID eventId, String eventType, UUID aggregateId, String payload) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public UUID getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public OffsetDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public OffsetDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void markPublished(OffsetDateTime at) {
+        this.publishedAt = at;
+        this.lastError = null;
+    }
+
+    public void markFailed(String error, OffsetDateTime retryAt) {
+        this.attempts++;
+        this.nextAttemptAt = retryAt;
+        this.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Marca de evento SQS já processado (V13). Inserida por JpaProcessedEventRepository.claim, nunca atualizada.
+@Entity
+@Table(name = "processed_events", indexes = {
+        @Index(name = "idx_processed_events_processed_at", columnList = "processed_at")
+})
+public class ProcessedEventPersistenceEntity {
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(name = "processed_at", nullable = false)
+    private OffsetDateTime processedAt;
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public OffsetDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
\ No newline at end of file
@@ -9,9 +9,15 @@ import java.time.ZoneOffset;
 import java.util.UUID;
 
 @Entity
-@Table(name = "vehicle_audit_log")
+@Table(name = "vehicle_audit_log", indexes = {
+        @Index(name = "idx_vehicle_audit_log_vehicle_id", columnList = "vehicle_id, change_timestamp"),
+        @Index(name = "idx_vehicle_audit_log_timestamp", columnList = "change_timestamp"),
+        @Index(name = "idx_vehicle_audit_log_vehicle_version", columnList = "vehicle_id, vehicle_version")
+})
 public class VehicleAuditLogPersistenceEntity {
 
+    // Na tabela particionada (V9) a PK é (audit_id, change_timestamp); audit_id segue único por vir da sequence.
+    // Só leitura na aplicação: as linhas são inseridas pelo AuditLogRelay com nextval, um id por linha (V18)
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "audit_id", nullable = false)
@@ -34,6 +40,13 @@ public class VehicleAuditLogPersistenceEntity {
     @Column(name = "vehicle_data_snapshot", columnDefinition = "jsonb", nullable = false)
     private String vehicleDataSnapshot;
 
+    @Column(name = "vehicle_version")
+    private Long vehicleVersion;
+
+    // FULL (veículo inteiro) ou DELTA (só os campos alterados desde a versão anterior)
+    @Column(name = "snapshot_type", nullable = false, length = 5)
+    private String snapshotType;
+
     public VehicleAuditLogPersistenceEntity() {
         this.changeTimestamp = OffsetDateTime.now(ZoneOffset.UTC); // Default timestamp
     }
@@ -85,4 +98,20 @@ public class VehicleAuditLogPersistenceEntity {
     public void setVehicleDataSnapshot(String vehicleDataSnapshot) {
         this.vehicleDataSnapshot = vehicleDataSnapshot;
     }
+
+    public Long getVehicleVersion() {
+        return vehicleVersion;
+    }
+
+    public void setVehicleVersion(Long vehicleVersion) {
+        this.vehicleVersion = vehicleVersion;
+    }
+
+    public String getSnapshotType() {
+        return snapshotType;
+    }
+
+    public void setSnapshotType(String snapshotType) {
+        this.snapshotType = snapshotType;
+    }
 }
\ No newline at end of file
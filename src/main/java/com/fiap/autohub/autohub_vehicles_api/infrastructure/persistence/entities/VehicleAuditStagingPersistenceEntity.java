@@ -0,0 +1,97 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Auditoria aguardando a cópia para o vehicle_audit_log (V16). Gravada e movida por JDBC (AuditLogWriter e
+// AuditLogRelay); o mapeamento existe para o schema do ddl-auto.
+@Entity
+@Table(name = "vehicle_audit_staging", indexes = {
+        @Index(name = "idx_vehicle_audit_staging_pending", columnList = "next_attempt_at, id")
+})
+public class VehicleAuditStagingPersistenceEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private UUID vehicleId;
+
+    @Column(name = "change_timestamp", nullable = false)
+    private OffsetDateTime changeTimestamp;
+
+    @Column(name = "operation_type", nullable = false, length = 10)
+    private String operationType;
+
+    @Column(name = "changed_by_user_id")
+    private String changedByUserId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "vehicle_data_snapshot", columnDefinition = "jsonb", nullable = false)
+    private String vehicleDataSnapshot;
+
+    @Column(name = "vehicle_version")
+    private Long vehicleVersion;
+
+    @Column(name = "snapshot_type", nullable = false, length = 5)
+    private String snapshotType;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getVehicleId() {
+        return vehicleId;
+    }
+
+    public OffsetDateTime getChangeTimestamp() {
+        return changeTimestamp;
+    }
+
+    public String getOperationType() {
+        return operationType;
+    }
+
+    public String getChangedByUserId() {
+        return changedByUserId;
+    }
+
+    public String getVehicleDataSnapshot() {
+        return vehicleDataSnapshot;
+    }
+
+    public Long getVehicleVersion() {
+        return vehicleVersion;
+    }
+
+    public String getSnapshotType() {
+        return snapshotType;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public OffsetDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class VehicleFacetCountId implements Serializable {
+
+    private String make;
+    private String color;
+    private Integer year;
+    private Integer priceBucket;
+
+    public VehicleFacetCountId() {
+    }
+
+    public VehicleFacetCountId(String make, String color, Integer year, Integer priceBucket) {
+        this.make = make;
+        this.color = color;
+        this.year = year;
+        this.priceBucket = priceBucket;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof VehicleFacetCountId that)) return false;
+        return Objects.equals(make, that.make) && Objects.equals(color, that.color)
+                && Objects.equals(year, that.year) && Objects.equals(priceBucket, that.priceBucket);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(make, color, year, priceBucket);
+    }
+}
\ No newline at end of file
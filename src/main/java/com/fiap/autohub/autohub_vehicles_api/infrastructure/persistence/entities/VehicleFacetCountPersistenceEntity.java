@@ -0,0 +1,72 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+
+/**
+ * Célula do cubo de facetas: quantidade de veículos AVAILABLE por (marca, cor, ano, faixa de preço).
+ * Mantida incrementalmente pelo serviço na mesma transação das transições de status.
+ */
+@Entity
+@Table(name = "vehicle_facet_counts")
+@IdClass(VehicleFacetCountId.class)
+public class VehicleFacetCountPersistenceEntity {
+
+    @Id
+    @Column(nullable = false, length = 100)
+    private String make;
+
+    @Id
+    @Column(nullable = false, length = 50)
+    private String color;
+
+    @Id
+    @Column(nullable = false)
+    private Integer year;
+
+    @Id
+    @Column(name = "price_bucket", nullable = false)
+    private Integer priceBucket;
+
+    @Column(name = "available_count", nullable = false)
+    private Long availableCount;
+
+    public String getMake() {
+        return make;
+    }
+
+    public void setMake(String make) {
+        this.make = make;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public void setColor(String color) {
+        this.color = color;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public Integer getPriceBucket() {
+        return priceBucket;
+    }
+
+    public void setPriceBucket(Integer priceBucket) {
+        this.priceBucket = priceBucket;
+    }
+
+    public Long getAvailableCount() {
+        return availableCount;
+    }
+
+    public void setAvailableCount(Long availableCount) {
+        this.availableCount = availableCount;
+    }
+}
\ No newline at end of file
@@ -3,17 +3,20 @@ package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entitie
 import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
+// Índices de expressão (trigramas de modelo na V4, lower(make)/lower(color) na V15) e os índices parciais de ordenação (V5)
+// não são expressáveis via @Index: ficam só nas migrações
+// @DynamicUpdate: o UPDATE leva só as colunas alteradas (ex.: uma troca de preço não reenvia a description TEXT)
 @Entity
+@DynamicUpdate
 @Table(name = "vehicles", indexes = {
-        @Index(name = "idx_vehicles_status_price", columnList = "status, price"),
-        @Index(name = "idx_vehicles_make", columnList = "make"),
-        @Index(name = "idx_vehicles_model", columnList = "model"),
+        @Index(name = "idx_vehicles_updated_at", columnList = "updated_at"),
         @Index(name = "idx_vehicles_year", columnList = "year"),
         @Index(name = "idx_vehicles_owner_id", columnList = "owner_id"),
         @Index(name = "idx_vehicles_status", columnList = "status")
@@ -61,6 +64,8 @@ public class VehiclePersistenceEntity {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    // search_vector (V7) não é mapeado aqui: ver VehicleSearchDocumentPersistenceEntity
+
     public VehiclePersistenceEntity() {
     }
 
@@ -0,0 +1,35 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+/**
+ * Documento de busca textual gerado pelo Postgres (mesma expressão da migração V7), na mesma tabela vehicles.
+ * <p>
+ * Fica fora do VehiclePersistenceEntity para que find/findByIdAndOwnerId/updates não selecionem nem hidratem o
+ * tsvector. Nunca é consultado: existe só para o ddl-auto (perfis local e test) criar a coluna junto com a tabela.
+ * As Specifications referenciam a coluna pelas funções do FullTextSearchFunctionContributor.
+ */
+@Entity
+@Immutable
+@Table(name = "vehicles")
+public class VehicleSearchDocumentPersistenceEntity {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "search_vector", insertable = false, updatable = false,
+            columnDefinition = "tsvector GENERATED ALWAYS AS ("
+                    + "setweight(to_tsvector('portuguese', coalesce(make, '') || ' ' || coalesce(model, '')), 'A') || "
+                    + "setweight(to_tsvector('portuguese', coalesce(description, '')), 'B')) STORED")
+    private String searchVector;
+
+    protected VehicleSearchDocumentPersistenceEntity() {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.functions;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.metamodel.model.domain.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Registra no Hibernate as funções de busca textual usadas pelas Specifications (operador @@ e ts_rank
+ * não têm equivalente na Criteria API). A configuração 'portuguese' precisa ser a mesma da coluna search_vector.
+ * Registrado via META-INF/services.
+ * <p>
+ * A coluna search_vector não é mapeada no VehiclePersistenceEntity (para não ser carregada a cada leitura): o primeiro
+ * argumento é um atributo qualquer do veículo (ex.: id), usado só para descobrir o alias da tabela, e a função
+ * escreve alias.search_vector no SQL.
+ */
+public class FullTextSearchFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH = "fts_match";
+    public static final String RANK = "fts_rank";
+
+    private static final String DOCUMENT_COLUMN = "search_vector";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().register(MATCH,
+                new SearchDocumentFunction(MATCH, "(", " @@ websearch_to_tsquery('portuguese', ", "))",
+                        types.resolve(StandardBasicTypes.BOOLEAN)));
+        functionContributions.getFunctionRegistry().register(RANK,
+                new SearchDocumentFunction(RANK, "ts_rank(", ", websearch_to_tsquery('portuguese', ", "))",
+                        types.resolve(StandardBasicTypes.DOUBLE)));
+    }
+
+    /**
+     * Renderiza prefix + alias.search_vector + infix + termos + suffix.
+     */
+    private static final class SearchDocumentFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private final String prefix;
+        private final String infix;
+        private final String suffix;
+
+        SearchDocumentFunction(String name, String prefix, String infix, String suffix, BasicType<?> returnType) {
+            super(name, StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(returnType), null);
+            this.prefix = prefix;
+            this.infix = infix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> walker) {
+            ColumnReference row = ((Expression) arguments.get(0)).getColumnReference();
+            if (row == null) {
+                throw new IllegalArgumentException(getName() + " expects a vehicle attribute as first argument");
+            }
+            sqlAppender.appendSql(prefix);
+            if (row.getQualifier() != null) {
+                sqlAppender.appendSql(row.getQualifier());
+                sqlAppender.appendSql('.');
+            }
+            sqlAppender.appendSql(DOCUMENT_COLUMN);
+            sqlAppender.appendSql(infix);
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql(suffix);
+        }
+    }
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities
 import org.mapstruct.InheritInverseConfiguration;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
 public interface VehiclePersistenceMapper {
@@ -16,4 +17,11 @@ public interface VehiclePersistenceMapper {
     @InheritInverseConfiguration
     Vehicle toDomainEntity(VehiclePersistenceEntity entity);
 
+    // Copia os campos editáveis para a entidade gerenciada; id, versão e datas continuam com o Hibernate
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    void updatePersistenceEntity(Vehicle vehicle, @MappingTarget VehiclePersistenceEntity entity);
+
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.OutboxEventPersistenceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface JpaOutboxEventRepository extends JpaRepository<OutboxEventPersistenceEntity, Long> {
+
+    // Trava um lote de pendentes; linhas já travadas por outro relay são puladas em vez de esperadas
+    @Query(value = """
+            SELECT * FROM event_outbox
+            WHERE published_at IS NULL AND next_attempt_at <= :now
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEventPersistenceEntity> lockPending(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    // Limpeza em fatias para não segurar locks em uma única transação longa
+    @Modifying
+    @Query(value = """
+            DELETE FROM event_outbox
+            WHERE id IN (SELECT id FROM event_outbox WHERE published_at < :cutoff LIMIT :limit)
+            """, nativeQuery = true)
+    int deletePublishedBefore(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit);
+}
\ No newline at end of file
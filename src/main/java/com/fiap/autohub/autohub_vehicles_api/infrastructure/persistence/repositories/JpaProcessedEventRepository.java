@@ -0,0 +1,37 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.ProcessedEventPersistenceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface JpaProcessedEventRepository extends JpaRepository<ProcessedEventPersistenceEntity, UUID> {
+
+    // 1 = evento reivindicado por esta transação; 0 = já processado (ou sendo processado por outra transação, que
+    // segura o lock da chave até o commit)
+    @Modifying
+    @Query(value = """
+            INSERT INTO processed_events (event_id, event_type, processed_at)
+            VALUES (:eventId, :eventType, now())
+            ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    int claim(@Param("eventId") UUID eventId, @Param("eventType") String eventType);
+
+    @Query("SELECT p.eventId FROM ProcessedEventPersistenceEntity p WHERE p.processedAt >= :since")
+    List<UUID> findEventIdsProcessedSince(@Param("since") OffsetDateTime since);
+
+    // Limpeza em fatias para não segurar locks em uma única transação longa
+    @Modifying
+    @Query(value = """
+            DELETE FROM processed_events
+            WHERE event_id IN (SELECT event_id FROM processed_events WHERE processed_at < :cutoff LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteProcessedBefore(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit);
+}
\ No newline at end of file
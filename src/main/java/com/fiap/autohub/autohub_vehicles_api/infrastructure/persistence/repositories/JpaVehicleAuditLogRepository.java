@@ -2,9 +2,80 @@
 package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
 
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehicleAuditLogPersistenceEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Tabela particionada por mês em change_timestamp: consultas devem limitar o intervalo para o Postgres ler só as
+// partições envolvidas (findById, sem change_timestamp, passa por todas)
 @Repository
 public interface JpaVehicleAuditLogRepository extends JpaRepository<VehicleAuditLogPersistenceEntity, Long> {
+
+    // Ponto de partida para reconstruir uma versão: o último FULL até ela (o limite vem do Pageable), limitado no
+    // tempo para ler só as partições entre since e upTo
+    @Query("""
+            select a from VehicleAuditLogPersistenceEntity a
+            where a.vehicleId = :vehicleId and a.vehicleVersion <= :version
+              and a.changeTimestamp >= :since and a.changeTimestamp <= :upTo
+              and a.snapshotType = 'FULL'
+            order by a.vehicleVersion desc, a.auditId desc
+            """)
+    List<VehicleAuditLogPersistenceEntity> findLatestFullSnapshotUpTo(@Param("vehicleId") UUID vehicleId,
+                                                                      @Param("version") long version,
+                                                                      @Param("since") OffsetDateTime since,
+                                                                      @Param("upTo") OffsetDateTime upTo,
+                                                                      Pageable pageable);
+
+    // DELTAs seguintes ao FULL, em ordem. Nenhum é anterior ao FULL (change_timestamp vem do relógio do banco, na
+    // ordem dos commits), então o "since" deixa de fora as partições mais antigas que ele
+    @Query("""
+            select a from VehicleAuditLogPersistenceEntity a
+            where a.vehicleId = :vehicleId and a.vehicleVersion > :fromVersion and a.vehicleVersion <= :version
+              and a.changeTimestamp >= :since
+            order by a.vehicleVersion, a.auditId
+            """)
+    List<VehicleAuditLogPersistenceEntity> findDeltasSince(@Param("vehicleId") UUID vehicleId,
+                                                           @Param("fromVersion") long fromVersion,
+                                                           @Param("version") long version,
+                                                           @Param("since") OffsetDateTime since);
+
+    // Histórico mais recente primeiro (índice vehicle_id, change_timestamp, audit_id); o limite vem do Pageable.
+    // since (a criação do veículo) descarta as partições anteriores a ele
+    @Query("""
+            select a from VehicleAuditLogPersistenceEntity a
+            where a.vehicleId = :vehicleId and a.changeTimestamp >= :since
+            order by a.changeTimestamp desc, a.auditId desc
+            """)
+    List<VehicleAuditLogPersistenceEntity> findLatestHistory(@Param("vehicleId") UUID vehicleId,
+                                                             @Param("since") OffsetDateTime since,
+                                                             Pageable pageable);
+
+    // Próxima página do keyset; o "<=" isolado permite ao Postgres descartar as partições mais novas que o cursor
+    @Query("""
+            select a from VehicleAuditLogPersistenceEntity a
+            where a.vehicleId = :vehicleId and a.changeTimestamp >= :since and a.changeTimestamp <= :lastChangedAt
+              and (a.changeTimestamp < :lastChangedAt or a.auditId < :lastAuditId)
+            order by a.changeTimestamp desc, a.auditId desc
+            """)
+    List<VehicleAuditLogPersistenceEntity> findHistoryBefore(@Param("vehicleId") UUID vehicleId,
+                                                             @Param("since") OffsetDateTime since,
+                                                             @Param("lastChangedAt") OffsetDateTime lastChangedAt,
+                                                             @Param("lastAuditId") long lastAuditId,
+                                                             Pageable pageable);
+
+    @Query("""
+            select a.vehicleVersion from VehicleAuditLogPersistenceEntity a
+            where a.vehicleId = :vehicleId and a.changeTimestamp >= :since and a.changeTimestamp <= :asOf
+            order by a.changeTimestamp desc, a.auditId desc
+            """)
+    List<Long> findVersionsAsOf(@Param("vehicleId") UUID vehicleId,
+                                @Param("since") OffsetDateTime since,
+                                @Param("asOf") OffsetDateTime asOf,
+                                Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehicleFacetCountId;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehicleFacetCountPersistenceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JpaVehicleFacetCountRepository extends JpaRepository<VehicleFacetCountPersistenceEntity, VehicleFacetCountId>,
+        JpaSpecificationExecutor<VehicleFacetCountPersistenceEntity> {
+
+    // Incremento atômico da célula; a linha é criada na primeira vez
+    @Modifying
+    @Query(value = """
+            INSERT INTO vehicle_facet_counts (make, color, year, price_bucket, available_count)
+            VALUES (:make, :color, :year, :priceBucket, :delta)
+            ON CONFLICT (make, color, year, price_bucket)
+            DO UPDATE SET available_count = vehicle_facet_counts.available_count + EXCLUDED.available_count
+            """, nativeQuery = true)
+    void increment(@Param("make") String make, @Param("color") String color, @Param("year") int year,
+                   @Param("priceBucket") int priceBucket, @Param("delta") long delta);
+}
\ No newline at end of file
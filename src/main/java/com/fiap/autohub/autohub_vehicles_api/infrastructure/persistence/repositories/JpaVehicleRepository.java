@@ -3,8 +3,11 @@ package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.reposit
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,4 +18,10 @@ public interface JpaVehicleRepository extends JpaRepository<VehiclePersistenceEn
     Optional<VehiclePersistenceEntity> findByIdAndOwnerId(UUID id, String ownerId);
 
     List<VehiclePersistenceEntity> findByOwnerId(String ownerId);
+
+    @Query("select v.version from VehiclePersistenceEntity v where v.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    @Query("select max(v.updatedAt) from VehiclePersistenceEntity v")
+    Optional<OffsetDateTime> findMaxUpdatedAt();
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleAuditEntry;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleAuditRepositoryPort;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit.AuditSnapshots;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehicleAuditLogPersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.mappers.VehiclePersistenceMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+public class PostgresVehicleAuditRepositoryAdapter implements VehicleAuditRepositoryPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresVehicleAuditRepositoryAdapter.class);
+    private static final TypeReference<Map<String, Object>> SNAPSHOT_TYPE = new TypeReference<>() {
+    };
+    // created_at vem do relógio da aplicação e change_timestamp do banco: folga para a diferença entre os dois
+    private static final Duration CLOCK_SKEW_MARGIN = Duration.ofHours(1);
+
+    private final JpaVehicleAuditLogRepository auditLogRepository;
+    private final VehiclePersistenceMapper mapper;
+    private final ObjectMapper objectMapper;
+
+    public PostgresVehicleAuditRepositoryAdapter(JpaVehicleAuditLogRepository auditLogRepository,
+                                                 VehiclePersistenceMapper mapper,
+                                                 ObjectMapper objectMapper) {
+        this.auditLogRepository = auditLogRepository;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * A versão vigente em asOf é a da última alteração registrada até esse instante. As duas consultas filtram
+     * change_timestamp entre a criação do veículo e asOf, então só as partições desse intervalo são lidas.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Vehicle> findVehicleAsOf(UUID vehicleId, OffsetDateTime createdAt, OffsetDateTime asOf) {
+        OffsetDateTime since = lowerBound(createdAt);
+        List<Long> versions = auditLogRepository.findVersionsAsOf(vehicleId, since, asOf, PageRequest.of(0, 1));
+        if (versions.isEmpty() || versions.get(0) == null) {
+            return Optional.empty();
+        }
+        long version = versions.get(0);
+        return rebuild(vehicleId, version,
+                auditLogRepository.findLatestFullSnapshotUpTo(vehicleId, version, since, asOf, PageRequest.of(0, 1)));
+    }
+
+    /**
+     * Todas as páginas, inclusive a primeira, filtram change_timestamp a partir da criação do veículo: as partições
+     * de antes dela ficam de fora, e as páginas seguintes também descartam as mais novas que o cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<VehicleAuditEntry> findHistoryBefore(UUID vehicleId, OffsetDateTime createdAt, OffsetDateTime lastChangedAt,
+                                                      Long lastAuditId, int limit) {
+        OffsetDateTime since = lowerBound(createdAt);
+        // Busca uma linha a mais para saber se há próxima página
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<VehicleAuditLogPersistenceEntity> rows = lastChangedAt == null || lastAuditId == null
+                ? auditLogRepository.findLatestHistory(vehicleId, since, pageable)
+                : auditLogRepository.findHistoryBefore(vehicleId, since, lastChangedAt, lastAuditId, pageable);
+
+        boolean hasNext = rows.size() > limit;
+        List<VehicleAuditEntry> content = rows.stream()
+                .limit(limit)
+                .map(this::toAuditEntry)
+                .collect(Collectors.toList());
+        return new SliceImpl<>(content, PageRequest.of(0, limit), hasNext);
+    }
+
+    private static OffsetDateTime lowerBound(OffsetDateTime createdAt) {
+        return createdAt != null ? createdAt.minus(CLOCK_SKEW_MARGIN) : OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    }
+
+    private VehicleAuditEntry toAuditEntry(VehicleAuditLogPersistenceEntity row) {
+        Map<String, Object> data;
+        try {
+            data = objectMapper.readValue(row.getVehicleDataSnapshot(), SNAPSHOT_TYPE);
+        } catch (JsonProcessingException e) {
+            logger.error("Unreadable audit snapshot {} for vehicle {}", row.getAuditId(), row.getVehicleId(), e);
+            data = Map.of();
+        }
+        return new VehicleAuditEntry(row.getAuditId(), row.getVehicleId(), row.getChangeTimestamp(),
+                row.getOperationType(), row.getChangedByUserId(), row.getVehicleVersion(), row.getSnapshotType(), data);
+    }
+
+    /**
+     * Parte do último snapshot FULL até a versão pedida e aplica os DELTAs seguintes, buscados a partir do
+     * change_timestamp do FULL (só as partições desde ele). A cadeia precisa ser contígua (uma linha por versão); se
+     * faltar alguma, a versão não é reconstruída em vez de voltar um estado errado.
+     */
+    private Optional<Vehicle> rebuild(UUID vehicleId, long version, List<VehicleAuditLogPersistenceEntity> latestFull) {
+        if (latestFull.isEmpty()) {
+            return Optional.empty();
+        }
+        VehicleAuditLogPersistenceEntity full = latestFull.get(0);
+        List<VehicleAuditLogPersistenceEntity> deltas = full.getVehicleVersion() == version
+                ? List.of()
+                : auditLogRepository.findDeltasSince(vehicleId, full.getVehicleVersion(), version, full.getChangeTimestamp());
+        try {
+            ObjectNode state = (ObjectNode) objectMapper.readTree(full.getVehicleDataSnapshot());
+            long expectedVersion = full.getVehicleVersion();
+            for (VehicleAuditLogPersistenceEntity entry : deltas) {
+                if (entry.getVehicleVersion() != expectedVersion + 1) {
+                    break;
+                }
+                AuditSnapshots.apply(state, (ObjectNode) objectMapper.readTree(entry.getVehicleDataSnapshot()));
+                expectedVersion = entry.getVehicleVersion();
+            }
+            if (expectedVersion != version) {
+                logger.warn("Audit history gap for vehicle {}: rebuilt up to version {}, wanted {}", vehicleId, expectedVersion, version);
+                return Optional.empty();
+            }
+            return Optional.of(mapper.toDomainEntity(objectMapper.treeToValue(state, VehiclePersistenceEntity.class)));
+        } catch (JsonProcessingException | ClassCastException e) {
+            logger.error("Failed to rebuild vehicle {} at version {} from audit log", vehicleId, version, e);
+            return Optional.empty();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleFacetRepositoryPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleFacets;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehicleFacetCountPersistenceEntity;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+public class PostgresVehicleFacetRepositoryAdapter implements VehicleFacetRepositoryPort {
+
+    private final JpaVehicleFacetCountRepository facetCountRepository;
+
+    public PostgresVehicleFacetRepositoryAdapter(JpaVehicleFacetCountRepository facetCountRepository) {
+        this.facetCountRepository = facetCountRepository;
+    }
+
+    @Override
+    @Transactional
+    public void adjust(Vehicle leftAvailable, Vehicle enteredAvailable) {
+        VehicleFacets.Cell removed = leftAvailable != null ? VehicleFacets.cellOf(leftAvailable, -1) : null;
+        VehicleFacets.Cell added = enteredAvailable != null ? VehicleFacets.cellOf(enteredAvailable, 1) : null;
+        if (removed != null && added != null && removed.sameKey(added)) {
+            return; // Atualização que não muda marca/cor/ano/faixa de preço
+        }
+        // Na ordem da chave, não na dos argumentos: duas atualizações que movem veículos entre as mesmas duas células
+        // em sentidos opostos travariam as linhas em ordem inversa uma da outra
+        Stream.of(removed, added)
+                .filter(Objects::nonNull)
+                .sorted(VehicleFacets.Cell.KEY_ORDER)
+                .forEach(this::increment);
+    }
+
+    @Override
+    @Transactional
+    public void addAvailable(List<Vehicle> enteredAvailable) {
+        Map<VehicleFacets.Cell, Long> deltas = enteredAvailable.stream()
+                .collect(Collectors.groupingBy(vehicle -> VehicleFacets.cellOf(vehicle, 0),
+                        () -> new TreeMap<>(VehicleFacets.Cell.KEY_ORDER), Collectors.counting()));
+        deltas.forEach((cell, delta) ->
+                facetCountRepository.increment(cell.make(), cell.color(), cell.year(), cell.priceBucket(), delta));
+    }
+
+    /**
+     * Sempre lido do cubo: só filtros representáveis nele (marca, cor, ano) são aplicados. Modelo e faixa de preço
+     * não fazem parte da chave da célula e por isso não são aceitos no endpoint de facetas.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public VehicleFacets countAvailable(VehicleSearchCriteria criteria) {
+        return VehicleFacets.aggregate(cubeCells(criteria));
+    }
+
+    private void increment(VehicleFacets.Cell cell) {
+        facetCountRepository.increment(cell.make(), cell.color(), cell.year(), cell.priceBucket(), cell.count());
+    }
+
+    private List<VehicleFacets.Cell> cubeCells(VehicleSearchCriteria criteria) {
+        Specification<VehicleFacetCountPersistenceEntity> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.greaterThan(root.get("availableCount"), 0L));
+            if (criteria.make() != null) {
+                predicates.add(cb.equal(root.get("make"), criteria.make()));
+            }
+            if (criteria.color() != null) {
+                predicates.add(cb.equal(root.get("color"), criteria.color()));
+            }
+            if (criteria.minYear() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("year"), criteria.minYear()));
+            }
+            if (criteria.maxYear() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("year"), criteria.maxYear()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+        return facetCountRepository.findAll(spec).stream()
+                .map(e -> new VehicleFacets.Cell(e.getMake(), e.getColor(), e.getYear(), e.getPriceBucket(), e.getAvailableCount()))
+                .toList();
+    }
+}
\ No newline at end of file
@@ -1,100 +1,252 @@
 package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
 import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
 import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.VehicleNotFoundException;
 import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleRepositoryPort;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehicleAuditLogPersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.cache.VehicleCache;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit.AuditLogWriter;
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.mappers.VehiclePersistenceMapper;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.specifications.VehicleSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Component
 public class PostgresVehicleRepositoryAdapter implements VehicleRepositoryPort {
 
     private static final Logger logger = LoggerFactory.getLogger(PostgresVehicleRepositoryAdapter.class);
+    private static final int BATCH_FLUSH_SIZE = 500; // Múltiplo de hibernate.jdbc.batch_size
+    private static final int REVISION_SHARDS = 16;
+
+    // Ordenações keyset: a chave de ordenação + id como desempate, alinhadas aos índices parciais (price, id) e (updated_at, id)
+    private static final Sort AVAILABLE_KEYSET_SORT = Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+    private static final Sort SOLD_KEYSET_SORT = Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.desc("id"));
+
+    // Upsert: funciona também com o schema do ddl-auto, que não tem as linhas pré-criadas
+    private static final String BUMP_REVISION_SQL = "INSERT INTO inventory_revisions (shard, revision) VALUES (?, 1)"
+            + " ON CONFLICT (shard) DO UPDATE SET revision = inventory_revisions.revision + 1";
+    private static final String CURRENT_REVISION_SQL = "SELECT COALESCE(SUM(revision), 0) FROM inventory_revisions";
+
+    private static final String EXPORT_COLUMNS = "SELECT id, make, model, year, color, price, description, status, owner_id,"
+            + " version, created_at, updated_at FROM vehicles";
+
+    // Compare-and-set da transição de status: só atualiza se a linha ainda estiver no status esperado. O CTE trava a
+    // linha e devolve o updated_at anterior para o estado "antes" da auditoria; quem perde a corrida reavalia o
+    // status = ? na versão já commitada da linha e não encontra nada
+    private static final String TRANSITION_SQL = "WITH previous AS ("
+            + "SELECT id, updated_at FROM vehicles WHERE id = ? AND status = ? FOR UPDATE)"
+            + " UPDATE vehicles v SET status = ?, version = v.version + 1, updated_at = ?"
+            + " FROM previous WHERE v.id = previous.id"
+            + " RETURNING v.id, v.make, v.model, v.year, v.color, v.price, v.description, v.status, v.owner_id,"
+            + " v.version, v.created_at, v.updated_at, previous.updated_at AS previous_updated_at";
 
     private final JpaVehicleRepository jpaRepository;
-    private final JpaVehicleAuditLogRepository auditLogRepository; // Injetar Repositório de Auditoria
+    private final AuditLogWriter auditLogWriter;
     private final VehiclePersistenceMapper mapper;
-    private final ObjectMapper objectMapper; // Injetar ObjectMapper
+    private final VehicleCache vehicleCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final int exportFetchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public PostgresVehicleRepositoryAdapter(JpaVehicleRepository jpaRepository,
-                                            JpaVehicleAuditLogRepository auditLogRepository,
+                                            AuditLogWriter auditLogWriter,
                                             VehiclePersistenceMapper mapper,
-                                            ObjectMapper objectMapper) {
+                                            VehicleCache vehicleCache,
+                                            JdbcTemplate jdbcTemplate,
+                                            @Value("${vehicles.export.fetch-size}") int exportFetchSize) {
         this.jpaRepository = jpaRepository;
-        this.auditLogRepository = auditLogRepository;
+        this.auditLogWriter = auditLogWriter;
         this.mapper = mapper;
-        this.objectMapper = objectMapper;
+        this.vehicleCache = vehicleCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportFetchSize = exportFetchSize;
     }
 
     @Override
     @Transactional
     public Vehicle save(Vehicle vehicle) {
-        boolean isCreating = vehicle.id() == null;
-        String operationType = isCreating ? "CREATE" : "UPDATE";
+        if (vehicle.id() != null) {
+            return update(vehicle);
+        }
 
         VehiclePersistenceEntity entityToSave = mapper.toPersistenceEntity(vehicle);
 
         // Garante versão inicial se for criação
-        if (isCreating && entityToSave.getVersion() == null) {
+        if (entityToSave.getVersion() == null) {
             entityToSave.setVersion(0L);
         }
         // @CreationTimestamp/@UpdateTimestamp cuidam das datas
 
         VehiclePersistenceEntity savedEntity = jpaRepository.save(entityToSave); // save é suficiente aqui
+        bumpInventoryRevision();
 
-        // Salva o log de auditoria
-        saveAuditLogInternal(savedEntity, operationType, savedEntity.getOwnerId());
+        // Registra a auditoria: vai para a vehicle_audit_staging no commit desta transação
+        auditLogWriter.record(savedEntity, null, "CREATE", savedEntity.getOwnerId());
 
         return mapper.toDomainEntity(savedEntity);
     }
 
+    /**
+     * Atualização sem merge: altera a entidade gerenciada em vez de anexar uma cópia destacada. Se o serviço já leu o
+     * veículo nesta transação, o find sai do contexto de persistência (sem SELECT); com @DynamicUpdate o flush envia
+     * só as colunas que mudaram. Nada mudou = nenhum UPDATE, nenhuma versão nova e nenhuma auditoria.
+     */
+    private Vehicle update(Vehicle vehicle) {
+        VehiclePersistenceEntity managed = entityManager.find(VehiclePersistenceEntity.class, vehicle.id());
+        if (managed == null) {
+            throw new VehicleNotFoundException("Vehicle not found for update: " + vehicle.id());
+        }
+        // A versão da entidade gerenciada é a que vai no WHERE do UPDATE: a do chamador precisa conferir com ela
+        if (!Objects.equals(managed.getVersion(), vehicle.version())) {
+            throw new OptimisticLockException("Vehicle " + vehicle.id() + " version mismatch. Expected: "
+                    + vehicle.version() + ", Found: " + managed.getVersion());
+        }
+
+        // Estado anterior para a auditoria em delta
+        Vehicle before = mapper.toDomainEntity(managed);
+        mapper.updatePersistenceEntity(vehicle, managed);
+        entityManager.flush(); // Já devolve version e updated_at finais ao chamador
+        if (Objects.equals(managed.getVersion(), before.version())) {
+            return before;
+        }
+
+        bumpInventoryRevision();
+        // O UPDATE gravou a nova versão: depois do commit nenhuma carga mais antiga é aceita no cache
+        vehicleCache.invalidateAfterCommit(managed.getId(), managed.getVersion());
+        // Registra a auditoria: vai para a vehicle_audit_staging no commit desta transação
+        auditLogWriter.record(managed, before, "UPDATE", managed.getOwnerId());
+        return mapper.toDomainEntity(managed);
+    }
+
+    /**
+     * Uma ida ao banco: o WHERE status = from serializa transições concorrentes no lock da linha, e quem chega depois
+     * não encontra mais a linha no status esperado (nenhuma exceção de lock otimista, nenhum SELECT antes).
+     */
+    @Override
+    @Transactional
+    public Optional<Vehicle> transitionStatus(UUID id, VehicleStatus from, VehicleStatus to) {
+        List<Transition> updated = jdbcTemplate.query(TRANSITION_SQL,
+                (rs, rowNum) -> new Transition(toVehicle(rs), rs.getObject("previous_updated_at", OffsetDateTime.class)),
+                id, from.name(), to.name(), OffsetDateTime.now(ZoneOffset.UTC));
+        if (updated.isEmpty()) {
+            return Optional.empty();
+        }
+        Vehicle after = updated.get(0).after();
+        bumpInventoryRevision();
+        vehicleCache.invalidateAfterCommit(id, after.version());
+
+        // Estado anterior para a auditoria em delta: só status, version e updated_at mudaram
+        Vehicle before = new Vehicle(after.id(), after.make(), after.model(), after.year(), after.color(), after.price(),
+                after.description(), from, after.ownerId(), after.version() - 1, after.createdAt(),
+                updated.get(0).previousUpdatedAt());
+        // O mapper deixa as datas com o Hibernate; aqui elas vêm do RETURNING, como o snapshot precisa
+        VehiclePersistenceEntity audited = mapper.toPersistenceEntity(after);
+        audited.setCreatedAt(after.createdAt());
+        audited.setUpdatedAt(after.updatedAt());
+        auditLogWriter.record(audited, before, "UPDATE", after.ownerId());
+        return Optional.of(after);
+    }
+
+    private record Transition(Vehicle after, OffsetDateTime previousUpdatedAt) {
+    }
+
     @Override
     @Transactional
     public void deleteLogically(Vehicle vehicle) {
         VehiclePersistenceEntity entityToDelete = jpaRepository.findById(vehicle.id())
                 .orElseThrow(() -> new VehicleNotFoundException("Vehicle not found for logical delete: " + vehicle.id()));
 
+        Vehicle before = mapper.toDomainEntity(entityToDelete);
         entityToDelete.setStatus(VehicleStatus.DELETED);
-        // A transação ao fazer commit fará o UPDATE. @Version e @UpdateTimestamp serão atualizados.
+        entityManager.flush(); // O snapshot da auditoria precisa da versão e do updated_at finais
+        bumpInventoryRevision();
+        vehicleCache.invalidateAfterCommit(entityToDelete.getId(), entityToDelete.getVersion());
 
-        // Salva o log de auditoria DEPOIS da modificação (antes do commit)
-        saveAuditLogInternal(entityToDelete, "DELETE", entityToDelete.getOwnerId());
+        // Registra a auditoria DEPOIS da modificação, já com a versão final
+        auditLogWriter.record(entityToDelete, before, "DELETE", entityToDelete.getOwnerId());
     }
 
 
-    private void saveAuditLogInternal(VehiclePersistenceEntity entity, String operation, String userId) {
-        try {
-            String snapshot = objectMapper.writeValueAsString(entity);
+    /**
+     * Cadastro em lote: persist direto (o id UUID não exige ida ao banco por linha), então com
+     * hibernate.jdbc.batch_size os INSERTs saem em lote. O contexto de persistência é descarregado e limpo a cada
+     * BATCH_FLUSH_SIZE itens para não crescer com o lote; a auditoria do lote inteiro vai à staging em um só batch
+     * no commit.
+     */
+    @Override
+    @Transactional
+    public List<Vehicle> saveAll(List<Vehicle> vehicles) {
+        List<Vehicle> saved = new ArrayList<>(vehicles.size());
+        for (int from = 0; from < vehicles.size(); from += BATCH_FLUSH_SIZE) {
+            List<VehiclePersistenceEntity> chunk = vehicles.subList(from, Math.min(from + BATCH_FLUSH_SIZE, vehicles.size()))
+                    .stream()
+                    .map(mapper::toPersistenceEntity)
+                    .collect(Collectors.toList());
+            chunk.forEach(entityManager::persist);
+            entityManager.flush(); // Preenche created_at/updated_at
 
-            VehicleAuditLogPersistenceEntity logEntry = new VehicleAuditLogPersistenceEntity();
-            logEntry.setVehicleId(entity.getId());
-            logEntry.setOperationType(operation);
-            logEntry.setChangedByUserId(userId);
-            logEntry.setVehicleDataSnapshot(snapshot);
+            for (VehiclePersistenceEntity entity : chunk) {
+                auditLogWriter.record(entity, null, "CREATE", entity.getOwnerId());
+                saved.add(mapper.toDomainEntity(entity));
+            }
+            entityManager.clear();
+        }
+        bumpInventoryRevision();
+        return saved;
+    }
 
-            auditLogRepository.save(logEntry);
+    /**
+     * Soma 1 à revisão do estoque dentro da transação atual: o ETag das listagens só muda quando ela faz commit.
+     */
+    private void bumpInventoryRevision() {
+        jdbcTemplate.update(BUMP_REVISION_SQL, (short) ThreadLocalRandom.current().nextInt(REVISION_SHARDS));
+    }
 
-        } catch (JsonProcessingException e) {
-            logger.error("CRITICAL: Failed to serialize vehicle snapshot for audit log during {} operation. Vehicle ID: {}", operation, entity.getId(), e);
-        } catch (Exception e) {
-            logger.error("CRITICAL: Failed to save audit log during {} operation for vehicle ID: {}", operation, entity.getId(), e);
-        }
+    @Override
+    public long findInventoryRevision() {
+        Long revision = jdbcTemplate.queryForObject(CURRENT_REVISION_SQL, Long.class);
+        return revision != null ? revision : 0L;
     }
 
     @Override
@@ -102,22 +254,180 @@ public class PostgresVehicleRepositoryAdapter implements VehicleRepositoryPort {
         return jpaRepository.findById(id).map(mapper::toDomainEntity);
     }
 
+    @Override
+    public Optional<Long> findVersionById(UUID id) {
+        return jpaRepository.findVersionById(id);
+    }
+
+    @Override
+    public Optional<OffsetDateTime> findLatestUpdatedAt() {
+        return jpaRepository.findMaxUpdatedAt();
+    }
+
     @Override
     public Optional<Vehicle> findByIdAndOwnerId(UUID id, String ownerId) {
         return jpaRepository.findByIdAndOwnerId(id, ownerId).map(mapper::toDomainEntity);
     }
 
     @Override
-    public Page<Vehicle> findAll(Specification<VehiclePersistenceEntity> spec, Pageable pageable) {
-        Page<VehiclePersistenceEntity> entityPage = jpaRepository.findAll(spec, pageable);
-        return entityPage.map(mapper::toDomainEntity);
+    @Transactional(readOnly = true)
+    public Page<Vehicle> findAll(VehicleSearchCriteria criteria, VehicleStatus status, Pageable pageable) {
+        return findPage(statusSpec(criteria, status), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Vehicle> searchText(VehicleSearchCriteria criteria, VehicleStatus status, String text, Pageable pageable) {
+        // A ordem por relevância vem da specification; pageable não deve trazer ordenação
+        return findPage(statusSpec(criteria, status).and(VehicleSpecification.matchesText(text)), pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<Vehicle> findSlice(VehicleSearchCriteria criteria, VehicleStatus status, Pageable pageable) {
+        return findSlice(statusSpec(criteria, status), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Vehicle> findAvailableAfter(VehicleSearchCriteria criteria, BigDecimal lastPrice, UUID lastId, int limit) {
+        Specification<VehiclePersistenceEntity> spec = statusSpec(criteria, VehicleStatus.AVAILABLE)
+                .and(VehicleSpecification.isAfterPriceAndId(lastPrice, lastId));
+        return findSlice(spec, PageRequest.of(0, limit, AVAILABLE_KEYSET_SORT));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Vehicle> findSoldBefore(VehicleSearchCriteria criteria, OffsetDateTime lastUpdatedAt, UUID lastId, int limit) {
+        Specification<VehiclePersistenceEntity> spec = statusSpec(criteria, VehicleStatus.SOLD)
+                .and(VehicleSpecification.isBeforeUpdatedAtAndId(lastUpdatedAt, lastId));
+        return findSlice(spec, PageRequest.of(0, limit, SOLD_KEYSET_SORT));
+    }
+
+    @Override
+    public long count(VehicleSearchCriteria criteria, VehicleStatus status) {
+        return jpaRepository.count(statusSpec(criteria, status));
+    }
+
+    private static Specification<VehiclePersistenceEntity> statusSpec(VehicleSearchCriteria criteria, VehicleStatus status) {
+        return Specification.where(VehicleSpecification.matches(criteria))
+                .and(VehicleSpecification.hasStatus(status));
+    }
+
+    private Page<Vehicle> findPage(Specification<VehiclePersistenceEntity> spec, Pageable pageable) {
+        TypedQuery<Vehicle> query = entityManager.createQuery(projectionQuery(spec, pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        // O COUNT só roda quando a página vem cheia (ou não é a primeira)
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> jpaRepository.count(spec));
+    }
+
+    private Slice<Vehicle> findSlice(Specification<VehiclePersistenceEntity> spec, Pageable pageable) {
+        // Busca uma linha a mais para saber se há próxima página, sem SELECT COUNT(*)
+        List<Vehicle> rows = entityManager.createQuery(projectionQuery(spec, pageable.getSort()))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<Vehicle> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Consulta das listagens: seleciona só as colunas do domínio e constrói o Vehicle direto
+     * da linha. Nada é hidratado como entidade, então o contexto de persistência não guarda cópias nem faz
+     * dirty checking, e o passo pelo VehiclePersistenceMapper deixa de existir.
+     * <p>
+     * A ordenação só é aplicada quando pedida, para não apagar a que a specification de busca textual define.
+     */
+    private CriteriaQuery<Vehicle> projectionQuery(Specification<VehiclePersistenceEntity> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Vehicle> query = cb.createQuery(Vehicle.class);
+        Root<VehiclePersistenceEntity> root = query.from(VehiclePersistenceEntity.class);
+        query.select(cb.construct(Vehicle.class,
+                root.get("id"),
+                root.get("make"),
+                root.get("model"),
+                root.get("year"),
+                root.get("color"),
+                root.get("price"),
+                root.get("description"),
+                root.get("status"),
+                root.get("ownerId"),
+                root.get("version"),
+                root.get("createdAt"),
+                root.get("updatedAt")));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Vehicle> findByOwnerId(String ownerId) {
-        return jpaRepository.findByOwnerId(ownerId).stream()
-                .map(mapper::toDomainEntity)
-                .collect(Collectors.toList());
+        Specification<VehiclePersistenceEntity> byOwner = (root, query, cb) -> cb.equal(root.get("ownerId"), ownerId);
+        return entityManager.createQuery(projectionQuery(byOwner, Sort.unsorted())).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Vehicle> findAllByStatus(VehicleStatus status) {
+        return entityManager.createQuery(projectionQuery(VehicleSpecification.hasStatus(status), Sort.unsorted()))
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Vehicle> findUpdatedSince(OffsetDateTime since) {
+        Specification<VehiclePersistenceEntity> updatedSince =
+                (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("updatedAt"), since);
+        return entityManager.createQuery(projectionQuery(updatedSince, Sort.unsorted())).getResultList();
+    }
+
+    /**
+     * Percorre os vendidos (updated_at DESC, id DESC, pelo índice parcial de SOLD) com um cursor do servidor:
+     * dentro da transação (autocommit desligado) o driver do Postgres busca fetchSize linhas por vez, então a
+     * memória fica constante. As linhas viram Vehicle direto do ResultSet, sem entidade nem contexto de persistência.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachSold(VehicleSearchCriteria criteria, Consumer<Vehicle> consumer) {
+        String sql = EXPORT_COLUMNS + " WHERE status = 'SOLD'"
+                + (criteria.make() != null ? " AND lower(make) = ?" : "")
+                + " ORDER BY updated_at DESC, id DESC";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(exportFetchSize);
+            if (criteria.make() != null) {
+                statement.setString(1, criteria.make());
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(toVehicle(rs)));
+    }
+
+    private static Vehicle toVehicle(ResultSet rs) throws SQLException {
+        return new Vehicle(
+                rs.getObject("id", UUID.class),
+                rs.getString("make"),
+                rs.getString("model"),
+                rs.getInt("year"),
+                rs.getString("color"),
+                rs.getBigDecimal("price"),
+                rs.getString("description"),
+                VehicleStatus.valueOf(rs.getString("status")),
+                rs.getString("owner_id"),
+                rs.getLong("version"),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("updated_at", OffsetDateTime.class)
+        );
     }
 
     @Override
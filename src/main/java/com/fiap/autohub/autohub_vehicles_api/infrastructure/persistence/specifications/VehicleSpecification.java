@@ -1,14 +1,24 @@
 // Pacote: src/main/java/com/fiap/autohub/autohub_vehicles_api/infrastructure/persistence/specifications/VehicleSpecification.java
 package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.specifications;
 
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.functions.FullTextSearchFunctionContributor;
+import jakarta.persistence.criteria.Expression;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+import java.util.UUID;
 
 public class VehicleSpecification {
 
+    private static final char LIKE_ESCAPE = '\\';
+
     private static boolean isProvided(Object value) {
         if (value == null) return false;
         if (value instanceof String) {
@@ -17,13 +27,23 @@ public class VehicleSpecification {
         return true;
     }
 
+    // Escapa curingas do LIKE vindos do usuário, para que "%" e "_" sejam buscados literalmente
+    private static String containsPattern(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace(String.valueOf(LIKE_ESCAPE), String.valueOf(LIKE_ESCAPE) + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_");
+        return "%" + escaped + "%";
+    }
+
     public static Specification<VehiclePersistenceEntity> hasMake(String make) {
         return (root, query, cb) -> {
             if (!isProvided(make)) {
                 return null;
             }
 
-            return cb.equal(cb.lower(root.get("make")), make.toLowerCase());
+            // lower(make) = ? usa o B-tree de expressão idx_vehicles_make_lower (V15)
+            return cb.equal(cb.lower(root.get("make")), make.toLowerCase(Locale.ROOT));
         };
     }
 
@@ -32,7 +52,8 @@ public class VehicleSpecification {
             if (!isProvided(model)) {
                 return null;
             }
-            return cb.like(cb.lower(root.get("model")), "%" + model.toLowerCase() + "%");
+            // Substring em lower(model): servida pelo índice GIN de trigramas idx_vehicles_model_trgm
+            return cb.like(cb.lower(root.get("model")), containsPattern(model), LIKE_ESCAPE);
         };
     }
 
@@ -41,7 +62,8 @@ public class VehicleSpecification {
             if (!isProvided(color)) {
                 return null;
             }
-            return cb.equal(cb.lower(root.get("color")), color.toLowerCase());
+            // lower(color) = ? usa o B-tree de expressão idx_vehicles_color_lower (V15)
+            return cb.equal(cb.lower(root.get("color")), color.toLowerCase(Locale.ROOT));
         };
     }
 
@@ -80,4 +102,82 @@ public class VehicleSpecification {
             return cb.lessThanOrEqualTo(root.get("price"), maxPrice);
         };
     }
+
+    public static Specification<VehiclePersistenceEntity> matches(VehicleSearchCriteria criteria) {
+        return Specification.where(hasMake(criteria.make()))
+                .and(hasModel(criteria.model()))
+                .and(hasYearGreaterThanOrEqualTo(criteria.minYear()))
+                .and(hasYearLessThanOrEqualTo(criteria.maxYear()))
+                .and(hasColor(criteria.color()))
+                .and(hasPriceGreaterThanOrEqualTo(criteria.minPrice()))
+                .and(hasPriceLessThanOrEqualTo(criteria.maxPrice()));
+    }
+
+    /**
+     * O status vai como literal (e não parâmetro) no SQL: o planner só usa os índices parciais
+     * "WHERE status = 'AVAILABLE'/'SOLD'" quando consegue provar o predicado, inclusive em planos genéricos.
+     */
+    public static Specification<VehiclePersistenceEntity> hasStatus(VehicleStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), cb.literal(status));
+    }
+
+    /**
+     * Busca textual (sintaxe de busca web: palavras, "frase", -exclusão) na coluna gerada search_vector,
+     * servida pelo índice GIN. Também ordena por relevância (ts_rank) e id; a ordenação é descartada na
+     * consulta de contagem, então a paginação deve vir sem Sort.
+     */
+    public static Specification<VehiclePersistenceEntity> matchesText(String text) {
+        return (root, query, cb) -> {
+            if (!isProvided(text)) {
+                return null;
+            }
+            // O id só indica a linha (alias da tabela): a função escreve alias.search_vector, coluna que a entidade não carrega
+            Expression<UUID> row = root.get("id");
+            // value() vira parâmetro (entrada do usuário), ao contrário de literal()
+            Expression<String> terms = ((HibernateCriteriaBuilder) cb).value(text.trim());
+            if (!Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        cb.desc(cb.function(FullTextSearchFunctionContributor.RANK, Double.class, row, terms)),
+                        cb.asc(root.get("id")));
+            }
+            return cb.isTrue(cb.function(FullTextSearchFunctionContributor.MATCH, Boolean.class, row, terms));
+        };
+    }
+
+    /**
+     * Seek para ordenação (price ASC, id ASC): linhas estritamente depois de (lastPrice, lastId).
+     * O termo redundante price >= lastPrice dá ao Postgres um limite inicial no índice parcial (price, id).
+     */
+    public static Specification<VehiclePersistenceEntity> isAfterPriceAndId(BigDecimal lastPrice, UUID lastId) {
+        return (root, query, cb) -> {
+            if (lastPrice == null || lastId == null) {
+                return null;
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get("price"), lastPrice),
+                    cb.or(
+                            cb.greaterThan(root.get("price"), lastPrice),
+                            cb.greaterThan(root.<UUID>get("id"), lastId)
+                    )
+            );
+        };
+    }
+
+    /**
+     * Seek para ordenação (updated_at DESC, id DESC): linhas estritamente antes de (lastUpdatedAt, lastId).
+     */
+    public static Specification<VehiclePersistenceEntity> isBeforeUpdatedAtAndId(OffsetDateTime lastUpdatedAt, UUID lastId) {
+        return (root, query, cb) -> {
+            if (lastUpdatedAt == null || lastId == null) {
+                return null;
+            }
+            return cb.and(
+                    cb.lessThanOrEqualTo(root.get("updatedAt"), lastUpdatedAt),
+                    cb.or(
+                            cb.lessThan(root.get("updatedAt"), lastUpdatedAt),
+                            cb.lessThan(root.<UUID>get("id"), lastId)
+                    )
+            );
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.controllers;
+
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.cache.CacheStats;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.cache.CacheStatsProvider;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit.AuditLogRelay;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit.AuditWriterStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/metrics")
+@Tag(name = "Internal Metrics", description = "Contadores internos para dimensionamento (por instância)")
+public class InternalMetricsController {
+
+    private final List<CacheStatsProvider> caches;
+    private final AuditLogRelay auditLogRelay;
+
+    public InternalMetricsController(List<CacheStatsProvider> caches, AuditLogRelay auditLogRelay) {
+        this.caches = caches;
+        this.auditLogRelay = auditLogRelay;
+    }
+
+    @GetMapping("/caches")
+    @Operation(summary = "Estatísticas dos caches em memória", description = "Tamanho, acertos, falhas e remoções de cada cache desta instância.")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(caches.stream().map(CacheStatsProvider::stats).toList());
+    }
+
+    @GetMapping("/audit")
+    @Operation(summary = "Estado do gravador de auditoria", description = "Fila durável na staging (tamanho, linhas em nova tentativa e idade da mais antiga, de todas as instâncias) e linhas movidas, falhas e latência dos lotes desta instância.")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<AuditWriterStats> getAuditWriterStats() {
+        return ResponseEntity.ok(auditLogRelay.stats());
+    }
+}
\ No newline at end of file
@@ -1,16 +1,34 @@
 package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.controllers;
 
+import com.fiap.autohub.autohub_vehicles_api.application.config.SecurityConfig;
 import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
 import com.fiap.autohub.autohub_vehicles_api.domain.commands.UpdateVehicleCommand;
 import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleAuditEntry;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.InvalidBatchException;
+import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.InvalidCursorException;
 import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
-import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.specifications.VehicleSpecification;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleFacets;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSortRegistry;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.BatchCreateVehiclesResponseDto;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.BatchItemResultDto;
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.CreateVehicleRequestDto;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.CursorPageResponseDto;
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.ErrorResponse;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.FacetCountDto;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.SlicePageResponseDto;
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.UpdateVehicleRequestDto;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.VehicleFacetsResponseDto;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.VehicleHistoryEntryDto;
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos.VehicleResponseDto;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.etag.EntityTags;
 import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.mappers.VehicleDtoMapper;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.pagination.CursorCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -22,19 +40,33 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -45,12 +77,31 @@ import java.util.stream.Collectors;
 @Tag(name = "Vehicle Management", description = "Endpoints para gerenciamento de veículos")
 public class VehicleController {
 
+    private static final String AVAILABLE_CURSOR_SCOPE = "available";
+    private static final String SOLD_CURSOR_SCOPE = "sold";
+    private static final String HISTORY_CURSOR_SCOPE = "history";
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_FLUSH_EVERY = 500;
+
     private final VehicleServicePort vehicleService;
     private final VehicleDtoMapper mapper;
+    private final CursorCodec cursorCodec;
+    private final ObjectWriter exportWriter;
+    private final Validator validator;
+    private final int maxBatchItems;
 
-    public VehicleController(VehicleServicePort vehicleService, VehicleDtoMapper mapper) {
+    public VehicleController(VehicleServicePort vehicleService, VehicleDtoMapper mapper, CursorCodec cursorCodec,
+                             ObjectMapper objectMapper, Validator validator,
+                             @Value("${vehicles.batch.max-items}") int maxBatchItems) {
         this.vehicleService = vehicleService;
         this.mapper = mapper;
+        this.cursorCodec = cursorCodec;
+        this.validator = validator;
+        this.maxBatchItems = maxBatchItems;
+        // Cada linha é escrita no mesmo stream da resposta, que só o Spring MVC fecha
+        this.exportWriter = objectMapper.writerFor(VehicleResponseDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @PostMapping
@@ -71,8 +122,52 @@ public class VehicleController {
         return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toResponseDto(createdVehicle));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Cadastra veículos em lote", description = "Valida cada item separadamente e grava todos os válidos em uma única transação, com INSERTs em lote. Os itens inválidos voltam com seus erros; o resultado de cada item segue a ordem do envio.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado (ver o resultado de cada item)", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchCreateVehiclesResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite de itens", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autorizado (JWT inválido ou ausente)", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<BatchCreateVehiclesResponseDto> createVehicles(
+            @RequestBody List<CreateVehicleRequestDto> requestDtos,
+            @Parameter(hidden = true) @AuthenticationPrincipal Jwt jwt) {
+        if (requestDtos.isEmpty() || requestDtos.size() > maxBatchItems) {
+            throw new InvalidBatchException("Batch must contain between 1 and " + maxBatchItems + " items, got " + requestDtos.size());
+        }
+        String ownerId = jwt.getSubject();
+
+        // Valida item a item (um @Valid na lista derrubaria o lote inteiro no primeiro erro)
+        List<BatchItemResultDto> results = new ArrayList<>(Collections.nCopies(requestDtos.size(), null));
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<CreateVehicleCommand> commands = new ArrayList<>();
+        for (int i = 0; i < requestDtos.size(); i++) {
+            CreateVehicleRequestDto dto = requestDtos.get(i);
+            List<String> errors = dto == null ? List.of("item: Item cannot be null") : validator.validate(dto).stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.toList());
+            if (errors.isEmpty()) {
+                acceptedIndexes.add(i);
+                commands.add(mapper.toCreateCommand(dto));
+            } else {
+                results.set(i, new BatchItemResultDto(i, "REJECTED", null, errors));
+            }
+        }
+
+        List<Vehicle> created = vehicleService.createVehicles(commands, ownerId);
+        for (int j = 0; j < created.size(); j++) {
+            int index = acceptedIndexes.get(j);
+            results.set(index, new BatchItemResultDto(index, "CREATED", mapper.toResponseDto(created.get(j)), null));
+        }
+        return ResponseEntity.ok(new BatchCreateVehiclesResponseDto(
+                requestDtos.size(), created.size(), requestDtos.size() - created.size(), results));
+    }
+
     @PutMapping("/{id}")
-    @Operation(summary = "Atualiza um veículo existente", description = "Permite ao proprietário atualizar os dados de um veículo que esteja disponível para venda.")
+    @Operation(summary = "Atualiza um veículo existente", description = "Permite ao proprietário atualizar os dados de um veículo que esteja disponível para venda. Com If-Match (ETag forte do GET), a atualização só é tentada se o veículo ainda estiver naquela versão; senão a resposta é 412. A resposta traz o ETag da nova versão.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Veículo atualizado com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VehicleResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Requisição inválida (dados inválidos)", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -80,21 +175,34 @@ public class VehicleController {
             @ApiResponse(responseCode = "403", description = "Proibido (usuário não é dono ou status não permite atualização)", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Veículo não encontrado para este usuário", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "409", description = "Conflito de versão (modificação concorrente)", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual do veículo", content = @Content()),
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @SecurityRequirement(name = "bearerAuth")
     public ResponseEntity<VehicleResponseDto> updateVehicle(
             @Parameter(description = "ID do veículo a ser atualizado", required = true) @PathVariable UUID id,
             @Valid @RequestBody UpdateVehicleRequestDto requestDto,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(hidden = true) @AuthenticationPrincipal Jwt jwt) {
+        if (ifMatch != null) {
+            // Pré-condição conferida com uma busca indexada só pela versão; a versão do corpo ainda protege contra
+            // uma escrita que chegue entre esta leitura e o UPDATE (409)
+            Optional<Long> currentVersion = vehicleService.findVehicleVersion(id);
+            if (currentVersion.isEmpty()
+                    || !EntityTags.matchesStrongly(ifMatch, EntityTags.strong(id, currentVersion.get()))) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
         String ownerId = jwt.getSubject();
         UpdateVehicleCommand command = mapper.toUpdateCommand(requestDto);
         Vehicle updatedVehicle = vehicleService.updateVehicle(id, command, ownerId);
-        return ResponseEntity.ok(mapper.toResponseDto(updatedVehicle));
+        return ResponseEntity.ok()
+                .eTag(EntityTags.strong(updatedVehicle.id(), updatedVehicle.version()))
+                .body(mapper.toResponseDto(updatedVehicle));
     }
 
     @GetMapping("/available")
-    @Operation(summary = "Lista veículos disponíveis para venda", description = "Retorna uma lista paginada de veículos com status AVAILABLE, com opções de filtro e ordenação.")
+    @Operation(summary = "Lista veículos disponíveis para venda", description = "Retorna uma lista paginada de veículos com status AVAILABLE, com opções de filtro e ordenação. Com q, faz busca textual em marca, modelo e descrição e ordena por relevância (o parâmetro sort é ignorado).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de veículos disponíveis retornada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
             @ApiResponse(responseCode = "400", description = "Parâmetros de paginação/ordenação inválidos", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -108,19 +216,28 @@ public class VehicleController {
             @Parameter(description = "Filtrar por cor", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> color,
             @Parameter(description = "Filtrar por preço mínimo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<BigDecimal> minPrice,
             @Parameter(description = "Filtrar por preço máximo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<BigDecimal> maxPrice,
-            @ParameterObject @PageableDefault(size = 10, sort = "price", direction = Sort.Direction.ASC) Pageable pageable
+            @Parameter(description = "Busca textual (ex.: único dono couro teto solar)", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> q,
+            @ParameterObject @PageableDefault(size = 10, sort = "price", direction = Sort.Direction.ASC) Pageable pageable,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        Specification<VehiclePersistenceEntity> spec = Specification.where(VehicleSpecification.hasMake(make.orElse(null)))
-                .and(VehicleSpecification.hasModel(model.orElse(null)))
-                .and(VehicleSpecification.hasYearGreaterThanOrEqualTo(minYear.orElse(null)))
-                .and(VehicleSpecification.hasYearLessThanOrEqualTo(maxYear.orElse(null)))
-                .and(VehicleSpecification.hasColor(color.orElse(null)))
-                .and(VehicleSpecification.hasPriceGreaterThanOrEqualTo(minPrice.orElse(null)))
-                .and(VehicleSpecification.hasPriceLessThanOrEqualTo(maxPrice.orElse(null)));
-
-        Page<Vehicle> vehiclePage = vehicleService.findAvailableVehicles(spec, pageable);
+        VehicleSearchCriteria criteria = new VehicleSearchCriteria(make.orElse(null), model.orElse(null),
+                minYear.orElse(null), maxYear.orElse(null), color.orElse(null), minPrice.orElse(null), maxPrice.orElse(null));
+        Optional<String> text = q.filter(StringUtils::hasText);
+        // Valida antes do ETag: uma ordenação inválida responde 400 mesmo com If-None-Match (com q, sort é ignorado)
+        String pageKey = text.isPresent() ? pageable.getPageNumber() + ":" + pageable.getPageSize()
+                : pageParts(VehicleSortRegistry.resolve(VehicleStatus.AVAILABLE, pageable));
+        long revision = vehicleService.findInventoryRevision();
+        String etag = listETag("available", revision, criteria, pageKey, text.orElse(""));
+        if (EntityTags.matchesListing(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        // Mesma revisão do ETag: página em cache ou índice em memória carimbados antes dela não são servidos
+        Page<Vehicle> vehiclePage = text.isPresent()
+                ? vehicleService.searchAvailableVehicles(criteria, text.get(), pageable, revision)
+                : vehicleService.findAvailableVehicles(criteria, pageable, revision);
         Page<VehicleResponseDto> responseDtoPage = vehiclePage.map(mapper::toResponseDto);
-        return ResponseEntity.ok(responseDtoPage);
+        return ResponseEntity.ok().eTag(etag).body(responseDtoPage);
     }
 
     @GetMapping("/sold")
@@ -132,29 +249,310 @@ public class VehicleController {
     })
     public ResponseEntity<Page<VehicleResponseDto>> listSoldVehicles(
             @Parameter(description = "Filtrar por marca", required = false) @RequestParam Optional<String> make,
-            @ParameterObject @PageableDefault(size = 10, sort = "updatedAt", direction = Sort.Direction.DESC) Pageable pageable
+            @ParameterObject @PageableDefault(size = 10, sort = "updatedAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        Specification<VehiclePersistenceEntity> spec = Specification.where(VehicleSpecification.hasMake(make.orElse(null)));
-        Page<Vehicle> vehiclePage = vehicleService.findSoldVehicles(spec, pageable);
+        VehicleSearchCriteria criteria = VehicleSearchCriteria.byMake(make.orElse(null));
+        String etag = listETag("sold", criteria, pageParts(VehicleSortRegistry.resolve(VehicleStatus.SOLD, pageable)));
+        if (EntityTags.matchesListing(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        Page<Vehicle> vehiclePage = vehicleService.findSoldVehicles(criteria, pageable);
         Page<VehicleResponseDto> responseDtoPage = vehiclePage.map(mapper::toResponseDto);
-        return ResponseEntity.ok(responseDtoPage);
+        return ResponseEntity.ok().eTag(etag).body(responseDtoPage);
+    }
+
+    @GetMapping(value = "/sold/export", produces = "application/x-ndjson")
+    @Operation(summary = "Exporta veículos vendidos em NDJSON", description = "Transmite todos os veículos SOLD (updated_at desc), um JSON por linha, lidos de um cursor do banco com fetch size fixo. Cada linha é escrita assim que chega, sem montar a lista em memória.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação em andamento (NDJSON)", content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = VehicleResponseDto.class))),
+            @ApiResponse(responseCode = "401", description = "Não autenticado", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportSoldVehicles(
+            @Parameter(description = "Filtrar por marca", required = false) @RequestParam Optional<String> make
+    ) {
+        VehicleSearchCriteria criteria = VehicleSearchCriteria.byMake(make.orElse(null));
+        StreamingResponseBody body = outputStream -> {
+            int[] written = {0};
+            try {
+                vehicleService.exportSoldVehicles(criteria, vehicle -> {
+                    try {
+                        exportWriter.writeValue(outputStream, mapper.toResponseDto(vehicle));
+                        outputStream.write('\n');
+                        if (++written[0] % EXPORT_FLUSH_EVERY == 0) {
+                            outputStream.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Cliente desconectou: a transação é desfeita e o cursor fechado
+            }
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/available/slice")
+    @Operation(summary = "Lista veículos disponíveis sem contagem total", description = "Mesmos filtros e paginação de /vehicles/available, mas sem SELECT COUNT(*): has_next é calculado buscando um item a mais. Com includeTotal=true, retorna um total aproximado vindo de cache por filtro.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de veículos disponíveis retornada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SlicePageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Parâmetros de paginação/ordenação inválidos", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<SlicePageResponseDto<VehicleResponseDto>> listAvailableVehiclesSlice(
+            @Parameter(description = "Filtrar por marca", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> make,
+            @Parameter(description = "Filtrar por modelo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> model,
+            @Parameter(description = "Filtrar por ano mínimo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<Integer> minYear,
+            @Parameter(description = "Filtrar por ano máximo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<Integer> maxYear,
+            @Parameter(description = "Filtrar por cor", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> color,
+            @Parameter(description = "Filtrar por preço mínimo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<BigDecimal> minPrice,
+            @Parameter(description = "Filtrar por preço máximo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<BigDecimal> maxPrice,
+            @Parameter(description = "Incluir total aproximado", required = false, in = ParameterIn.QUERY) @RequestParam(defaultValue = "false") boolean includeTotal,
+            @ParameterObject @PageableDefault(size = 10, sort = "price", direction = Sort.Direction.ASC) Pageable pageable,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        VehicleSearchCriteria criteria = new VehicleSearchCriteria(make.orElse(null), model.orElse(null),
+                minYear.orElse(null), maxYear.orElse(null), color.orElse(null), minPrice.orElse(null), maxPrice.orElse(null));
+        String etag = listETag("available-slice", criteria,
+                pageParts(VehicleSortRegistry.resolve(VehicleStatus.AVAILABLE, pageable)), includeTotal);
+        if (EntityTags.matchesListing(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        Slice<Vehicle> slice = vehicleService.findAvailableVehicleSlice(criteria, pageable);
+        Long approximateTotal = includeTotal ? vehicleService.countAvailableVehicles(criteria) : null;
+        return ResponseEntity.ok().eTag(etag).body(toSlicePage(slice, approximateTotal));
+    }
+
+    @GetMapping("/sold/slice")
+    @Operation(summary = "Lista veículos vendidos sem contagem total", description = "Mesmos filtros e paginação de /vehicles/sold, sem SELECT COUNT(*). Com includeTotal=true, retorna um total aproximado vindo de cache por filtro.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de veículos vendidos retornada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SlicePageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Parâmetros de paginação/ordenação inválidos", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<SlicePageResponseDto<VehicleResponseDto>> listSoldVehiclesSlice(
+            @Parameter(description = "Filtrar por marca", required = false) @RequestParam Optional<String> make,
+            @Parameter(description = "Incluir total aproximado", required = false) @RequestParam(defaultValue = "false") boolean includeTotal,
+            @ParameterObject @PageableDefault(size = 10, sort = "updatedAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        VehicleSearchCriteria criteria = VehicleSearchCriteria.byMake(make.orElse(null));
+        String etag = listETag("sold-slice", criteria,
+                pageParts(VehicleSortRegistry.resolve(VehicleStatus.SOLD, pageable)), includeTotal);
+        if (EntityTags.matchesListing(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        Slice<Vehicle> slice = vehicleService.findSoldVehicleSlice(criteria, pageable);
+        Long approximateTotal = includeTotal ? vehicleService.countSoldVehicles(criteria) : null;
+        return ResponseEntity.ok().eTag(etag).body(toSlicePage(slice, approximateTotal));
+    }
+
+    @GetMapping("/available/facets")
+    @Operation(summary = "Contagens por faceta dos veículos disponíveis", description = "Quantidade de veículos disponíveis por marca, cor, faixa de ano e faixa de preço, filtrável por marca, cor e ano como /vehicles/available. As contagens são mantidas incrementalmente a cada transição de status; modelo e faixa de preço não fazem parte delas e por isso não são filtros aceitos aqui.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Facetas retornadas", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VehicleFacetsResponseDto.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<VehicleFacetsResponseDto> getAvailableVehicleFacets(
+            @Parameter(description = "Filtrar por marca", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> make,
+            @Parameter(description = "Filtrar por ano mínimo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<Integer> minYear,
+            @Parameter(description = "Filtrar por ano máximo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<Integer> maxYear,
+            @Parameter(description = "Filtrar por cor", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> color,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        VehicleSearchCriteria criteria = new VehicleSearchCriteria(make.orElse(null), null,
+                minYear.orElse(null), maxYear.orElse(null), color.orElse(null), null, null);
+        String etag = listETag("available-facets", criteria);
+        if (EntityTags.matchesListing(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        VehicleFacets facets = vehicleService.findAvailableFacets(criteria);
+        return ResponseEntity.ok().eTag(etag).body(new VehicleFacetsResponseDto(
+                toFacetDtos(facets.makes()), toFacetDtos(facets.colors()),
+                toFacetDtos(facets.years()), toFacetDtos(facets.prices())));
+    }
+
+    @GetMapping("/available/cursor")
+    @Operation(summary = "Lista veículos disponíveis paginando por cursor", description = "Paginação keyset ordenada por preço (e id). O custo de cada página independe da profundidade; use o next_cursor retornado para buscar a próxima página com os mesmos filtros.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de veículos disponíveis retornada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido ou gerado para outros filtros", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<CursorPageResponseDto<VehicleResponseDto>> listAvailableVehiclesByCursor(
+            @Parameter(description = "Filtrar por marca", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> make,
+            @Parameter(description = "Filtrar por modelo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> model,
+            @Parameter(description = "Filtrar por ano mínimo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<Integer> minYear,
+            @Parameter(description = "Filtrar por ano máximo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<Integer> maxYear,
+            @Parameter(description = "Filtrar por cor", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> color,
+            @Parameter(description = "Filtrar por preço mínimo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<BigDecimal> minPrice,
+            @Parameter(description = "Filtrar por preço máximo", required = false, in = ParameterIn.QUERY) @RequestParam Optional<BigDecimal> maxPrice,
+            @Parameter(description = "Cursor retornado pela página anterior (omitir na primeira página)", required = false, in = ParameterIn.QUERY) @RequestParam Optional<String> cursor,
+            @Parameter(description = "Quantidade de itens por página (máx. 100)", required = false, in = ParameterIn.QUERY) @RequestParam(defaultValue = "10") int limit,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        VehicleSearchCriteria criteria = new VehicleSearchCriteria(make.orElse(null), model.orElse(null),
+                minYear.orElse(null), maxYear.orElse(null), color.orElse(null), minPrice.orElse(null), maxPrice.orElse(null));
+        int pageSize = clampPageSize(limit);
+
+        // Cursor validado antes do ETag: um cursor adulterado responde 400 mesmo com If-None-Match
+        BigDecimal lastPrice = null;
+        UUID lastId = null;
+        if (cursor.isPresent()) {
+            List<String> values = cursorCodec.decode(AVAILABLE_CURSOR_SCOPE, criteria.fingerprint(), cursor.get());
+            try {
+                lastPrice = new BigDecimal(values.get(0));
+                lastId = UUID.fromString(values.get(1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new InvalidCursorException("Malformed pagination cursor.", e);
+            }
+        }
+        String etag = listETag(AVAILABLE_CURSOR_SCOPE + "-cursor", criteria, cursor.orElse(""), pageSize);
+        if (EntityTags.matchesListing(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        Slice<Vehicle> slice = vehicleService.findAvailableVehiclesAfter(criteria, lastPrice, lastId, pageSize);
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Vehicle last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = cursorCodec.encode(AVAILABLE_CURSOR_SCOPE, criteria.fingerprint(),
+                    List.of(last.price().toPlainString(), last.id().toString()));
+        }
+        return ResponseEntity.ok().eTag(etag).body(toCursorPage(slice, pageSize, nextCursor));
+    }
+
+    @GetMapping("/sold/cursor")
+    @Operation(summary = "Lista veículos vendidos paginando por cursor", description = "Paginação keyset ordenada pela data de atualização (mais recentes primeiro). Novas vendas não deslocam as páginas já percorridas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de veículos vendidos retornada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido ou gerado para outros filtros", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<CursorPageResponseDto<VehicleResponseDto>> listSoldVehiclesByCursor(
+            @Parameter(description = "Filtrar por marca", required = false) @RequestParam Optional<String> make,
+            @Parameter(description = "Cursor retornado pela página anterior (omitir na primeira página)", required = false) @RequestParam Optional<String> cursor,
+            @Parameter(description = "Quantidade de itens por página (máx. 100)", required = false) @RequestParam(defaultValue = "10") int limit,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        VehicleSearchCriteria criteria = VehicleSearchCriteria.byMake(make.orElse(null));
+        int pageSize = clampPageSize(limit);
+
+        OffsetDateTime lastUpdatedAt = null;
+        UUID lastId = null;
+        if (cursor.isPresent()) {
+            List<String> values = cursorCodec.decode(SOLD_CURSOR_SCOPE, criteria.fingerprint(), cursor.get());
+            try {
+                lastUpdatedAt = OffsetDateTime.parse(values.get(0));
+                lastId = UUID.fromString(values.get(1));
+            } catch (DateTimeParseException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new InvalidCursorException("Malformed pagination cursor.", e);
+            }
+        }
+        String etag = listETag(SOLD_CURSOR_SCOPE + "-cursor", criteria, cursor.orElse(""), pageSize);
+        if (EntityTags.matchesListing(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        Slice<Vehicle> slice = vehicleService.findSoldVehiclesBefore(criteria, lastUpdatedAt, lastId, pageSize);
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Vehicle last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = cursorCodec.encode(SOLD_CURSOR_SCOPE, criteria.fingerprint(),
+                    List.of(last.updatedAt().toString(), last.id().toString()));
+        }
+        return ResponseEntity.ok().eTag(etag).body(toCursorPage(slice, pageSize, nextCursor));
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Busca um veículo por ID", description = "Retorna os detalhes de um veículo específico pelo seu ID.")
+    @Operation(summary = "Busca um veículo por ID", description = "Retorna os detalhes de um veículo específico pelo seu ID. A resposta traz um ETag forte (id + versão); envie-o em If-None-Match para receber 304 enquanto o veículo não mudar. Com as_of (requer JWT do dono do veículo ou do grupo de auditoria), retorna o estado do veículo naquele instante, reconstruído do histórico de auditoria.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Veículo encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VehicleResponseDto.class))),
-            @ApiResponse(responseCode = "404", description = "Veículo não encontrado", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Veículo não mudou desde o ETag informado", content = @Content()),
+            @ApiResponse(responseCode = "400", description = "as_of inválido", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "as_of informado sem JWT", content = @Content()),
+            @ApiResponse(responseCode = "404", description = "Veículo não encontrado (com as_of: de outro dono ou sem histórico até o instante)", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<VehicleResponseDto> getVehicleById(
-            @Parameter(description = "ID do veículo (UUID)", required = true) @PathVariable UUID id) {
+            @Parameter(description = "ID do veículo (UUID)", required = true) @PathVariable UUID id,
+            @Parameter(description = "Instante ISO-8601 (ex.: 2025-05-10T14:30:00Z) para reconstruir o estado do veículo", required = false) @RequestParam(name = "as_of", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @AuthenticationPrincipal Jwt jwt,
+            @Parameter(hidden = true) Authentication authentication) {
+        if (asOf != null) {
+            // O GET por id é público, mas com as_of o SecurityConfig exige JWT; o serviço restringe ao dono ou à auditoria
+            return vehicleService.findVehicleAsOf(id, asOf, jwt.getSubject(), isAuditReader(authentication))
+                    .map(vehicle -> ResponseEntity.ok(mapper.toResponseDto(vehicle)))
+                    .orElse(ResponseEntity.notFound().build());
+        }
+        if (ifNoneMatch != null) {
+            // Revalidação: uma busca indexada só pela versão, sem carregar/mapear/serializar o veículo
+            Optional<Long> currentVersion = vehicleService.findVehicleVersion(id);
+            if (currentVersion.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = EntityTags.strong(id, currentVersion.get());
+            if (EntityTags.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+        }
         return vehicleService.findVehicleById(id)
-                .map(mapper::toResponseDto)
-                .map(ResponseEntity::ok)
+                .map(vehicle -> ResponseEntity.ok()
+                        .eTag(EntityTags.strong(vehicle.id(), vehicle.version()))
+                        .body(mapper.toResponseDto(vehicle)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Histórico de alterações de um veículo", description = "Lista os registros de auditoria do veículo, mais recentes primeiro, paginando por cursor sobre (change_timestamp, audit_id). Cada item traz o snapshot completo (FULL) ou só os campos alterados (DELTA). Restrito ao dono do veículo e ao grupo de auditoria. A auditoria chega ao histórico logo após o commit, então a alteração mais recente pode levar alguns instantes para aparecer.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página do histórico retornada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido ou gerado para outro veículo", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Não autorizado", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Veículo não encontrado ou de outro dono", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<CursorPageResponseDto<VehicleHistoryEntryDto>> getVehicleHistory(
+            @Parameter(description = "ID do veículo (UUID)", required = true) @PathVariable UUID id,
+            @Parameter(description = "Cursor retornado pela página anterior (omitir na primeira página)", required = false) @RequestParam Optional<String> cursor,
+            @Parameter(description = "Quantidade de itens por página (máx. 100)", required = false) @RequestParam(defaultValue = "20") int limit,
+            @Parameter(hidden = true) @AuthenticationPrincipal Jwt jwt,
+            @Parameter(hidden = true) Authentication authentication
+    ) {
+        int pageSize = clampPageSize(limit);
+        OffsetDateTime lastChangedAt = null;
+        Long lastAuditId = null;
+        if (cursor.isPresent()) {
+            List<String> values = cursorCodec.decode(HISTORY_CURSOR_SCOPE, id.toString(), cursor.get());
+            try {
+                lastChangedAt = OffsetDateTime.parse(values.get(0));
+                lastAuditId = Long.parseLong(values.get(1));
+            } catch (DateTimeParseException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new InvalidCursorException("Malformed pagination cursor.", e);
+            }
+        }
+
+        Slice<VehicleAuditEntry> slice = vehicleService.findVehicleHistory(id, lastChangedAt, lastAuditId, pageSize,
+                jwt.getSubject(), isAuditReader(authentication));
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            VehicleAuditEntry last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = cursorCodec.encode(HISTORY_CURSOR_SCOPE, id.toString(),
+                    List.of(last.changedAt().toString(), last.auditId().toString()));
+        }
+        List<VehicleHistoryEntryDto> content = slice.getContent().stream()
+                .map(entry -> new VehicleHistoryEntryDto(entry.auditId(), mapper.offsetToString(entry.changedAt()),
+                        entry.operation(), entry.changedBy(), entry.version(), entry.snapshotType(), entry.data()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new CursorPageResponseDto<>(content, pageSize, slice.hasNext(), nextCursor));
+    }
+
     @GetMapping("/my-vehicles")
     @Operation(summary = "Lista os veículos cadastrados pelo usuário logado", description = "Retorna a lista de veículos associados ao usuário autenticado (exceto os deletados logicamente).")
     @ApiResponses(value = {
@@ -190,4 +588,62 @@ public class VehicleController {
         vehicleService.deleteVehicleLogically(id, ownerId);
         return ResponseEntity.noContent().build();
     }
+
+    private CursorPageResponseDto<VehicleResponseDto> toCursorPage(Slice<Vehicle> slice, int pageSize, String nextCursor) {
+        List<VehicleResponseDto> content = slice.getContent().stream()
+                .map(mapper::toResponseDto)
+                .collect(Collectors.toList());
+        return new CursorPageResponseDto<>(content, pageSize, slice.hasNext(), nextCursor);
+    }
+
+    private SlicePageResponseDto<VehicleResponseDto> toSlicePage(Slice<Vehicle> slice, Long approximateTotal) {
+        List<VehicleResponseDto> content = slice.getContent().stream()
+                .map(mapper::toResponseDto)
+                .collect(Collectors.toList());
+        return new SlicePageResponseDto<>(content, slice.getNumber(), slice.getSize(), slice.hasNext(), approximateTotal);
+    }
+
+    private static List<FacetCountDto> toFacetDtos(List<VehicleFacets.FacetCount> counts) {
+        return counts.stream()
+                .map(c -> new FacetCountDto(c.value(), c.count()))
+                .collect(Collectors.toList());
+    }
+
+    private String listETag(String scope, VehicleSearchCriteria criteria, Object... pageParts) {
+        return listETag(scope, vehicleService.findInventoryRevision(), criteria, pageParts);
+    }
+
+    /**
+     * ETag fraco de uma página de listagem: muda a cada commit que escreve em algum veículo (revisão do estoque, V14)
+     * ou quando filtros/paginação mudam. A revisão é lida antes da página e o corpo reflete pelo menos os commits até
+     * ela: as consultas ao banco rodam depois, e os resultados em memória (cache de páginas, índice colunar) só são
+     * servidos se foram carregados nessa revisão ou numa mais nova. Uma escrita que entra no meio só pode deixar o ETag
+     * antigo com o corpo novo (o próximo GET recebe 200), nunca o ETag novo com um corpo antigo.
+     */
+    private String listETag(String scope, long revision, VehicleSearchCriteria criteria, Object... pageParts) {
+        Object[] parts = new Object[pageParts.length + 3];
+        parts[0] = scope;
+        parts[1] = revision;
+        parts[2] = criteria.fingerprint();
+        System.arraycopy(pageParts, 0, parts, 3, pageParts.length);
+        return EntityTags.weak(parts);
+    }
+
+    private static String pageParts(Pageable pageable) {
+        return pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    private static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    // Grupo do Cognito mapeado para a autoridade de auditoria no SecurityConfig
+    private static boolean isAuditReader(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> SecurityConfig.AUDIT_READER_AUTHORITY.equals(authority.getAuthority()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Resultado do cadastro em lote: os itens válidos são gravados juntos, os inválidos voltam com os erros")
+public class BatchCreateVehiclesResponseDto {
+
+    @Schema(description = "Quantidade de itens recebidos", example = "5000")
+    private final int received;
+
+    @Schema(description = "Quantidade de veículos criados", example = "4998")
+    private final int created;
+
+    @Schema(description = "Quantidade de itens rejeitados na validação", example = "2")
+    private final int rejected;
+
+    @Schema(description = "Resultado por item, na ordem do envio")
+    private final List<BatchItemResultDto> results;
+
+    public BatchCreateVehiclesResponseDto(int received, int created, int rejected, List<BatchItemResultDto> results) {
+        this.received = received;
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<BatchItemResultDto> getResults() {
+        return results;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Resultado de um item do cadastro em lote")
+public class BatchItemResultDto {
+
+    @Schema(description = "Posição do item na lista enviada (base 0)", example = "0")
+    private final int index;
+
+    @Schema(description = "CREATED ou REJECTED", example = "CREATED")
+    private final String status;
+
+    @Schema(description = "Veículo criado (apenas para CREATED)")
+    private final VehicleResponseDto vehicle;
+
+    @Schema(description = "Erros de validação (apenas para REJECTED)", example = "[\"price: Price must be positive\"]")
+    private final List<String> errors;
+
+    public BatchItemResultDto(int index, String status, VehicleResponseDto vehicle, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.vehicle = vehicle;
+        this.errors = errors;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public VehicleResponseDto getVehicle() {
+        return vehicle;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
\ No newline at end of file
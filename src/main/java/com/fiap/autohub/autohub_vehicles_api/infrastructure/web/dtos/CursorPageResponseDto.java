@@ -0,0 +1,44 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de resultados paginada por cursor (keyset)")
+public class CursorPageResponseDto<T> {
+
+    @Schema(description = "Itens da página")
+    private final List<T> content;
+
+    @Schema(description = "Quantidade máxima de itens pedida", example = "10")
+    private final int size;
+
+    @Schema(description = "Indica se existe uma próxima página", example = "true")
+    private final boolean hasNext;
+
+    @Schema(description = "Cursor opaco para buscar a próxima página (ausente na última página)")
+    private final String nextCursor;
+
+    public CursorPageResponseDto(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Valor de uma faceta e a quantidade de veículos disponíveis com esse valor")
+public class FacetCountDto {
+
+    @Schema(description = "Valor da faceta (marca/cor normalizadas em minúsculas; faixas como '2015-2019' ou '50000-60000')", example = "toyota")
+    private final String value;
+
+    @Schema(description = "Quantidade de veículos disponíveis", example = "1204")
+    private final long count;
+
+    public FacetCountDto(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de resultados sem contagem exata (has_next calculado buscando um item a mais)")
+public class SlicePageResponseDto<T> {
+
+    @Schema(description = "Itens da página")
+    private final List<T> content;
+
+    @Schema(description = "Número da página (base 0)", example = "0")
+    private final int page;
+
+    @Schema(description = "Tamanho da página", example = "10")
+    private final int size;
+
+    @Schema(description = "Indica se existe uma próxima página", example = "true")
+    private final boolean hasNext;
+
+    @Schema(description = "Total aproximado de itens (apenas com includeTotal=true; vem de cache por filtro com TTL)", example = "1204")
+    private final Long approximateTotal;
+
+    public SlicePageResponseDto(List<T> content, int page, int size, boolean hasNext, Long approximateTotal) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.approximateTotal = approximateTotal;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public Long getApproximateTotal() {
+        return approximateTotal;
+    }
+}
\ No newline at end of file
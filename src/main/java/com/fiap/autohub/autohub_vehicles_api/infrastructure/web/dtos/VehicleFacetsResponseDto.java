@@ -0,0 +1,45 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Contagens por faceta dos veículos disponíveis sob os filtros informados")
+public class VehicleFacetsResponseDto {
+
+    @Schema(description = "Contagem por marca (maior primeiro)")
+    private final List<FacetCountDto> makes;
+
+    @Schema(description = "Contagem por cor (maior primeiro)")
+    private final List<FacetCountDto> colors;
+
+    @Schema(description = "Contagem por faixa de ano (5 anos)")
+    private final List<FacetCountDto> years;
+
+    @Schema(description = "Contagem por faixa de preço (10.000; a última faixa é aberta)")
+    private final List<FacetCountDto> prices;
+
+    public VehicleFacetsResponseDto(List<FacetCountDto> makes, List<FacetCountDto> colors,
+                                    List<FacetCountDto> years, List<FacetCountDto> prices) {
+        this.makes = makes;
+        this.colors = colors;
+        this.years = years;
+        this.prices = prices;
+    }
+
+    public List<FacetCountDto> getMakes() {
+        return makes;
+    }
+
+    public List<FacetCountDto> getColors() {
+        return colors;
+    }
+
+    public List<FacetCountDto> getYears() {
+        return years;
+    }
+
+    public List<FacetCountDto> getPrices() {
+        return prices;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Uma alteração registrada no histórico de auditoria do veículo")
+public class VehicleHistoryEntryDto {
+
+    @Schema(description = "ID do registro de auditoria", example = "1051")
+    private final Long auditId;
+
+    @Schema(description = "Momento da alteração", example = "2025-05-10T14:30:00Z")
+    private final String changedAt;
+
+    @Schema(description = "Operação (CREATE, UPDATE ou DELETE)", example = "UPDATE")
+    private final String operation;
+
+    @Schema(description = "Usuário que fez a alteração (Cognito Sub)", example = "a1b2c3d4-...")
+    private final String changedBy;
+
+    @Schema(description = "Versão do veículo após a alteração", example = "3")
+    private final Long version;
+
+    @Schema(description = "FULL (data traz o veículo inteiro) ou DELTA (data traz só os campos alterados)", example = "DELTA")
+    private final String snapshotType;
+
+    @Schema(description = "Dados do snapshot", example = "{\"status\": \"RESERVED\", \"version\": 3}")
+    private final Map<String, Object> data;
+
+    public VehicleHistoryEntryDto(Long auditId, String changedAt, String operation, String changedBy, Long version,
+                                  String snapshotType, Map<String, Object> data) {
+        this.auditId = auditId;
+        this.changedAt = changedAt;
+        this.operation = operation;
+        this.changedBy = changedBy;
+        this.version = version;
+        this.snapshotType = snapshotType;
+        this.data = data;
+    }
+
+    public Long getAuditId() {
+        return auditId;
+    }
+
+    public String getChangedAt() {
+        return changedAt;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getChangedBy() {
+        return changedBy;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getSnapshotType() {
+        return snapshotType;
+    }
+
+    public Map<String, Object> getData() {
+        return data;
+    }
+}
\ No newline at end of file
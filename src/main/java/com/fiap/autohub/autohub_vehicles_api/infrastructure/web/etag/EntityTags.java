@@ -0,0 +1,92 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.etag;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Geração e comparação de ETags para os GETs condicionais.
+ * <p>
+ * Veículo individual: ETag forte derivado de (id, version) — a coluna @Version muda a cada escrita.
+ * Listagens: ETag fraco derivado da revisão do estoque (V14), dos filtros e da paginação. Toda escrita (inclusive
+ * troca de status e remoção lógica) incrementa a revisão na própria transação, então ela muda a cada commit, na
+ * ordem em que os commits acontecem; o ETag é fraco porque o corpo pode variar sem isso (ex.: total aproximado
+ * vindo de cache).
+ */
+public final class EntityTags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTags() {
+    }
+
+    public static String strong(UUID id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public static String weak(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            key.append(part).append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return WEAK_PREFIX + "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Compara o cabeçalho If-None-Match com o ETag atual usando comparação fraca (RFC 9110, 13.1.2).
+     * "*" casa com qualquer representação existente do recurso.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        return matches(ifNoneMatch, etag, true);
+    }
+
+    /**
+     * Compara o cabeçalho If-Match com o ETag atual usando comparação forte (RFC 9110, 13.1.1): um ETag fraco nunca
+     * casa. "*" casa com qualquer representação existente do recurso.
+     */
+    public static boolean matchesStrongly(String ifMatch, String etag) {
+        if (ifMatch == null || ifMatch.isBlank() || etag == null || etag.startsWith(WEAK_PREFIX)) {
+            return false;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || etag.equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Como matches, mas para listagens: "*" não conta, senão o cliente receberia 304 para sempre em uma coleção que
+     * sempre "existe".
+     */
+    public static boolean matchesListing(String ifNoneMatch, String etag) {
+        return matches(ifNoneMatch, etag, false);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag, boolean acceptWildcard) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        String current = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ((acceptWildcard && "*".equals(trimmed)) || current.equals(opaqueTag(trimmed))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+    }
+}
\ No newline at end of file
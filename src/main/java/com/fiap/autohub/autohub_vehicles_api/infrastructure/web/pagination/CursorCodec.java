@@ -0,0 +1,75 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.pagination;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.InvalidCursorException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Codifica/decodifica cursores opacos de paginação keyset.
+ * Formato: base64url(valores) + "." + base64url(HMAC-SHA256(escopo, filtros, valores)).
+ * O escopo e os filtros entram na assinatura, então um cursor não pode ser reaproveitado
+ * em outro endpoint ou com outros filtros.
+ */
+@Component
+public class CursorCodec {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String VALUE_SEPARATOR = "|";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    public CursorCodec(@Value("${vehicles.pagination.cursor-secret}") String secret) {
+        // Sem chave própria os cursores seriam assinados com um valor público: melhor não subir
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("vehicles.pagination.cursor-secret (VEHICLES_CURSOR_SECRET) must be set");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    public String encode(String scope, String filterFingerprint, List<String> values) {
+        byte[] payload = String.join(VALUE_SEPARATOR, values).getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(scope, filterFingerprint, payload));
+    }
+
+    public List<String> decode(String scope, String filterFingerprint, String cursor) {
+        int dot = cursor.indexOf('.');
+        if (dot <= 0 || dot == cursor.length() - 1) {
+            throw new InvalidCursorException("Malformed pagination cursor.");
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(cursor.substring(0, dot));
+            signature = DECODER.decode(cursor.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed pagination cursor.", e);
+        }
+        if (!MessageDigest.isEqual(signature, sign(scope, filterFingerprint, payload))) {
+            throw new InvalidCursorException("Pagination cursor is invalid or does not match the current filters.");
+        }
+        return Arrays.asList(new String(payload, StandardCharsets.UTF_8).split("\\" + VALUE_SEPARATOR, -1));
+    }
+
+    private byte[] sign(String scope, String filterFingerprint, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update((scope + "\n" + filterFingerprint + "\n").getBytes(StandardCharsets.UTF_8));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign pagination cursor", e);
+        }
+    }
+}
\ No newline at end of file
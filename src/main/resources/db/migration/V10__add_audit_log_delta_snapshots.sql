@@ -0,0 +1,15 @@
+-- Script Flyway V10: snapshots de auditoria em delta
+
+-- snapshot_type = 'FULL' guarda o veículo inteiro; 'DELTA' só os campos alterados desde a versão anterior.
+-- vehicle_version identifica a versão que o snapshot descreve, para montar a cadeia FULL + DELTAs na leitura.
+ALTER TABLE vehicle_audit_log ADD COLUMN vehicle_version BIGINT;
+ALTER TABLE vehicle_audit_log ADD COLUMN snapshot_type VARCHAR(5) NOT NULL DEFAULT 'FULL';
+
+-- Linhas existentes são todas completas. Elas eram serializadas antes do flush, então UPDATE/DELETE trazem no JSON
+-- a versão anterior à escrita (o @Version só incrementa no flush)
+UPDATE vehicle_audit_log
+SET vehicle_version = (vehicle_data_snapshot ->> 'version')::bigint
+        + CASE WHEN operation_type = 'CREATE' THEN 0 ELSE 1 END
+WHERE vehicle_data_snapshot ->> 'version' IS NOT NULL;
+
+CREATE INDEX idx_vehicle_audit_log_vehicle_version ON vehicle_audit_log (vehicle_id, vehicle_version);
\ No newline at end of file
@@ -0,0 +1,6 @@
+-- Script Flyway V11: índice do histórico por veículo com a chave completa do keyset
+
+-- GET /vehicles/{id}/history pagina por (change_timestamp DESC, audit_id DESC) dentro de um veículo; com audit_id
+-- no índice, cada página é um range scan que já sai na ordem certa. Substitui (vehicle_id, change_timestamp).
+DROP INDEX idx_vehicle_audit_log_vehicle_id;
+CREATE INDEX idx_vehicle_audit_log_vehicle_id ON vehicle_audit_log (vehicle_id, change_timestamp, audit_id);
\ No newline at end of file
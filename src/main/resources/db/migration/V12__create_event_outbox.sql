@@ -0,0 +1,23 @@
+-- Script Flyway V12: Outbox transacional dos eventos publicados no SNS
+
+-- Cada evento é gravado na mesma transação da escrita que o originou; o OutboxRelay lê as linhas pendentes em lotes
+-- (FOR UPDATE SKIP LOCKED, então vários relays podem rodar em paralelo), publica no SNS e marca published_at.
+-- Falhas de publicação reagendam a linha com backoff em next_attempt_at. Linhas publicadas são apagadas após a retenção.
+CREATE TABLE event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_id UUID NOT NULL UNIQUE,
+    event_type VARCHAR(100) NOT NULL,
+    aggregate_id UUID,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    published_at TIMESTAMP WITH TIME ZONE,
+    last_error VARCHAR(1000)
+);
+
+-- Fila de pendentes: o relay só percorre as linhas não publicadas, na ordem de gravação
+CREATE INDEX idx_event_outbox_pending ON event_outbox (next_attempt_at, id) WHERE published_at IS NULL;
+
+-- Limpeza por retenção das linhas já publicadas
+CREATE INDEX idx_event_outbox_published_at ON event_outbox (published_at) WHERE published_at IS NOT NULL;
\ No newline at end of file
@@ -0,0 +1,12 @@
+-- Script Flyway V13: Eventos SQS já processados (idempotência do consumidor)
+
+-- Uma linha por event_id, gravada na mesma transação da mudança de estado que o evento causou: se a transação
+-- falha, a linha some junto e a reentrega processa de novo. Linhas mais antigas que a janela de deduplicação
+-- (vehicles.events.dedupe.ttl) são apagadas periodicamente.
+CREATE TABLE processed_events (
+    event_id UUID PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    processed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_processed_events_processed_at ON processed_events (processed_at);
\ No newline at end of file
@@ -0,0 +1,9 @@
+-- Script Flyway V14: Contador de revisões do estoque (ETag das listagens)
+
+-- Cada transação que escreve em vehicles soma 1 a uma das linhas (escolhida ao acaso) na própria transação; o ETag
+-- das listagens usa a soma. Como o incremento só fica visível no commit, a soma anda junto com os commits, em
+-- qualquer ordem. As linhas separadas evitam que toda escrita espere pelo lock de uma única linha.
+CREATE TABLE inventory_revisions (
+    shard SMALLINT PRIMARY KEY,
+    revision BIGINT NOT NULL
+);
\ No newline at end of file
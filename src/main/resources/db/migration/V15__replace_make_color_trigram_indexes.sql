@@ -0,0 +1,11 @@
+-- Script Flyway V15: Marca e cor voltam para B-tree sobre lower(coluna)
+
+-- Os filtros de marca e cor são só igualdade (lower(coluna) = ?): nenhuma busca por substring usa essas colunas.
+-- Um B-tree na mesma expressão responde a igualdade com uma descida no índice; o GIN de trigramas da V4 precisava
+-- cruzar as listas de cada trigrama e reconferir as linhas, além de ser maior e mais caro de manter a cada escrita.
+-- O modelo continua com trigramas (LIKE '%x%').
+CREATE INDEX idx_vehicles_make_lower ON vehicles (lower(make));
+CREATE INDEX idx_vehicles_color_lower ON vehicles (lower(color));
+
+DROP INDEX idx_vehicles_make_trgm;
+DROP INDEX idx_vehicles_color_trgm;
\ No newline at end of file
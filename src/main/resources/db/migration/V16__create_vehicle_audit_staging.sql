@@ -0,0 +1,23 @@
+-- Script Flyway V16: Entrada durável da auditoria
+
+-- Cada escrita de veículo grava aqui, na própria transação, a linha de auditoria já serializada: se a escrita faz
+-- commit a auditoria existe, se é desfeita some junto. O AuditLogRelay move as linhas para o vehicle_audit_log em
+-- lotes (FOR UPDATE SKIP LOCKED, DELETE ... RETURNING e INSERT ... SELECT em um único comando), então vários relays
+-- podem rodar em paralelo. A tabela fica pequena e sem partições; uma linha que não pode ser movida (ex.: mês sem
+-- partição) é reagendada com backoff em next_attempt_at, sem travar as demais, e nunca é descartada.
+CREATE TABLE vehicle_audit_staging (
+    id BIGSERIAL PRIMARY KEY,
+    vehicle_id UUID NOT NULL,
+    change_timestamp TIMESTAMP WITH TIME ZONE NOT NULL,
+    operation_type VARCHAR(10) NOT NULL,
+    changed_by_user_id VARCHAR(255),
+    vehicle_data_snapshot JSONB NOT NULL,
+    vehicle_version BIGINT,
+    snapshot_type VARCHAR(5) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    last_error VARCHAR(1000)
+);
+
+-- Fila do relay, na ordem de gravação
+CREATE INDEX idx_vehicle_audit_staging_pending ON vehicle_audit_staging (next_attempt_at, id);
\ No newline at end of file
@@ -0,0 +1,31 @@
+-- Script Flyway V17: remove a partição DEFAULT do vehicle_audit_log
+
+-- Com a DEFAULT, criar a partição de um mês falha assim que a DEFAULT tem linhas desse mês, e cada CREATE/ATTACH
+-- de partição varre e trava a DEFAULT. Sem ela, um mês ainda sem partição só faz as linhas esperarem na
+-- vehicle_audit_staging (V16) até a manutenção criar a partição.
+
+ALTER TABLE vehicle_audit_log DETACH PARTITION vehicle_audit_log_default;
+
+-- Linhas que caíram na DEFAULT ganham a partição do seu mês (nenhuma partição existente cobre esses meses)
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+BEGIN
+    FOR month_start IN
+        SELECT DISTINCT date_trunc('month', change_timestamp AT TIME ZONE 'UTC') FROM vehicle_audit_log_default
+    LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF vehicle_audit_log FOR VALUES FROM (%L) TO (%L)',
+            'vehicle_audit_log_p' || to_char(month_start, 'YYYYMM'),
+            month_start || '+00',
+            (month_start + INTERVAL '1 month') || '+00');
+    END LOOP;
+END $$;
+
+INSERT INTO vehicle_audit_log (audit_id, vehicle_id, change_timestamp, operation_type, changed_by_user_id,
+                               vehicle_data_snapshot, vehicle_version, snapshot_type)
+SELECT audit_id, vehicle_id, change_timestamp, operation_type, changed_by_user_id, vehicle_data_snapshot,
+       vehicle_version, snapshot_type
+FROM vehicle_audit_log_default;
+
+DROP TABLE vehicle_audit_log_default;
\ No newline at end of file
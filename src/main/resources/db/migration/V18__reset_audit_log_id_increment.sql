@@ -0,0 +1,6 @@
+-- Script Flyway V18: volta o incremento da sequence do vehicle_audit_log para 1
+
+-- O incremento de 50 (V8) servia ao otimizador pooled do Hibernate, que reservava 50 ids por nextval para os
+-- INSERTs em lote. Desde a V16 quem insere é o AuditLogRelay, com um nextval explícito por linha: com o incremento
+-- de 50 cada linha consumia 50 ids. Os ids já usados não mudam; os próximos seguem do último valor, de 1 em 1.
+ALTER SEQUENCE vehicle_audit_log_audit_id_seq INCREMENT BY 1;
\ No newline at end of file
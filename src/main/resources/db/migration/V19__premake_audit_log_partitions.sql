@@ -0,0 +1,19 @@
+-- Script Flyway V19: partições do vehicle_audit_log para os próximos 12 meses
+
+-- Sem a DEFAULT (V17), um mês sem partição faz a auditoria esperar na vehicle_audit_staging. Na Lambda a tarefa
+-- diária da AuditLogPartitionMaintenance pode passar dias sem rodar; esta folga cobre o ano seguinte ao deploy, e o
+-- AuditLogRelay cria a partição que ainda faltar quando um lote falha. Partições já existentes ficam como estão.
+DO $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', now() AT TIME ZONE 'UTC');
+    last_month TIMESTAMP := date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '12 months';
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF vehicle_audit_log FOR VALUES FROM (%L) TO (%L)',
+            'vehicle_audit_log_p' || to_char(month_start, 'YYYYMM'),
+            month_start || '+00',
+            (month_start + INTERVAL '1 month') || '+00');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
\ No newline at end of file
@@ -0,0 +1,9 @@
+-- Script Flyway V2: Índices para paginação keyset (seek) das listagens
+
+-- /vehicles/available/cursor: ORDER BY price, id com status = 'AVAILABLE'
+-- Substitui idx_vehicles_status_price, que não cobre o desempate por id
+CREATE INDEX idx_vehicles_status_price_id ON vehicles (status, price, id);
+DROP INDEX idx_vehicles_status_price;
+
+-- /vehicles/sold/cursor: ORDER BY updated_at DESC, id DESC com status = 'SOLD'
+CREATE INDEX idx_vehicles_status_updated_at_id ON vehicles (status, updated_at DESC, id DESC);
@@ -0,0 +1,4 @@
+-- Script Flyway V3: Índice para o ETag fraco das listagens
+
+-- SELECT max(updated_at) FROM vehicles vira uma leitura da ponta do índice
+CREATE INDEX idx_vehicles_updated_at ON vehicles (updated_at);
\ No newline at end of file
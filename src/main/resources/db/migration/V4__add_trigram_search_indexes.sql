@@ -0,0 +1,14 @@
+-- Script Flyway V4: Índices de trigramas para as buscas por marca, modelo e cor
+
+-- As Specifications comparam lower(coluna) (igualdade para marca/cor, LIKE '%x%' para modelo).
+-- Índices B-tree na coluna crua não atendem nenhum dos casos; GIN com gin_trgm_ops sobre a mesma
+-- expressão atende LIKE/ILIKE com curinga no início e, a partir do Postgres 14, também igualdade.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_vehicles_make_trgm ON vehicles USING gin (lower(make) gin_trgm_ops);
+CREATE INDEX idx_vehicles_model_trgm ON vehicles USING gin (lower(model) gin_trgm_ops);
+CREATE INDEX idx_vehicles_color_trgm ON vehicles USING gin (lower(color) gin_trgm_ops);
+
+-- Substituídos pelos índices acima
+DROP INDEX idx_vehicles_make;
+DROP INDEX idx_vehicles_model;
\ No newline at end of file
@@ -0,0 +1,17 @@
+-- Script Flyway V5: Índices parciais compostos para as ordenações aceitas nas listagens (VehicleSortRegistry)
+
+-- Cada ordenação permitida é (propriedade, id) dentro de um único status; o índice é lido para frente (ASC)
+-- ou para trás (DESC), então toda página sai do índice já ordenada, sem sort da tabela.
+
+-- /vehicles/available
+CREATE INDEX idx_vehicles_available_price_id ON vehicles (price, id) WHERE status = 'AVAILABLE';
+CREATE INDEX idx_vehicles_available_year_id ON vehicles (year, id) WHERE status = 'AVAILABLE';
+CREATE INDEX idx_vehicles_available_updated_at_id ON vehicles (updated_at, id) WHERE status = 'AVAILABLE';
+
+-- /vehicles/sold
+CREATE INDEX idx_vehicles_sold_updated_at_id ON vehicles (updated_at DESC, id DESC) WHERE status = 'SOLD';
+CREATE INDEX idx_vehicles_sold_price_id ON vehicles (price, id) WHERE status = 'SOLD';
+
+-- Substituídos pelos índices parciais acima (V2)
+DROP INDEX idx_vehicles_status_price_id;
+DROP INDEX idx_vehicles_status_updated_at_id;
\ No newline at end of file
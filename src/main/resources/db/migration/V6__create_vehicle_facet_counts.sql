@@ -0,0 +1,20 @@
+-- Script Flyway V6: Cubo de facetas dos veículos disponíveis
+
+-- Uma linha por (marca, cor, ano, faixa de preço) com a quantidade de veículos AVAILABLE.
+-- Marca e cor em minúsculas (como os filtros); faixa de preço = floor(price / 10000), limitada a 20.
+-- Regras iguais às de VehicleFacets. Mantido pelo serviço na mesma transação das transições de status.
+CREATE TABLE vehicle_facet_counts (
+    make VARCHAR(100) NOT NULL,
+    color VARCHAR(50) NOT NULL,
+    year INTEGER NOT NULL,
+    price_bucket INTEGER NOT NULL,
+    available_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (make, color, year, price_bucket)
+);
+
+-- Carga inicial a partir do estoque atual
+INSERT INTO vehicle_facet_counts (make, color, year, price_bucket, available_count)
+SELECT lower(make), lower(color), year, LEAST(GREATEST(floor(price / 10000)::int, 0), 20), count(*)
+FROM vehicles
+WHERE status = 'AVAILABLE'
+GROUP BY 1, 2, 3, 4;
\ No newline at end of file
@@ -0,0 +1,12 @@
+-- Script Flyway V7: Busca textual (q=) em marca, modelo e descrição
+
+-- Coluna gerada: o tsvector é calculado uma vez na escrita, não a cada busca (ts_rank lê direto dela).
+-- Marca/modelo pesam mais (A) que a descrição (B). Mesma expressão do columnDefinition da entidade.
+ALTER TABLE vehicles
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese', coalesce(make, '') || ' ' || coalesce(model, '')), 'A') ||
+        setweight(to_tsvector('portuguese', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- A busca só é exposta em /vehicles/available
+CREATE INDEX idx_vehicles_available_search_vector ON vehicles USING gin (search_vector) WHERE status = 'AVAILABLE';
\ No newline at end of file
@@ -0,0 +1,5 @@
+-- Script Flyway V8: ids do vehicle_audit_log em blocos de 50
+-- O IDENTITY obrigava um INSERT por vez (o id precisa voltar do banco), o que desliga o batch de JDBC do Hibernate.
+-- Com a sequence incrementando de 50 em 50, o otimizador pooled reserva 50 ids por nextval e os INSERTs vão em lote.
+-- O DEFAULT nextval do BIGSERIAL continua valendo para inserts fora da aplicação (apenas deixam lacunas).
+ALTER SEQUENCE vehicle_audit_log_audit_id_seq INCREMENT BY 50;
\ No newline at end of file
@@ -0,0 +1,58 @@
+-- Script Flyway V9: vehicle_audit_log particionada por mês (range em change_timestamp)
+
+-- Cada mês vira uma tabela própria (vehicle_audit_log_pYYYYMM): vacuum e índices ficam do tamanho de um mês, a
+-- retenção vira DETACH/DROP de partição em vez de DELETE, e consultas com filtro de change_timestamp só leem as
+-- partições do intervalo (partition pruning). As partições futuras e a retenção são mantidas por
+-- AuditLogPartitionMaintenance.
+
+-- A sequence do BIGSERIAL passa a ser independente para sobreviver ao DROP da tabela antiga
+ALTER TABLE vehicle_audit_log RENAME TO vehicle_audit_log_legacy;
+ALTER SEQUENCE vehicle_audit_log_audit_id_seq OWNED BY NONE;
+DROP INDEX idx_vehicle_audit_log_vehicle_id;
+DROP INDEX idx_vehicle_audit_log_timestamp;
+
+-- A chave de partição precisa fazer parte da PK; audit_id continua único por vir da sequence
+CREATE TABLE vehicle_audit_log (
+    audit_id BIGINT NOT NULL DEFAULT nextval('vehicle_audit_log_audit_id_seq'),
+    vehicle_id UUID NOT NULL,
+    change_timestamp TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    operation_type VARCHAR(10) NOT NULL, -- 'CREATE', 'UPDATE', 'DELETE'
+    changed_by_user_id VARCHAR(255),
+    vehicle_data_snapshot JSONB NOT NULL, -- Snapshot do registro completo
+    PRIMARY KEY (audit_id, change_timestamp)
+) PARTITION BY RANGE (change_timestamp);
+
+ALTER SEQUENCE vehicle_audit_log_audit_id_seq OWNED BY vehicle_audit_log.audit_id;
+
+-- Índices declarados na tabela pai são criados em cada partição
+CREATE INDEX idx_vehicle_audit_log_vehicle_id ON vehicle_audit_log (vehicle_id, change_timestamp);
+CREATE INDEX idx_vehicle_audit_log_timestamp ON vehicle_audit_log (change_timestamp);
+
+-- Uma partição por mês, do mês mais antigo do histórico até três meses à frente (limites em UTC)
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+    last_month TIMESTAMP := date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months';
+BEGIN
+    SELECT date_trunc('month', COALESCE(min(change_timestamp), now()) AT TIME ZONE 'UTC')
+    INTO month_start
+    FROM vehicle_audit_log_legacy;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF vehicle_audit_log FOR VALUES FROM (%L) TO (%L)',
+            'vehicle_audit_log_p' || to_char(month_start, 'YYYYMM'),
+            month_start || '+00',
+            (month_start + INTERVAL '1 month') || '+00');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+-- Rede de segurança: se a manutenção atrasar, a escrita cai aqui em vez de falhar. Deve ficar vazia.
+CREATE TABLE vehicle_audit_log_default PARTITION OF vehicle_audit_log DEFAULT;
+
+INSERT INTO vehicle_audit_log (audit_id, vehicle_id, change_timestamp, operation_type, changed_by_user_id, vehicle_data_snapshot)
+SELECT audit_id, vehicle_id, change_timestamp, operation_type, changed_by_user_id, vehicle_data_snapshot
+FROM vehicle_audit_log_legacy;
+
+DROP TABLE vehicle_audit_log_legacy;
\ No newline at end of file
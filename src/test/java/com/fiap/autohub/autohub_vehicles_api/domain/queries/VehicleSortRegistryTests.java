@@ -0,0 +1,62 @@
+package com.fiap.autohub.autohub_vehicles_api.domain.queries;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.UnsupportedSortException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ordenações das listagens: sem ordenação pedida vale a padrão de cada status (preço crescente para disponíveis,
+ * vendas mais recentes primeiro para vendidos); as aceitas ganham o id como desempate na mesma direção; as demais
+ * são rejeitadas.
+ */
+class VehicleSortRegistryTests {
+
+    @Test
+    void defaultSortFollowsEachStatusIndex() {
+        Pageable available = VehicleSortRegistry.resolve(VehicleStatus.AVAILABLE, PageRequest.of(2, 20));
+        Pageable sold = VehicleSortRegistry.resolve(VehicleStatus.SOLD, PageRequest.of(2, 20));
+
+        assertThat(available.getSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "price", "id"));
+        assertThat(sold.getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "updatedAt", "id"));
+        assertThat(sold.getPageNumber()).isEqualTo(2);
+        assertThat(sold.getPageSize()).isEqualTo(20);
+    }
+
+    @Test
+    void requestedSortKeepsItsDirectionAndGetsTheTieBreaker() {
+        Pageable ascending = VehicleSortRegistry.resolve(VehicleStatus.SOLD,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "updatedAt")));
+        Pageable canonical = VehicleSortRegistry.resolve(VehicleStatus.AVAILABLE,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "year", "id")));
+
+        assertThat(ascending.getSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "updatedAt", "id"));
+        assertThat(canonical.getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "year", "id"));
+    }
+
+    @Test
+    void unpagedRequestIsLeftUntouched() {
+        assertThat(VehicleSortRegistry.resolve(VehicleStatus.SOLD, Pageable.unpaged())).isEqualTo(Pageable.unpaged());
+    }
+
+    @Test
+    void sortsWithoutAMatchingIndexAreRejected() {
+        assertThatThrownBy(() -> VehicleSortRegistry.resolve(VehicleStatus.SOLD,
+                PageRequest.of(0, 10, Sort.by("year"))))
+                .isInstanceOf(UnsupportedSortException.class);
+        assertThatThrownBy(() -> VehicleSortRegistry.resolve(VehicleStatus.AVAILABLE,
+                PageRequest.of(0, 10, Sort.by(Sort.Order.asc("price"), Sort.Order.desc("id")))))
+                .isInstanceOf(UnsupportedSortException.class);
+        assertThatThrownBy(() -> VehicleSortRegistry.resolve(VehicleStatus.AVAILABLE,
+                PageRequest.of(0, 10, Sort.by(Sort.Order.asc("make").ignoreCase()))))
+                .isInstanceOf(UnsupportedSortException.class);
+        assertThatThrownBy(() -> VehicleSortRegistry.resolve(VehicleStatus.AVAILABLE,
+                PageRequest.of(0, 10, Sort.by("price", "year"))))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Propriedades do filtro: nenhum falso negativo (também com inserções concorrentes) e taxa de falsos positivos
+ * próxima da configurada quando cheio até expectedInsertions. Os UUIDs vêm de um Random com semente fixa, para o
+ * resultado não variar entre execuções.
+ */
+class UuidBloomFilterTests {
+
+    private static final int EXPECTED_INSERTIONS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void everyInsertedIdIsReported() {
+        UuidBloomFilter filter = new UuidBloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+        List<UUID> inserted = randomIds(new Random(1), EXPECTED_INSERTIONS);
+        inserted.forEach(filter::put);
+
+        assertThat(inserted).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void concurrentInsertionsLoseNoBits() throws Exception {
+        int threads = 8;
+        UuidBloomFilter filter = new UuidBloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+        List<List<UUID>> slices = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            slices.add(randomIds(new Random(100 + t), EXPECTED_INSERTIONS / threads));
+        }
+
+        // Todas as threads escrevem ao mesmo tempo nas mesmas palavras do AtomicLongArray
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (List<UUID> slice : slices) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    slice.forEach(filter::put);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (List<UUID> slice : slices) {
+            assertThat(slice).allMatch(filter::mightContain);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        UuidBloomFilter filter = new UuidBloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+        randomIds(new Random(2), EXPECTED_INSERTIONS).forEach(filter::put);
+
+        int probes = 1_000_000;
+        Random random = new Random(3);
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(randomId(random))) {
+                falsePositives++;
+            }
+        }
+
+        // ~10.000 esperados (desvio padrão ~100): a faixa só falha se o dimensionamento ou o hash estiverem errados
+        assertThat((double) falsePositives / probes)
+                .isBetween(FALSE_POSITIVE_RATE * 0.5, FALSE_POSITIVE_RATE * 1.5);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        UuidBloomFilter filter = new UuidBloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+
+        assertThat(randomIds(new Random(4), 10_000)).noneMatch(filter::mightContain);
+    }
+
+    private static List<UUID> randomIds(Random random, int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(randomId(random));
+        }
+        return ids;
+    }
+
+    // Mesmos bits de versão (4) e variante do UUID.randomUUID, que o mix do filtro precisa espalhar
+    private static UUID randomId(Random random) {
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(most, least);
+    }
+}
\ No newline at end of file
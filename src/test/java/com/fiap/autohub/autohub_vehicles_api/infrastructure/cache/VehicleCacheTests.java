@@ -0,0 +1,142 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.cache;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache por id contra um "banco" em memória: acertos são revalidados pela versão atual (escritas de outra instância
+ * descartam a entrada), lápides rejeitam cargas lentas com versão antiga, e a invalidação acompanha o commit da
+ * transação (e não acontece no rollback).
+ */
+class VehicleCacheTests {
+
+    private final Map<UUID, Vehicle> rows = new HashMap<>();
+    private final AtomicInteger rowLoads = new AtomicInteger();
+    private final VehicleCache cache = new VehicleCache(100, Duration.ofMinutes(5));
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void hitIsServedWhileTheVersionIsCurrent() {
+        Vehicle vehicle = store(vehicle(UUID.randomUUID(), 0, VehicleStatus.AVAILABLE));
+
+        assertThat(find(vehicle.id())).contains(vehicle);
+        assertThat(find(vehicle.id())).contains(vehicle);
+        assertThat(find(vehicle.id())).contains(vehicle);
+
+        assertThat(rowLoads).hasValue(1);
+        assertThat(cache.stats().hits()).isEqualTo(2);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void writeFromAnotherInstanceIsSeenOnTheNextRead() {
+        UUID id = UUID.randomUUID();
+        store(vehicle(id, 0, VehicleStatus.AVAILABLE));
+        find(id);
+
+        // Reserva feita pela Lambda SQS: nenhuma invalidação chega a esta instância, só a linha muda
+        Vehicle reserved = store(vehicle(id, 1, VehicleStatus.RESERVED));
+
+        assertThat(find(id)).contains(reserved);
+        assertThat(find(id)).contains(reserved);
+        assertThat(rowLoads).hasValue(2);
+    }
+
+    @Test
+    void vanishedRowIsNotServedFromCache() {
+        UUID id = UUID.randomUUID();
+        store(vehicle(id, 0, VehicleStatus.AVAILABLE));
+        find(id);
+
+        rows.remove(id);
+
+        assertThat(find(id)).isEmpty();
+    }
+
+    @Test
+    void tombstoneRejectsSlowLoadOfAnOlderVersion() {
+        UUID id = UUID.randomUUID();
+        Vehicle stale = vehicle(id, 0, VehicleStatus.AVAILABLE);
+        Vehicle sold = store(vehicle(id, 2, VehicleStatus.SOLD));
+
+        // A escrita (versão 2) invalida enquanto uma leitura lenta ainda traz a versão 0
+        cache.invalidate(id, 2);
+        assertThat(cache.getOrLoad(id, this::currentVersion, ignored -> Optional.of(stale))).contains(stale);
+
+        // A versão antiga não entrou no cache: a próxima leitura vai ao banco e guarda a atual
+        assertThat(find(id)).contains(sold);
+        assertThat(find(id)).contains(sold);
+        assertThat(rowLoads).hasValue(1);
+    }
+
+    @Test
+    void invalidationWaitsForCommitAndIsSkippedOnRollback() {
+        UUID id = UUID.randomUUID();
+        Vehicle original = store(vehicle(id, 0, VehicleStatus.AVAILABLE));
+        find(id);
+
+        // Rollback: a lápide nunca é gravada e a entrada segue servindo (a versão no banco não mudou)
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidateAfterCommit(id, 1);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(find(id)).contains(original);
+        assertThat(rowLoads).hasValue(1);
+
+        // Commit: a lápide é gravada e a leitura seguinte busca a versão nova
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidateAfterCommit(id, 1);
+        Vehicle updated = store(vehicle(id, 1, VehicleStatus.AVAILABLE));
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(find(id)).contains(updated);
+        assertThat(rowLoads).hasValue(2);
+    }
+
+    private Optional<Vehicle> find(UUID id) {
+        return cache.getOrLoad(id, this::currentVersion, key -> {
+            rowLoads.incrementAndGet();
+            return Optional.ofNullable(rows.get(key));
+        });
+    }
+
+    private Optional<Long> currentVersion(UUID id) {
+        return Optional.ofNullable(rows.get(id)).map(Vehicle::version);
+    }
+
+    private Vehicle store(Vehicle vehicle) {
+        rows.put(vehicle.id(), vehicle);
+        return vehicle;
+    }
+
+    private static Vehicle vehicle(UUID id, long version, VehicleStatus status) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        return new Vehicle(id, "Fiat", "Argo", 2021, "Branco", new BigDecimal("45000.00"), null, status,
+                "owner-cache", version, now, now);
+    }
+}
\ No newline at end of file
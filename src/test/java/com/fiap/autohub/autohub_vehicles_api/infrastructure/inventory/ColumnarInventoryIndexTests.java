@@ -0,0 +1,244 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.inventory;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.UpdateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleRepositoryPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O índice colunar tem de responder exatamente o que o SQL responde: para cada combinação de filtros, direção e
+ * página, os mesmos veículos na mesma ordem e o mesmo total. O estoque é gerado por um Random com semente fixa, com
+ * preços repetidos (desempate por id), marcas com caixa variada e poucos candidatos para alguns filtros (caminho que
+ * ordena só os candidatos). A sincronização agendada fica desligada na prática (intervalo de 1h): os testes chamam
+ * reload() e synchronize() diretamente.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class ColumnarInventoryIndexTests {
+
+    private static final String OWNER_ID = "owner-inventory-index";
+    private static final int SEEDED_VEHICLES = 400;
+    private static final String[] MAKES = {"Toyota", "TOYOTA", "Honda", "Fiat", "Volkswagen"};
+    private static final String[] MODELS = {"Corolla", "Civic", "Argo", "Gol", "Corsa", "Cronos"};
+    private static final String[] COLORS = {"Prata", "Preto", "Branco", "Azul"};
+    private static final List<Pageable> PAGES = List.of(
+            PageRequest.of(0, 7), PageRequest.of(1, 7), PageRequest.of(5, 7),
+            PageRequest.of(0, 50), PageRequest.of(3, 50), PageRequest.of(0, 1000));
+
+    private static boolean seeded;
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("vehicles.inventory-index.enabled", () -> "true");
+        registry.add("vehicles.inventory-index.consistency-check-interval", () -> "1h");
+    }
+
+    @Autowired
+    private ColumnarInventoryIndex index;
+
+    @Autowired
+    private VehicleRepositoryPort vehicleRepository;
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seedInventory() {
+        if (seeded) {
+            return;
+        }
+        Random random = new Random(42);
+        List<CreateVehicleCommand> commands = new ArrayList<>(SEEDED_VEHICLES);
+        for (int i = 0; i < SEEDED_VEHICLES; i++) {
+            // Preços em degraus de 2.500 entre 20.000 e 120.000: muitos empates, resolvidos pelo id
+            BigDecimal price = BigDecimal.valueOf(20_000 + 2_500L * random.nextInt(41)).setScale(2);
+            commands.add(new CreateVehicleCommand(MAKES[random.nextInt(MAKES.length)],
+                    MODELS[random.nextInt(MODELS.length)], 2005 + random.nextInt(20),
+                    COLORS[random.nextInt(COLORS.length)], price, null));
+        }
+        // Alguns veículos fora de AVAILABLE, que nenhum dos dois caminhos pode listar
+        List<Vehicle> created = vehicleService.createVehicles(commands, OWNER_ID);
+        for (int i = 0; i < 20; i++) {
+            vehicleService.reserveVehicle(created.get(i).id(), UUID.randomUUID(), created.get(i).price());
+        }
+        index.reload();
+        seeded = true;
+    }
+
+    @Test
+    void indexMatchesSqlForFiltersSortsAndPages() {
+        List<VehicleSearchCriteria> criteria = List.of(
+                VehicleSearchCriteria.byMake(null),
+                VehicleSearchCriteria.byMake("toyota"),
+                new VehicleSearchCriteria("Toyota", null, null, null, "prata", null, null),
+                new VehicleSearchCriteria(null, null, 2010, 2015, null, null, null),
+                new VehicleSearchCriteria(null, null, 2020, 2010, null, null, null),
+                new VehicleSearchCriteria(null, null, null, null, null, new BigDecimal("30000.005"), new BigDecimal("60000")),
+                new VehicleSearchCriteria(null, "cor", null, null, null, null, null),
+                new VehicleSearchCriteria("fiat", "ro", 2008, null, "azul", new BigDecimal("40000"), null),
+                new VehicleSearchCriteria("honda", null, 2023, null, "preto", new BigDecimal("100000"), null),
+                VehicleSearchCriteria.byMake("lada"),
+                new VehicleSearchCriteria(null, null, null, null, "verde", null, null));
+
+        for (VehicleSearchCriteria filter : criteria) {
+            assertIndexMatchesSql(filter);
+        }
+    }
+
+    @Test
+    void writesAreAppliedOnlyAfterCommit() {
+        Vehicle created = vehicleService.createVehicle(new CreateVehicleCommand(
+                "Renault", "Kwid", 2022, "Laranja", new BigDecimal("47500.00"), null), OWNER_ID);
+        assertIndexMatchesSql(VehicleSearchCriteria.byMake("renault"));
+        assertThat(ids(index.findAvailable(VehicleSearchCriteria.byMake("renault"), pricePage(0, 10, Sort.Direction.ASC))))
+                .containsExactly(created.id());
+
+        // Transação desfeita: a mudança de preço nunca chega ao índice
+        transactionTemplate.executeWithoutResult(status -> {
+            vehicleService.updateVehicle(created.id(), new UpdateVehicleCommand(
+                    null, null, null, null, new BigDecimal("999.00"), null, created.version()), OWNER_ID);
+            status.setRollbackOnly();
+        });
+        assertIndexMatchesSql(new VehicleSearchCriteria(null, null, null, null, null, null, new BigDecimal("1000")));
+
+        Vehicle repriced = vehicleService.updateVehicle(created.id(), new UpdateVehicleCommand(
+                null, "Kwid Zen", 2023, null, new BigDecimal("20000.00"), null, created.version()), OWNER_ID);
+        assertIndexMatchesSql(VehicleSearchCriteria.byMake(null));
+        assertIndexMatchesSql(new VehicleSearchCriteria(null, "zen", 2023, 2023, null, null, null));
+
+        vehicleService.reserveVehicle(repriced.id(), UUID.randomUUID(), repriced.price());
+        assertIndexMatchesSql(VehicleSearchCriteria.byMake("renault"));
+        vehicleService.unreserveVehicle(repriced.id());
+        assertIndexMatchesSql(VehicleSearchCriteria.byMake("renault"));
+
+        vehicleService.deleteVehicleLogically(repriced.id(), OWNER_ID);
+        assertIndexMatchesSql(VehicleSearchCriteria.byMake("renault"));
+        assertThat(index.size()).isEqualTo(vehicleRepository.count(VehicleSearchCriteria.byMake(null), VehicleStatus.AVAILABLE));
+    }
+
+    @Test
+    void synchronizeAppliesWritesFromOtherInstances() {
+        List<UUID> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM vehicles WHERE status = 'AVAILABLE' ORDER BY id LIMIT 3", UUID.class);
+
+        // Escritas que não passam por esta instância (ex.: a Lambda SQS), com updated_at novo
+        jdbcTemplate.update("UPDATE vehicles SET status = 'RESERVED', version = version + 1, updated_at = now() WHERE id = ?", ids.get(0));
+        jdbcTemplate.update("UPDATE vehicles SET price = 1.00, version = version + 1, updated_at = now() WHERE id = ?", ids.get(1));
+        jdbcTemplate.update("UPDATE vehicles SET color = 'Dourado', version = version + 1, updated_at = now() WHERE id = ?", ids.get(2));
+
+        index.synchronize();
+
+        assertIndexMatchesSql(VehicleSearchCriteria.byMake(null));
+        assertIndexMatchesSql(new VehicleSearchCriteria(null, null, null, null, "dourado", null, null));
+        assertIndexMatchesSql(new VehicleSearchCriteria(null, null, null, null, null, null, new BigDecimal("10")));
+    }
+
+    @Test
+    void synchronizeReloadsWhenTheDeltaMissesAChange() {
+        UUID hidden = jdbcTemplate.queryForObject(
+                "SELECT id FROM vehicles WHERE status = 'AVAILABLE' ORDER BY id DESC LIMIT 1", UUID.class);
+
+        // updated_at bem antes da marca d'água: o delta não acha a linha, só a contagem denuncia a divergência
+        jdbcTemplate.update("UPDATE vehicles SET status = 'SOLD', version = version + 1,"
+                + " updated_at = now() - interval '30 days' WHERE id = ?", hidden);
+
+        index.synchronize();
+
+        assertThat(index.size()).isEqualTo(vehicleRepository.count(VehicleSearchCriteria.byMake(null), VehicleStatus.AVAILABLE));
+        assertIndexMatchesSql(VehicleSearchCriteria.byMake(null));
+    }
+
+    @Test
+    void indexServesOnlyRevisionsItHasSeen() {
+        Pageable byPrice = pricePage(0, 10, Sort.Direction.ASC);
+        index.synchronize();
+        long current = vehicleRepository.findInventoryRevision();
+        assertThat(index.revision()).isGreaterThanOrEqualTo(current);
+        assertThat(index.findAvailable(VehicleSearchCriteria.byMake(null), byPrice, current)).isPresent();
+
+        Vehicle created = vehicleService.createVehicle(new CreateVehicleCommand(
+                "Peugeot", "208", 2021, "Cinza", new BigDecimal("61000.00"), null), OWNER_ID);
+        long afterWrite = vehicleRepository.findInventoryRevision();
+        assertThat(afterWrite).isGreaterThan(current);
+        // O veículo já está no índice, mas a revisão dele ainda não: quem pede a revisão nova vai ao SQL
+        assertThat(index.findAvailable(VehicleSearchCriteria.byMake(null), byPrice, afterWrite)).isEmpty();
+
+        index.synchronize();
+        assertThat(index.findAvailable(VehicleSearchCriteria.byMake("peugeot"), byPrice, afterWrite))
+                .hasValueSatisfying(page -> assertThat(ids(page)).containsExactly(created.id()));
+
+        // Ordenação que não é por preço nunca é atendida pelo índice
+        assertThat(index.findAvailable(VehicleSearchCriteria.byMake(null),
+                PageRequest.of(0, 10, Sort.by("year")), afterWrite)).isEmpty();
+    }
+
+    private void assertIndexMatchesSql(VehicleSearchCriteria criteria) {
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            for (Pageable page : PAGES) {
+                Pageable pageable = pricePage(page.getPageNumber(), page.getPageSize(), direction);
+                Page<Vehicle> fromIndex = index.findAvailable(criteria, pageable);
+                Page<Vehicle> fromSql = vehicleRepository.findAll(criteria, VehicleStatus.AVAILABLE, pageable);
+
+                String scenario = criteria.fingerprint() + " " + direction + " " + page;
+                assertThat(ids(fromIndex)).as(scenario).containsExactlyElementsOf(ids(fromSql));
+                assertThat(fromIndex.getTotalElements()).as(scenario).isEqualTo(fromSql.getTotalElements());
+            }
+        }
+    }
+
+    // O índice desempata por id na direção do preço; o SQL recebe o mesmo desempate explícito
+    private static Pageable pricePage(int page, int size, Sort.Direction direction) {
+        return PageRequest.of(page, size, Sort.by(direction, "price").and(Sort.by(direction, "id")));
+    }
+
+    private static List<UUID> ids(Page<Vehicle> page) {
+        return page.getContent().stream().map(Vehicle::id).toList();
+    }
+}
\ No newline at end of file
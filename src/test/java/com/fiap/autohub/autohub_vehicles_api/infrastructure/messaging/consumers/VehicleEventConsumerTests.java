@@ -0,0 +1,186 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.consumers;
+
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Respostas parciais do lote SQS (ReportBatchItemFailures): só as mensagens que falharam voltam na lista de falhas do
+ * SQSBatchResponse, e uma falha não impede o processamento das demais. Mensagens do mesmo veículo são processadas na
+ * ordem de chegada, mesmo com veículos diferentes em paralelo (até max-concurrency); depois de uma falha, as seguintes
+ * do mesmo veículo voltam junto com ela. O roteamento usa o VehicleEventHandlerRegistry de verdade com handlers de
+ * teste, que recebem a árvore JSON do evento.
+ */
+class VehicleEventConsumerTests {
+
+    private static final String EVENT_TYPE = "TestEvent";
+
+    private VehicleEventConsumer consumer;
+
+    @AfterEach
+    void shutdown() {
+        if (consumer != null) {
+            consumer.shutdown();
+        }
+    }
+
+    @Test
+    void emptyEventHasNoFailures() {
+        consumer = consumer(event -> { }, 4);
+
+        assertThat(consumer.consumeEvent(null).getBatchItemFailures()).isEmpty();
+        assertThat(consumer.consumeEvent(new SQSEvent()).getBatchItemFailures()).isEmpty();
+    }
+
+    @Test
+    void onlyTheFailedMessagesAreReported() {
+        List<String> handled = new CopyOnWriteArrayList<>();
+        consumer = consumer(event -> {
+            String name = event.path("data").path("name").asText();
+            if (name.startsWith("poison")) {
+                throw new IllegalStateException("Cannot process " + name);
+            }
+            handled.add(name);
+        }, 4);
+
+        SQSBatchResponse response = consumer.consumeEvent(sqsEvent(
+                message("m1", body(EVENT_TYPE, "v1", "ok-1")),
+                message("m2", body(EVENT_TYPE, "v2", "poison-2")),
+                message("m3", body(EVENT_TYPE, "v3", "ok-3")),
+                message("m4", body(EVENT_TYPE, null, "ok-4"))));
+
+        assertThat(failedIds(response)).containsExactly("m2");
+        assertThat(handled).containsExactlyInAnyOrder("ok-1", "ok-3", "ok-4");
+    }
+
+    @Test
+    void unreadableMessagesFailWithoutStoppingTheBatch() {
+        List<String> handled = new CopyOnWriteArrayList<>();
+        consumer = consumer(event -> handled.add(event.path("data").path("name").asText()), 4);
+
+        SQSBatchResponse response = consumer.consumeEvent(sqsEvent(
+                message("m1", "{not json"),
+                message("m2", "{\"data\": {\"vehicle_id\": \"v2\"}}"),
+                message("m3", body(EVENT_TYPE, "v3", "ok-3"))));
+
+        assertThat(failedIds(response)).containsExactlyInAnyOrder("m1", "m2");
+        assertThat(handled).containsExactly("ok-3");
+    }
+
+    @Test
+    void unhandledEventTypeIsAcknowledged() {
+        consumer = consumer(event -> { }, 4);
+
+        SQSBatchResponse response = consumer.consumeEvent(sqsEvent(message("m1", body("UnknownEvent", "v1", "x"))));
+
+        assertThat(response.getBatchItemFailures()).isEmpty();
+    }
+
+    @Test
+    void messagesOfEachVehicleKeepTheirOrderWhileVehiclesRunInParallel() {
+        int vehicles = 6;
+        int messagesPerVehicle = 5;
+        int maxConcurrency = 3;
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        consumer = consumer(event -> {
+            int now = running.incrementAndGet();
+            maxRunning.accumulateAndGet(now, Math::max);
+            try {
+                // Tempos diferentes por mensagem embaralhariam a ordem se o mesmo veículo rodasse em paralelo
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5, 25));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            String vehicleId = event.path("data").path("vehicle_id").asText();
+            seen.computeIfAbsent(vehicleId, key -> new CopyOnWriteArrayList<>())
+                    .add(Integer.parseInt(event.path("data").path("name").asText()));
+        }, maxConcurrency);
+
+        // Chegada intercalada: v0#0, v1#0, ..., v5#0, v0#1, ...
+        List<SQSEvent.SQSMessage> messages = new ArrayList<>();
+        for (int seq = 0; seq < messagesPerVehicle; seq++) {
+            for (int v = 0; v < vehicles; v++) {
+                messages.add(message("m-" + v + "-" + seq, body(EVENT_TYPE, "v" + v, String.valueOf(seq))));
+            }
+        }
+
+        SQSBatchResponse response = consumer.consumeEvent(sqsEvent(messages.toArray(SQSEvent.SQSMessage[]::new)));
+
+        assertThat(response.getBatchItemFailures()).isEmpty();
+        assertThat(seen).hasSize(vehicles);
+        seen.values().forEach(order -> assertThat(order).containsExactly(0, 1, 2, 3, 4));
+        assertThat(maxRunning.get()).isBetween(2, maxConcurrency);
+    }
+
+    @Test
+    void failureHoldsBackTheRestOfThatVehicleOnly() {
+        List<String> handled = new CopyOnWriteArrayList<>();
+        consumer = consumer(event -> {
+            String name = event.path("data").path("name").asText();
+            if (name.startsWith("poison")) {
+                throw new IllegalStateException("Cannot process " + name);
+            }
+            handled.add(name);
+        }, 4);
+
+        SQSBatchResponse response = consumer.consumeEvent(sqsEvent(
+                message("m1", body(EVENT_TYPE, "v1", "v1-first")),
+                message("m2", body(EVENT_TYPE, "v2", "v2-first")),
+                message("m3", body(EVENT_TYPE, "v1", "poison-v1")),
+                message("m4", body(EVENT_TYPE, "v2", "v2-second")),
+                message("m5", body(EVENT_TYPE, "v1", "v1-third"))));
+
+        // m5 não roda: reentregue depois de m3, a ordem do veículo se mantém
+        assertThat(failedIds(response)).containsExactly("m3", "m5");
+        assertThat(handled).containsExactlyInAnyOrder("v1-first", "v2-first", "v2-second");
+    }
+
+    private static VehicleEventConsumer consumer(Consumer<JsonNode> handler, int maxConcurrency) {
+        VehicleEventHandlerRegistry registry = new VehicleEventHandlerRegistry(
+                List.of(VehicleEventHandler.of(EVENT_TYPE, JsonNode.class, handler)), new ObjectMapper());
+        return new VehicleEventConsumer(registry, Optional.empty(), maxConcurrency);
+    }
+
+    private static SQSEvent sqsEvent(SQSEvent.SQSMessage... messages) {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(new ArrayList<>(List.of(messages)));
+        return event;
+    }
+
+    private static SQSEvent.SQSMessage message(String messageId, String body) {
+        SQSEvent.SQSMessage message = new SQSEvent.SQSMessage();
+        message.setMessageId(messageId);
+        message.setBody(body);
+        return message;
+    }
+
+    private static String body(String eventType, String vehicleId, String name) {
+        String vehicle = vehicleId != null ? "\"vehicle_id\": \"" + vehicleId + "\", " : "";
+        return "{\"event_type\": \"" + eventType + "\", \"data\": {" + vehicle + "\"name\": \"" + name + "\"}}";
+    }
+
+    private static List<String> failedIds(SQSBatchResponse response) {
+        return response.getBatchItemFailures().stream()
+                .map(SQSBatchResponse.BatchItemFailure::getItemIdentifier)
+                .toList();
+    }
+}
\ No newline at end of file
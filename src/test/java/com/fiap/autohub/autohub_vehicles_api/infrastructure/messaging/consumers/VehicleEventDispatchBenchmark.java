@@ -0,0 +1,100 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.consumers;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fiap.autohub.autohub_vehicles_api.domain.events.SaleCreatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de CPU por mensagem do roteamento de eventos SQS: o caminho antigo do VehicleEventConsumer (readTree para
+ * achar o event_type e readValue do corpo inteiro no tipo concreto) contra o VehicleEventHandlerRegistry (uma
+ * tokenização e conversão da árvore). O handler só entrega o evento ao Blackhole, para medir apenas o parsing.
+ * <p>
+ * Não roda com os testes; para executar:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.consumers.VehicleEventDispatchBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VehicleEventDispatchBenchmark {
+
+    private static final String EVENT_TYPE = "SaleCreated";
+    private static final String MESSAGE_BODY = """
+            {
+              "event_id": "0b6f0c57-3c1e-4b9a-9a55-2f1f8f0c2d11",
+              "event_type": "SaleCreated",
+              "timestamp": "2025-05-01T10:15:30.123Z",
+              "source": "autohub-sales-api",
+              "data": {
+                "sale_id": "a3d1f6b2-8c4e-4f0a-b6d2-9e7c5a4b3f21",
+                "vehicle_id": "5f0c3b8e-2a41-4c6e-9d0b-7a1f2e3d4c5b",
+                "buyer_user_id": "buyer-7c1e2d",
+                "seller_user_id": "seller-4a9b0f",
+                "price": 45990.00
+              }
+            }
+            """;
+
+    private ObjectMapper objectMapper;
+    private VehicleEventHandlerRegistry registry;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        // Mesmo que o ObjectMapper do Spring Boot: módulos do classpath (JavaTimeModule) e sem falhar em campos extras
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        registry = new VehicleEventHandlerRegistry(
+                List.of(VehicleEventHandler.of(EVENT_TYPE, SaleCreatedEvent.class, event -> this.blackhole.consume(event))),
+                objectMapper);
+    }
+
+    @Benchmark
+    public void readTreeThenReadValue() throws IOException {
+        JsonNode rootNode = objectMapper.readTree(MESSAGE_BODY);
+        if (EVENT_TYPE.equals(rootNode.path("event_type").asText(null))) {
+            blackhole.consume(objectMapper.readValue(MESSAGE_BODY, SaleCreatedEvent.class));
+        }
+    }
+
+    @Benchmark
+    public boolean registryDispatch() throws IOException {
+        JsonNode rootNode = registry.readTree(MESSAGE_BODY);
+        return registry.dispatch(rootNode.path("event_type").asText(null), rootNode);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VehicleEventDispatchBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.idempotency;
+
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories.JpaProcessedEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Deduplicação do consumidor SQS contra o Postgres real (o claim é um INSERT ... ON CONFLICT): uma reentrega não roda
+ * o trabalho de novo, seja pelo atalho do filtro de Bloom, seja pelo banco quando o filtro não conhece o id (evento
+ * processado por outra instância), e entregas concorrentes do mesmo evento rodam o trabalho uma única vez.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class ProcessedEventStoreTests {
+
+    private static final String EVENT_TYPE = "SaleCreated";
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private ProcessedEventStore processedEventStore;
+
+    @Autowired
+    private JpaProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void redeliveredEventIsSkippedAndNewEventRunsOnce() {
+        UUID delivered = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        AtomicInteger deliveredRuns = new AtomicInteger();
+        AtomicInteger freshRuns = new AtomicInteger();
+
+        assertThat(processedEventStore.runOnce(delivered, EVENT_TYPE, deliveredRuns::incrementAndGet)).isTrue();
+        assertThat(processedEventStore.runOnce(delivered, EVENT_TYPE, deliveredRuns::incrementAndGet)).isFalse();
+        assertThat(processedEventStore.runOnce(fresh, EVENT_TYPE, freshRuns::incrementAndGet)).isTrue();
+
+        assertThat(deliveredRuns).hasValue(1);
+        assertThat(freshRuns).hasValue(1);
+        assertThat(processedEventRepository.existsById(delivered)).isTrue();
+        assertThat(processedEventRepository.existsById(fresh)).isTrue();
+    }
+
+    @Test
+    void eventProcessedByAnotherInstanceIsSkipped() {
+        UUID eventId = UUID.randomUUID();
+        AtomicInteger runs = new AtomicInteger();
+        assertThat(processedEventStore.runOnce(eventId, EVENT_TYPE, runs::incrementAndGet)).isTrue();
+
+        // Filtro vazio: o "não" do Bloom não basta, quem barra a reentrega é o claim no banco
+        ProcessedEventStore otherInstance = new ProcessedEventStore(processedEventRepository, transactionTemplate,
+                Duration.ofDays(7), Duration.ofHours(1), 1000, 0.01);
+
+        assertThat(otherInstance.runOnce(eventId, EVENT_TYPE, runs::incrementAndGet)).isFalse();
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void failedWorkDoesNotMarkEventAsProcessed() {
+        UUID eventId = UUID.randomUUID();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> processedEventStore.runOnce(eventId, EVENT_TYPE, () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("handler failed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(processedEventRepository.existsById(eventId)).isFalse();
+
+        assertThat(processedEventStore.runOnce(eventId, EVENT_TYPE, runs::incrementAndGet)).isTrue();
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void concurrentDeliveriesOfTheSameEventRunOnce() throws Exception {
+        int deliveries = 8;
+        UUID eventId = UUID.randomUUID();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(deliveries);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(deliveries);
+            for (int i = 0; i < deliveries; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return processedEventStore.runOnce(eventId, EVENT_TYPE, runs::incrementAndGet);
+                }));
+            }
+            start.countDown();
+
+            int processed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    processed++;
+                }
+            }
+            assertThat(processed).isEqualTo(1);
+            assertThat(runs).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
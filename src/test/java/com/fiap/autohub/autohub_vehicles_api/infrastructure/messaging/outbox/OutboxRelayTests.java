@@ -0,0 +1,233 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.outbox;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.publishers.OutgoingEvent;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.publishers.SNSEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Relay do outbox contra o Postgres real, com o SNSEventPublisher substituído: o evento gravado na transação da
+ * reserva é entregue e marcado como publicado; uma falha reagenda a linha com backoff exponencial (limitado por
+ * max-retry-backoff) e o erro; relays em paralelo nunca entregam a mesma linha duas vezes (SKIP LOCKED); e a
+ * varredura apaga só as linhas publicadas há mais que a retenção.
+ * <p>
+ * relay-interval e drain-linger longos deixam o relay parado: aqui ele só roda quando o teste o chama.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class OutboxRelayTests {
+
+    private static final String OWNER_ID = "owner-outbox-relay";
+    private static final String EVENT_TYPE = "TestEvent";
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("vehicles.outbox.relay-interval", () -> "1h");
+        registry.add("vehicles.outbox.drain-linger", () -> "1h");
+        registry.add("vehicles.outbox.batch-size", () -> "5");
+        registry.add("vehicles.outbox.retry-backoff", () -> "1m");
+        registry.add("vehicles.outbox.max-retry-backoff", () -> "3m");
+        registry.add("vehicles.outbox.retention", () -> "1d");
+    }
+
+    @MockitoBean
+    private SNSEventPublisher snsEventPublisher;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Cada teste parte da fila vazia, para saber exatamente o que cada drain pega
+    @BeforeEach
+    void clearOutbox() {
+        jdbcTemplate.update("DELETE FROM event_outbox");
+    }
+
+    @Test
+    void eventWrittenWithTheReservationIsPublishedAndMarked() {
+        List<OutgoingEvent> published = new CopyOnWriteArrayList<>();
+        given(snsEventPublisher.publishAll(anyList())).willAnswer(invocation -> {
+            published.addAll(invocation.getArgument(0));
+            return Map.of();
+        });
+        Vehicle vehicle = vehicleService.createVehicle(new CreateVehicleCommand(
+                "Jeep", "Renegade", 2022, "Verde", new BigDecimal("110000.00"), null), OWNER_ID);
+        vehicleService.reserveVehicle(vehicle.id(), UUID.randomUUID(), vehicle.price());
+
+        assertThat(outboxRelay.drain()).isEqualTo(1);
+
+        assertThat(published).singleElement().satisfies(event -> {
+            assertThat(event.eventType()).isEqualTo("VehicleReserved");
+            assertThat(event.body()).contains(vehicle.id().toString());
+        });
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT published_at IS NOT NULL FROM event_outbox WHERE aggregate_id = ?", Boolean.class, vehicle.id()))
+                .isTrue();
+        assertThat(outboxRelay.drain()).isZero();
+    }
+
+    @Test
+    void failedEventBacksOffExponentiallyUpToTheCap() {
+        long id = insertPending();
+        given(snsEventPublisher.publishAll(anyList()))
+                .willAnswer(invocation -> Map.of(String.valueOf(id), "InternalError: try again"));
+
+        // Backoff de 1m, 2m e então o teto de 3m (seria 4m)
+        long[] expectedSeconds = {60, 120, 180};
+        for (int attempt = 1; attempt <= expectedSeconds.length; attempt++) {
+            assertThat(outboxRelay.drain()).isEqualTo(1);
+            Map<String, Object> row = row(id);
+            assertThat(row).containsEntry("attempts", attempt).containsEntry("published", false);
+            assertThat((String) row.get("last_error")).isEqualTo("InternalError: try again");
+            assertThat(((Number) row.get("delay_seconds")).doubleValue())
+                    .isBetween(expectedSeconds[attempt - 1] - 15.0, expectedSeconds[attempt - 1] + 15.0);
+
+            // Antes do horário reagendado a linha não é lida de novo
+            assertThat(outboxRelay.drain()).isZero();
+            jdbcTemplate.update("UPDATE event_outbox SET next_attempt_at = now() WHERE id = ?", id);
+        }
+
+        given(snsEventPublisher.publishAll(anyList())).willReturn(Map.of());
+        assertThat(outboxRelay.drain()).isEqualTo(1);
+        assertThat(row(id)).containsEntry("published", true);
+    }
+
+    @Test
+    void onlyTheFailedEntriesOfABatchAreRescheduled() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(insertPending());
+        }
+        given(snsEventPublisher.publishAll(anyList()))
+                .willAnswer(invocation -> Map.of(String.valueOf(ids.get(2)), "Throttled: slow down"));
+
+        assertThat(outboxRelay.drain()).isEqualTo(4);
+
+        for (long id : ids) {
+            assertThat(row(id)).containsEntry("published", id != ids.get(2));
+        }
+        assertThat(row(ids.get(2))).containsEntry("attempts", 1);
+    }
+
+    @Test
+    void parallelRelaysNeverPublishTheSameRowTwice() throws Exception {
+        int events = 40;
+        for (int i = 0; i < events; i++) {
+            insertPending();
+        }
+        List<String> published = new CopyOnWriteArrayList<>();
+        given(snsEventPublisher.publishAll(anyList())).willAnswer(invocation -> {
+            List<OutgoingEvent> batch = invocation.getArgument(0);
+            batch.forEach(event -> published.add(event.id()));
+            Thread.sleep(50); // Segura os locks do lote enquanto os outros relays leem a fila
+            return Map.of();
+        });
+
+        int relays = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(relays);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < relays; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return outboxRelay.drain();
+                }));
+            }
+            start.countDown();
+            int processed = 0;
+            for (Future<Integer> future : futures) {
+                processed += future.get();
+            }
+            // Um relay que pega um lote incompleto (linhas puladas pelos outros) encerra o drain; o resto sai depois
+            for (int relayed = outboxRelay.drain(); relayed > 0; relayed = outboxRelay.drain()) {
+                processed += relayed;
+            }
+            assertThat(processed).isEqualTo(events);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(published).hasSize(events).doesNotHaveDuplicates();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM event_outbox WHERE published_at IS NULL", Long.class)).isZero();
+    }
+
+    @Test
+    void sweepPurgesOnlyEventsPublishedBeforeTheRetention() {
+        given(snsEventPublisher.publishAll(anyList())).willReturn(Map.of());
+        long expired = insertPending();
+        long recent = insertPending();
+        long pending = insertPending();
+        jdbcTemplate.update("UPDATE event_outbox SET published_at = now() - INTERVAL '2 days' WHERE id = ?", expired);
+        jdbcTemplate.update("UPDATE event_outbox SET published_at = now() - INTERVAL '1 hour' WHERE id = ?", recent);
+        // Pendente antigo, mas ainda reagendado para o futuro: nem publicado nem apagado pela varredura
+        jdbcTemplate.update("UPDATE event_outbox SET created_at = now() - INTERVAL '30 days',"
+                + " next_attempt_at = now() + INTERVAL '1 hour' WHERE id = ?", pending);
+
+        outboxRelay.onSchedule();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM event_outbox ORDER BY id", Long.class))
+                .containsExactly(recent, pending);
+    }
+
+    private long insertPending() {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO event_outbox (event_id, event_type, payload) VALUES (?, ?, '{}') RETURNING id",
+                Long.class, UUID.randomUUID(), EVENT_TYPE);
+    }
+
+    private Map<String, Object> row(long id) {
+        return jdbcTemplate.queryForMap(
+                "SELECT attempts, last_error, published_at IS NOT NULL AS published,"
+                        + " EXTRACT(EPOCH FROM next_attempt_at - now()) AS delay_seconds FROM event_outbox WHERE id = ?",
+                id);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.messaging.publishers;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PublishBatch pelo cliente assíncrono, sem rede: um SnsAsyncClient falso registra cada chamada e responde conforme o
+ * teste. Cobre a divisão em pedaços de 10, o reenvio só das entradas que falharam, o erro do remetente que não é
+ * repetido, o limite de tentativas, a falha da chamada inteira e o publish-timeout.
+ */
+class SNSEventPublisherTests {
+
+    private static final String TOPIC_ARN = "arn:aws:sns:us-east-1:000000000000:AutoHubBusinessEventsTopic-test";
+
+    @Test
+    void eventsAreSentInChunksOfTenWithTheirType() {
+        FakeSnsClient client = new FakeSnsClient(FakeSnsClient::acceptAll);
+
+        Map<String, String> failures = publisher(client, 3, Duration.ofSeconds(5)).publishAll(events(23));
+
+        assertThat(failures).isEmpty();
+        assertThat(client.requests).extracting(request -> request.publishBatchRequestEntries().size())
+                .containsExactlyInAnyOrder(10, 10, 3);
+        assertThat(client.requests).allSatisfy(request -> assertThat(request.topicArn()).isEqualTo(TOPIC_ARN));
+        PublishBatchRequestEntry entry = client.requests.get(0).publishBatchRequestEntries().get(0);
+        assertThat(entry.messageAttributes().get("eventType").stringValue()).isEqualTo("VehicleReserved");
+        assertThat(entry.message()).isEqualTo("{\"n\":" + entry.id().substring(1) + "}");
+    }
+
+    @Test
+    void onlyTheFailedEntriesAreSentAgain() {
+        Set<String> failOnce = Set.of("e1", "e4");
+        FakeSnsClient client = new FakeSnsClient(call -> respond(call, id ->
+                call.attempt() == 1 && failOnce.contains(id) ? failure(id, false) : null));
+
+        Map<String, String> failures = publisher(client, 3, Duration.ofSeconds(5)).publishAll(events(6));
+
+        assertThat(failures).isEmpty();
+        assertThat(client.requests).hasSize(2);
+        assertThat(client.requests.get(1).publishBatchRequestEntries())
+                .extracting(PublishBatchRequestEntry::id).containsExactly("e1", "e4");
+    }
+
+    @Test
+    void senderFaultIsReportedWithoutRetry() {
+        FakeSnsClient client = new FakeSnsClient(call -> respond(call, id ->
+                id.equals("e2") ? failure(id, true) : null));
+
+        Map<String, String> failures = publisher(client, 3, Duration.ofSeconds(5)).publishAll(events(3));
+
+        assertThat(client.requests).hasSize(1);
+        assertThat(failures).containsOnlyKeys("e2");
+        assertThat(failures.get("e2")).startsWith("InvalidParameter");
+    }
+
+    @Test
+    void entryStillFailingAfterMaxAttemptsIsReported() {
+        FakeSnsClient client = new FakeSnsClient(call -> respond(call, id ->
+                id.equals("e0") ? failure(id, false) : null));
+
+        Map<String, String> failures = publisher(client, 3, Duration.ofSeconds(5)).publishAll(events(2));
+
+        assertThat(client.requests).hasSize(3);
+        assertThat(client.requests.get(2).publishBatchRequestEntries())
+                .extracting(PublishBatchRequestEntry::id).containsExactly("e0");
+        assertThat(failures).containsOnlyKeys("e0");
+    }
+
+    @Test
+    void failedCallKeepsItsWholeChunkPendingForTheNextAttempt() {
+        FakeSnsClient client = new FakeSnsClient(call -> call.attempt() == 1
+                ? CompletableFuture.failedFuture(SdkClientException.create("Connection reset"))
+                : FakeSnsClient.acceptAll(call));
+
+        Map<String, String> failures = publisher(client, 3, Duration.ofSeconds(5)).publishAll(events(4));
+
+        assertThat(failures).isEmpty();
+        assertThat(client.requests).hasSize(2);
+        assertThat(client.requests.get(1).publishBatchRequestEntries()).hasSize(4);
+    }
+
+    @Test
+    void failedCallOnEveryAttemptReportsTheWholeChunk() {
+        FakeSnsClient client = new FakeSnsClient(call ->
+                CompletableFuture.failedFuture(SdkClientException.create("Connection reset")));
+
+        Map<String, String> failures = publisher(client, 2, Duration.ofSeconds(5)).publishAll(events(3));
+
+        assertThat(client.requests).hasSize(2);
+        assertThat(failures).containsOnlyKeys("e0", "e1", "e2").containsValue("Connection reset");
+    }
+
+    @Test
+    void unansweredCallIsCancelledAtThePublishTimeout() {
+        List<CompletableFuture<PublishBatchResponse>> calls = new CopyOnWriteArrayList<>();
+        FakeSnsClient client = new FakeSnsClient(call -> {
+            CompletableFuture<PublishBatchResponse> never = new CompletableFuture<>();
+            calls.add(never);
+            return never;
+        });
+
+        long start = System.nanoTime();
+        Map<String, String> failures = publisher(client, 3, Duration.ofMillis(200)).publishAll(events(12));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Um único round: o prazo vale para a chamada toda, não para cada tentativa
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+        assertThat(client.requests).hasSize(2);
+        assertThat(calls).allSatisfy(future -> assertThat(future).isCancelled());
+        assertThat(failures).hasSize(12).containsValue("PublishBatch timed out");
+    }
+
+    private static SNSEventPublisher publisher(SnsAsyncClient client, int maxAttempts, Duration timeout) {
+        return new SNSEventPublisher(client, TOPIC_ARN, maxAttempts, timeout);
+    }
+
+    private static List<OutgoingEvent> events(int count) {
+        List<OutgoingEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new OutgoingEvent("e" + i, "VehicleReserved", "{\"n\":" + i + "}"));
+        }
+        return events;
+    }
+
+    // Responde cada entrada com o erro devolvido por failureFor, ou com sucesso quando ele devolve null
+    private static CompletableFuture<PublishBatchResponse> respond(
+            FakeSnsClient.Call call, Function<String, BatchResultErrorEntry> failureFor) {
+        List<PublishBatchResultEntry> successful = new ArrayList<>();
+        List<BatchResultErrorEntry> failed = new ArrayList<>();
+        for (PublishBatchRequestEntry entry : call.request().publishBatchRequestEntries()) {
+            BatchResultErrorEntry failure = failureFor.apply(entry.id());
+            if (failure == null) {
+                successful.add(PublishBatchResultEntry.builder().id(entry.id()).messageId("m-" + entry.id()).build());
+            } else {
+                failed.add(failure);
+            }
+        }
+        return CompletableFuture.completedFuture(
+                PublishBatchResponse.builder().successful(successful).failed(failed).build());
+    }
+
+    private static BatchResultErrorEntry failure(String id, boolean senderFault) {
+        return BatchResultErrorEntry.builder()
+                .id(id)
+                .code(senderFault ? "InvalidParameter" : "InternalError")
+                .message(senderFault ? "Invalid message" : "Try again")
+                .senderFault(senderFault)
+                .build();
+    }
+
+    /**
+     * SnsAsyncClient em memória: só publishBatch é implementado. O número da tentativa é deduzido das chamadas que
+     * já viram a mesma entrada.
+     */
+    private static final class FakeSnsClient implements SnsAsyncClient {
+
+        record Call(PublishBatchRequest request, int attempt) {
+        }
+
+        private final Function<Call, CompletableFuture<PublishBatchResponse>> handler;
+        private final List<PublishBatchRequest> requests = new CopyOnWriteArrayList<>();
+
+        FakeSnsClient(Function<Call, CompletableFuture<PublishBatchResponse>> handler) {
+            this.handler = handler;
+        }
+
+        static CompletableFuture<PublishBatchResponse> acceptAll(Call call) {
+            return respond(call, id -> null);
+        }
+
+        @Override
+        public CompletableFuture<PublishBatchResponse> publishBatch(PublishBatchRequest request) {
+            String firstId = request.publishBatchRequestEntries().get(0).id();
+            int attempt = 1 + (int) requests.stream()
+                    .filter(previous -> previous.publishBatchRequestEntries().stream()
+                            .anyMatch(entry -> entry.id().equals(firstId)))
+                    .count();
+            requests.add(request);
+            return handler.apply(new Call(request, attempt));
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
\ No newline at end of file
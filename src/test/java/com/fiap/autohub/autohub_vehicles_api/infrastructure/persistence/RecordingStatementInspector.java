@@ -0,0 +1,35 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Guarda o SQL que o Hibernate envia a partir da thread que chamou start() (relay do outbox, auditoria e afins rodam em
+ * outras threads e ficam de fora). Registrado pelo Hibernate via nome de classe
+ * (hibernate.session_factory.statement_inspector), por isso o estado é estático.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static volatile Thread recordingThread;
+
+    public static void start() {
+        STATEMENTS.clear();
+        recordingThread = Thread.currentThread();
+    }
+
+    public static List<String> stop() {
+        recordingThread = null;
+        return List.copyOf(STATEMENTS);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (Thread.currentThread() == recordingThread) {
+            STATEMENTS.add(sql.strip());
+        }
+        return sql;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Partições do vehicle_audit_log sem depender da tarefa diária (desligada aqui, como quando a Lambda não roda no
+ * horário): a V19 deixa 12 meses prontos, e o relay cria a partição do mês de uma linha da staging que ainda não tem
+ * uma, em vez de deixá-la esperando indefinidamente.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class AuditLogPartitionsTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("vehicles.audit.partitions.maintenance-enabled", () -> "false");
+    }
+
+    @Autowired
+    private AuditLogRelay auditLogRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsPremakeTheNextTwelveMonths() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= 12; i++) {
+            assertThat(partitionExists(current.plusMonths(i))).as("partition for %s", current.plusMonths(i)).isTrue();
+        }
+    }
+
+    @Test
+    void relayCreatesTheMissingPartitionAndMovesTheRow() {
+        YearMonth uncovered = YearMonth.now(ZoneOffset.UTC).plusMonths(15);
+        YearMonth rescheduled = uncovered.plusMonths(1);
+        assertThat(partitionExists(uncovered)).isFalse();
+        assertThat(partitionExists(rescheduled)).isFalse();
+        UUID ready = UUID.randomUUID();
+        UUID waiting = UUID.randomUUID();
+        stage(ready, uncovered, "now()");
+        // Já reagendada por falhas anteriores: não é movida agora, mas a partição do mês dela também é criada
+        stage(waiting, rescheduled, "now() + interval '1 hour'");
+
+        auditLogRelay.drain();
+
+        assertThat(partitionExists(uncovered)).isTrue();
+        assertThat(partitionExists(rescheduled)).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vehicle_audit_log WHERE vehicle_id = ?", Long.class, ready)).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vehicle_audit_staging WHERE vehicle_id = ?", Long.class, ready)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vehicle_audit_staging WHERE vehicle_id = ?", Long.class, waiting)).isEqualTo(1L);
+    }
+
+    private void stage(UUID vehicleId, YearMonth month, String nextAttemptAt) {
+        OffsetDateTime changedAt = month.atDay(10).atTime(12, 0).atOffset(ZoneOffset.UTC);
+        jdbcTemplate.update("INSERT INTO vehicle_audit_staging (vehicle_id, change_timestamp, operation_type,"
+                        + " vehicle_data_snapshot, vehicle_version, snapshot_type, next_attempt_at)"
+                        + " VALUES (?, ?, 'UPDATE', '{\"status\": \"RESERVED\"}'::jsonb, 1, 'DELTA', " + nextAttemptAt + ")",
+                vehicleId, changedAt);
+    }
+
+    private boolean partitionExists(YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                AuditLogPartitions.partitionName(month));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Auditoria em duas etapas: a linha entra na vehicle_audit_staging na transação da escrita (some junto num rollback,
+ * e um lote inteiro vai na mesma transação) e o AuditLogRelay a move para o vehicle_audit_log. Uma linha que o log
+ * recusa é reagendada com o erro, sem segurar as demais, e passa assim que o problema some; backlog e latência dos
+ * lotes aparecem em stats().
+ * <p>
+ * flush-interval e relay-interval longos deixam o relay parado: aqui ele só roda quando o teste chama drain().
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class AuditLogStagingTests {
+
+    private static final String OWNER_ID = "owner-audit-staging";
+    private static final String POISON_CONSTRAINT = "test_reject_poison_audit";
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("vehicles.audit.flush-interval", () -> "1h");
+        registry.add("vehicles.audit.relay-interval", () -> "1h");
+    }
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private AuditLogRelay auditLogRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void dropPoisonConstraint() {
+        jdbcTemplate.execute("ALTER TABLE vehicle_audit_log DROP CONSTRAINT IF EXISTS " + POISON_CONSTRAINT);
+    }
+
+    @Test
+    void auditIsStagedOnlyWhenTheWriteCommits() {
+        UUID rolledBack = transactionTemplate.execute(status -> {
+            Vehicle vehicle = create(OWNER_ID);
+            status.setRollbackOnly();
+            return vehicle.id();
+        });
+        Vehicle committed = create(OWNER_ID);
+
+        assertThat(stagedRows(rolledBack)).isZero();
+        assertThat(stagedRows(committed.id())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForMap(
+                "SELECT operation_type, snapshot_type, vehicle_version, attempts FROM vehicle_audit_staging"
+                        + " WHERE vehicle_id = ?", committed.id()))
+                .containsEntry("operation_type", "CREATE")
+                .containsEntry("snapshot_type", AuditSnapshots.FULL)
+                .containsEntry("vehicle_version", committed.version())
+                .containsEntry("attempts", 0);
+    }
+
+    @Test
+    void batchIsStagedByASingleTransaction() {
+        List<CreateVehicleCommand> commands = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            commands.add(command());
+        }
+        String owner = "owner-audit-batch-" + UUID.randomUUID();
+
+        vehicleService.createVehicles(commands, owner);
+
+        // Todas as linhas da staging do lote foram gravadas pela mesma transação (mesmo xmin)
+        Map<String, Object> staged = jdbcTemplate.queryForMap(
+                "SELECT count(*) AS staged_rows, count(DISTINCT xmin::text) AS transactions FROM vehicle_audit_staging"
+                        + " WHERE vehicle_id IN (SELECT id FROM vehicles WHERE owner_id = ?)", owner);
+        assertThat(staged).containsEntry("staged_rows", 10L).containsEntry("transactions", 1L);
+    }
+
+    @Test
+    void rejectedRowIsRescheduledWithoutHoldingBackTheOthers() {
+        String poisonOwner = "poison-" + UUID.randomUUID();
+        jdbcTemplate.execute("ALTER TABLE vehicle_audit_log ADD CONSTRAINT " + POISON_CONSTRAINT
+                + " CHECK (changed_by_user_id NOT LIKE 'poison-%')");
+        Vehicle poison = create(poisonOwner);
+        Vehicle healthy = create(OWNER_ID);
+
+        auditLogRelay.drain();
+
+        assertThat(loggedRows(healthy.id())).isEqualTo(1);
+        assertThat(loggedRows(poison.id())).isZero();
+        Map<String, Object> rescheduled = jdbcTemplate.queryForMap(
+                "SELECT attempts, last_error, next_attempt_at > now() AS backing_off FROM vehicle_audit_staging"
+                        + " WHERE vehicle_id = ?", poison.id());
+        assertThat(rescheduled).containsEntry("attempts", 1).containsEntry("backing_off", true);
+        assertThat((String) rescheduled.get("last_error")).contains(POISON_CONSTRAINT);
+        AuditWriterStats stats = auditLogRelay.stats();
+        assertThat(stats.backlog()).isGreaterThanOrEqualTo(1);
+        assertThat(stats.retrying()).isGreaterThanOrEqualTo(1);
+        assertThat(stats.failedFlushes()).isGreaterThanOrEqualTo(1);
+
+        // Resolvido o problema, a linha passa na próxima tentativa: nada se perdeu
+        dropPoisonConstraint();
+        jdbcTemplate.update("UPDATE vehicle_audit_staging SET next_attempt_at = now() WHERE vehicle_id = ?", poison.id());
+        auditLogRelay.drain();
+
+        assertThat(stagedRows(poison.id())).isZero();
+        assertThat(loggedRows(poison.id())).isEqualTo(1);
+    }
+
+    @Test
+    void drainEmptiesTheStagingAndReportsFlushLatency() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(create(OWNER_ID).id());
+        }
+        long writtenBefore = auditLogRelay.stats().written();
+
+        auditLogRelay.drain();
+
+        for (UUID id : ids) {
+            assertThat(stagedRows(id)).isZero();
+            assertThat(loggedRows(id)).isEqualTo(1);
+        }
+        AuditWriterStats stats = auditLogRelay.stats();
+        assertThat(stats.written() - writtenBefore).isGreaterThanOrEqualTo(ids.size());
+        assertThat(stats.flushes()).isPositive();
+        assertThat(stats.avgFlushMillis()).isGreaterThanOrEqualTo(0);
+        assertThat(stats.maxFlushMillis()).isGreaterThanOrEqualTo(stats.lastFlushMillis());
+    }
+
+    private Vehicle create(String owner) {
+        return vehicleService.createVehicle(command(), owner);
+    }
+
+    private static CreateVehicleCommand command() {
+        return new CreateVehicleCommand("Peugeot", "208", 2023, "Vermelho", new BigDecimal("89000.00"), null);
+    }
+
+    private long stagedRows(UUID vehicleId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vehicle_audit_staging WHERE vehicle_id = ?", Long.class, vehicleId);
+    }
+
+    private long loggedRows(UUID vehicleId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vehicle_audit_log WHERE vehicle_id = ?", Long.class, vehicleId);
+    }
+}
\ No newline at end of file
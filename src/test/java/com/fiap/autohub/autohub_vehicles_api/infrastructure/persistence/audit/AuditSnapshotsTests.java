@@ -0,0 +1,176 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ida e volta dos snapshots: grava uma sequência de versões como o AuditLogWriter (FULL a cada FULL_EVERY versões,
+ * DELTA nas demais) e reconstrói cada versão como o PostgresVehicleAuditRepositoryAdapter (último FULL até ela e os
+ * DELTAs seguintes). Toda versão reconstruída tem de ser igual ao snapshot completo original.
+ */
+class AuditSnapshotsTests {
+
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+    private static final int FULL_EVERY = 4;
+    private static final String[] STATUSES = {"AVAILABLE", "RESERVED", "SOLD", "DELETED"};
+
+    @Test
+    void diffKeepsOnlyChangedFieldsAndMarksRemovedOnesAsNull() {
+        ObjectNode before = vehicle(0);
+        before.put("description", "Único dono");
+        ObjectNode after = before.deepCopy();
+        after.put("status", "RESERVED");
+        after.put("version", 1);
+        after.remove("description");
+
+        ObjectNode delta = AuditSnapshots.diff(before, after);
+
+        assertThat(delta.size()).isEqualTo(3);
+        assertThat(delta.get("status").asText()).isEqualTo("RESERVED");
+        assertThat(delta.get("version").asLong()).isEqualTo(1);
+        assertThat(delta.get("description").isNull()).isTrue();
+    }
+
+    @Test
+    void applyRemovesFieldsThatBecameNull() {
+        ObjectNode state = vehicle(0);
+        state.put("description", "Único dono");
+        ObjectNode delta = JSON.objectNode();
+        delta.putNull("description");
+        delta.put("price", 41000.5);
+
+        AuditSnapshots.apply(state, delta);
+
+        assertThat(state.has("description")).isFalse();
+        assertThat(state.get("price").asDouble()).isEqualTo(41000.5);
+    }
+
+    @Test
+    void everyVersionIsRebuiltFromLatestFullPlusDeltas() {
+        List<ObjectNode> versions = randomHistory(new Random(42), 50);
+        List<ObjectNode> stored = store(versions);
+
+        for (int version = 0; version < versions.size(); version++) {
+            assertThat(rebuild(stored, version))
+                    .as("version %d", version)
+                    .isEqualTo(versions.get(version));
+        }
+    }
+
+    @Test
+    void deltasAreSmallerThanFullSnapshotsOnStatusOnlyChanges() {
+        ObjectNode before = vehicle(0);
+        before.put("description", "x".repeat(2000));
+        ObjectNode after = before.deepCopy();
+        after.put("status", "RESERVED");
+        after.put("version", 1);
+
+        assertThat(AuditSnapshots.diff(before, after).toString().length())
+                .isLessThan(after.toString().length() / 10);
+    }
+
+    @Test
+    void writeInTheSameMonthAsThePreviousOneStaysDelta() {
+        assertThat(AuditSnapshots.mayStartNewPartition(
+                OffsetDateTime.parse("2025-05-10T10:00:00Z"), OffsetDateTime.parse("2025-05-20T10:00:00Z"))).isFalse();
+    }
+
+    @Test
+    void firstWriteOfTheMonthIsFull() {
+        assertThat(AuditSnapshots.mayStartNewPartition(
+                OffsetDateTime.parse("2025-04-28T10:00:00Z"), OffsetDateTime.parse("2025-05-02T10:00:00Z"))).isTrue();
+        assertThat(AuditSnapshots.mayStartNewPartition(null, OffsetDateTime.parse("2025-05-02T10:00:00Z"))).isTrue();
+    }
+
+    @Test
+    void writesNearTheMonthBoundaryAreFullWithinTheClockMargin() {
+        // A linha anterior pode ter caído em abril pelo relógio do banco
+        assertThat(AuditSnapshots.mayStartNewPartition(
+                OffsetDateTime.parse("2025-05-01T00:30:00Z"), OffsetDateTime.parse("2025-05-20T10:00:00Z"))).isTrue();
+        // E a atual, em junho
+        assertThat(AuditSnapshots.mayStartNewPartition(
+                OffsetDateTime.parse("2025-05-10T10:00:00Z"), OffsetDateTime.parse("2025-05-31T23:30:00Z"))).isTrue();
+    }
+
+    @Test
+    void monthsAreCountedInUtcLikeThePartitionBounds() {
+        // 30/04 23:00 em São Paulo já é maio em UTC (02:00)
+        assertThat(AuditSnapshots.mayStartNewPartition(
+                OffsetDateTime.parse("2025-04-30T23:00:00-03:00"), OffsetDateTime.parse("2025-05-20T10:00:00Z"))).isFalse();
+    }
+
+    // Mesma regra do AuditLogWriter: a criação e toda versão múltipla de FULL_EVERY são completas
+    private static List<ObjectNode> store(List<ObjectNode> versions) {
+        List<ObjectNode> stored = new ArrayList<>(versions.size());
+        for (int version = 0; version < versions.size(); version++) {
+            boolean full = version % FULL_EVERY == 0;
+            stored.add(full
+                    ? versions.get(version).deepCopy()
+                    : AuditSnapshots.diff(versions.get(version - 1), versions.get(version)));
+        }
+        return stored;
+    }
+
+    private static ObjectNode rebuild(List<ObjectNode> stored, int version) {
+        int full = version - version % FULL_EVERY;
+        ObjectNode state = stored.get(full).deepCopy();
+        for (int delta = full + 1; delta <= version; delta++) {
+            AuditSnapshots.apply(state, stored.get(delta));
+        }
+        return state;
+    }
+
+    // Cada versão muda de um a três campos ao acaso; a descrição às vezes some (null omitido) e volta
+    private static List<ObjectNode> randomHistory(Random random, int count) {
+        List<ObjectNode> versions = new ArrayList<>(count);
+        ObjectNode current = vehicle(0);
+        versions.add(current);
+        for (int version = 1; version < count; version++) {
+            ObjectNode next = current.deepCopy();
+            next.put("version", version);
+            next.put("updated_at", "2025-05-01T10:00:" + String.format("%02d", version % 60) + "Z");
+            int changes = 1 + random.nextInt(3);
+            for (int i = 0; i < changes; i++) {
+                switch (random.nextInt(4)) {
+                    case 0 -> next.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+                    case 1 -> next.put("price", 30000 + random.nextInt(20000));
+                    case 2 -> next.put("color", random.nextBoolean() ? "Prata" : "Preto");
+                    default -> {
+                        if (next.has("description")) {
+                            next.remove("description");
+                        } else {
+                            next.put("description", "Revisão " + version);
+                        }
+                    }
+                }
+            }
+            versions.add(next);
+            current = next;
+        }
+        return versions;
+    }
+
+    private static ObjectNode vehicle(long version) {
+        ObjectNode vehicle = JSON.objectNode();
+        vehicle.put("id", "5f0c3b8e-2a41-4c6e-9d0b-7a1f2e3d4c5b");
+        vehicle.put("make", "Fiat");
+        vehicle.put("model", "Argo");
+        vehicle.put("year", 2021);
+        vehicle.put("color", "Branco");
+        vehicle.put("price", 45000);
+        vehicle.put("status", "AVAILABLE");
+        vehicle.put("owner_id", "owner-audit");
+        vehicle.put("version", version);
+        vehicle.put("created_at", "2025-05-01T10:00:00Z");
+        vehicle.put("updated_at", "2025-05-01T10:00:00Z");
+        return vehicle;
+    }
+}
\ No newline at end of file
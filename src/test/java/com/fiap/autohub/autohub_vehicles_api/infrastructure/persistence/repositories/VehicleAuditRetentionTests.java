@@ -0,0 +1,145 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleAuditEntry;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleAuditRepositoryPort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Retenção por partição: com a primeira linha de cada mês gravada como FULL (regra do AuditLogWriter), apagar a
+ * partição de um mês antigo não quebra a reconstrução dos meses seguintes. As linhas são inseridas direto no
+ * vehicle_audit_log, em dois meses futuros cujas partições a V9 já cria, e a partição do primeiro é removida como a
+ * AuditLogPartitionMaintenance faria.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class VehicleAuditRetentionTests {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("vehicles.audit.partitions.maintenance-enabled", () -> "false");
+    }
+
+    @Autowired
+    private VehicleAuditRepositoryPort vehicleAuditRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void monthsAfterADroppedPartitionAreStillRebuilt() {
+        YearMonth expiring = YearMonth.now(ZoneOffset.UTC).plusMonths(1);
+        YearMonth kept = expiring.plusMonths(1);
+        UUID vehicleId = UUID.randomUUID();
+        OffsetDateTime createdAt = at(expiring, 5);
+
+        ObjectNode created = snapshot(vehicleId, 0, "AVAILABLE", "45000.00", createdAt, createdAt);
+        insert(vehicleId, createdAt, "CREATE", 0, created, "FULL");
+        ObjectNode repriced = delta(1, at(expiring, 10));
+        repriced.put("price", new BigDecimal("43000.00"));
+        insert(vehicleId, at(expiring, 10), "UPDATE", 1, repriced, "DELTA");
+        // Primeira linha do mês seguinte: FULL, mesmo fora do múltiplo de full-snapshot-every
+        insert(vehicleId, at(kept, 3), "UPDATE", 2,
+                snapshot(vehicleId, 2, "RESERVED", "43000.00", createdAt, at(kept, 3)), "FULL");
+        ObjectNode sold = delta(3, at(kept, 4));
+        sold.put("status", "SOLD");
+        insert(vehicleId, at(kept, 4), "UPDATE", 3, sold, "DELTA");
+
+        jdbcTemplate.execute("DROP TABLE vehicle_audit_log_p" + expiring.format(PARTITION_SUFFIX));
+
+        Optional<Vehicle> reserved = vehicleAuditRepository.findVehicleAsOf(vehicleId, createdAt, at(kept, 3).plusHours(1));
+        assertThat(reserved).hasValueSatisfying(vehicle -> {
+            assertThat(vehicle.version()).isEqualTo(2L);
+            assertThat(vehicle.status()).isEqualTo(VehicleStatus.RESERVED);
+            assertThat(vehicle.price()).isEqualByComparingTo("43000.00");
+        });
+        Optional<Vehicle> current = vehicleAuditRepository.findVehicleAsOf(vehicleId, createdAt, at(kept, 20));
+        assertThat(current).hasValueSatisfying(vehicle -> {
+            assertThat(vehicle.version()).isEqualTo(3L);
+            assertThat(vehicle.status()).isEqualTo(VehicleStatus.SOLD);
+            assertThat(vehicle.updatedAt()).isAtSameInstantAs(at(kept, 4));
+        });
+        assertThat(vehicleAuditRepository.findHistoryBefore(vehicleId, createdAt, null, null, 10).getContent())
+                .extracting(VehicleAuditEntry::version)
+                .containsExactly(3L, 2L);
+        // Antes da primeira linha que sobrou não há o que reconstruir
+        assertThat(vehicleAuditRepository.findVehicleAsOf(vehicleId, createdAt, at(expiring, 20))).isEmpty();
+    }
+
+    private static OffsetDateTime at(YearMonth month, int day) {
+        return month.atDay(day).atTime(10, 0).atOffset(ZoneOffset.UTC);
+    }
+
+    private ObjectNode snapshot(UUID id, long version, String status, String price,
+                                OffsetDateTime createdAt, OffsetDateTime updatedAt) {
+        ObjectNode vehicle = objectMapper.createObjectNode();
+        vehicle.put("id", id.toString());
+        vehicle.put("make", "Fiat");
+        vehicle.put("model", "Argo");
+        vehicle.put("year", 2021);
+        vehicle.put("color", "Branco");
+        vehicle.put("price", new BigDecimal(price));
+        vehicle.put("status", status);
+        vehicle.put("owner_id", "owner-audit-retention");
+        vehicle.put("version", version);
+        vehicle.put("created_at", createdAt.toString());
+        vehicle.put("updated_at", updatedAt.toString());
+        return vehicle;
+    }
+
+    private ObjectNode delta(long version, OffsetDateTime updatedAt) {
+        ObjectNode delta = objectMapper.createObjectNode();
+        delta.put("version", version);
+        delta.put("updated_at", updatedAt.toString());
+        return delta;
+    }
+
+    private void insert(UUID vehicleId, OffsetDateTime changedAt, String operation, long version,
+                        ObjectNode snapshot, String snapshotType) {
+        jdbcTemplate.update("INSERT INTO vehicle_audit_log (vehicle_id, change_timestamp, operation_type,"
+                        + " changed_by_user_id, vehicle_data_snapshot, vehicle_version, snapshot_type)"
+                        + " VALUES (?, ?, ?, ?, ?::jsonb, ?, ?)",
+                vehicleId, changedAt, operation, "owner-audit-retention", snapshot.toString(), version, snapshotType);
+    }
+}
\ No newline at end of file
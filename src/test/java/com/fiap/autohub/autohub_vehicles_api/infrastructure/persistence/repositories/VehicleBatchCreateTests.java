@@ -0,0 +1,106 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit.AuditLogRelay;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cadastro em lote: todos os veículos são gravados na ordem recebida, cada um com sua linha de auditoria CREATE, e as
+ * linhas movidas para o vehicle_audit_log recebem ids consecutivos da sequence (incremento 1, V18).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class VehicleBatchCreateTests {
+
+    private static final String OWNER_ID = "owner-batch-create";
+    private static final int BATCH_SIZE = 12;
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private AuditLogRelay auditLogRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchIsStoredInOrderWithOneAuditRowPerVehicle() throws InterruptedException {
+        List<CreateVehicleCommand> commands = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            commands.add(new CreateVehicleCommand("Chevrolet", "Onix " + i, 2020, "Prata",
+                    new BigDecimal("60000.00").add(BigDecimal.valueOf(i)), null));
+        }
+
+        List<Vehicle> created = vehicleService.createVehicles(commands, OWNER_ID);
+
+        assertThat(created).extracting(Vehicle::model)
+                .containsExactlyElementsOf(commands.stream().map(CreateVehicleCommand::model).toList());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vehicles WHERE owner_id = ?", Long.class, OWNER_ID)).isEqualTo(BATCH_SIZE);
+
+        awaitAuditRowsMoved();
+        List<Long> auditIds = jdbcTemplate.queryForList(
+                "SELECT audit_id FROM vehicle_audit_log WHERE operation_type = 'CREATE'"
+                        + " AND vehicle_id IN (SELECT id FROM vehicles WHERE owner_id = ?) ORDER BY audit_id",
+                Long.class, OWNER_ID);
+
+        // Um nextval por linha, de 1 em 1: nenhum bloco de ids queimado entre elas
+        assertThat(auditIds).hasSize(BATCH_SIZE);
+        assertThat(auditIds.get(BATCH_SIZE - 1) - auditIds.get(0)).isEqualTo(BATCH_SIZE - 1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = 'vehicle_audit_log_audit_id_seq'",
+                Long.class)).isEqualTo(1L);
+    }
+
+    // O relay também drena sozinho após o commit; aqui ele é chamado até a staging não ter mais linhas do lote
+    private void awaitAuditRowsMoved() throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            auditLogRelay.drain();
+            Long pending = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM vehicle_audit_staging"
+                            + " WHERE vehicle_id IN (SELECT id FROM vehicles WHERE owner_id = ?)",
+                    Long.class, OWNER_ID);
+            if (pending == 0) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Audit rows still staged after waiting for the relay");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,198 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.UpdateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleFacets;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O cubo vehicle_facet_counts acompanha os veículos AVAILABLE a cada escrita do VehicleServiceImpl: depois de criar,
+ * atualizar, reservar, desfazer a reserva, vender e excluir, as células batem com um GROUP BY feito direto na tabela
+ * vehicles. Cada teste usa uma marca própria, para não enxergar os veículos dos outros.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class VehicleFacetCountTests {
+
+    private static final String OWNER_ID = "owner-facet-counts";
+    private static final int ROUNDS = 20;
+
+    // Mesmas faixas de VehicleFacets.priceBucket, calculadas pelo banco sobre a tabela de veículos
+    private static final String ACTUAL_CELLS_SQL = """
+            SELECT lower(make) AS make, lower(color) AS color, year,
+                   LEAST(GREATEST(floor(price / 10000), 0), 20)::int AS price_bucket, count(*) AS available_count
+            FROM vehicles
+            WHERE status = 'AVAILABLE' AND lower(make) = ?
+            GROUP BY 1, 2, 3, 4
+            """;
+    private static final String CUBE_CELLS_SQL = """
+            SELECT make, color, year, price_bucket, available_count
+            FROM vehicle_facet_counts
+            WHERE make = ? AND available_count <> 0
+            """;
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cubeFollowsEveryWriteToAvailableInventory() {
+        String make = uniqueMake();
+        Vehicle red = create(make, "Vermelho", 2020, "45000.00");
+        Vehicle blue = create(make, "Azul", 2018, "32000.00");
+        vehicleService.createVehicles(List.of(
+                command(make, "Azul", 2018, "33000.00"),
+                command(make, "Preto", 2022, "210000.00")), OWNER_ID);
+        assertCubeMatchesVehicles(make);
+
+        // Muda a célula (cor e faixa de preço) e depois só a descrição, que não mexe no cubo
+        Vehicle repainted = vehicleService.updateVehicle(red.id(), new UpdateVehicleCommand(
+                null, null, null, "Azul", new BigDecimal("52000.00"), null, red.version()), OWNER_ID);
+        vehicleService.updateVehicle(red.id(), new UpdateVehicleCommand(
+                null, null, null, null, null, "Revisado", repainted.version()), OWNER_ID);
+        assertCubeMatchesVehicles(make);
+
+        vehicleService.reserveVehicle(blue.id(), UUID.randomUUID(), blue.price());
+        assertCubeMatchesVehicles(make);
+        vehicleService.unreserveVehicle(blue.id());
+        assertCubeMatchesVehicles(make);
+        vehicleService.reserveVehicle(blue.id(), UUID.randomUUID(), blue.price());
+        vehicleService.markVehicleAsSold(blue.id());
+        assertCubeMatchesVehicles(make);
+
+        vehicleService.deleteVehicleLogically(red.id(), OWNER_ID);
+        assertCubeMatchesVehicles(make);
+
+        VehicleFacets facets = vehicleService.findAvailableFacets(VehicleSearchCriteria.byMake(make));
+        assertThat(facets.makes()).containsExactly(new VehicleFacets.FacetCount(make, 2));
+        assertThat(facets.prices()).extracting(VehicleFacets.FacetCount::value)
+                .containsExactly("30000-40000", "200000+");
+    }
+
+    @Test
+    void facetsAreFilteredByMakeColorAndYear() {
+        String make = uniqueMake();
+        create(make, "Prata", 2015, "40000.00");
+        create(make, "Prata", 2021, "60000.00");
+        create(make, "Branco", 2021, "61000.00");
+
+        VehicleFacets facets = vehicleService.findAvailableFacets(
+                new VehicleSearchCriteria(make.toUpperCase(), null, 2020, null, "PRATA", null, null));
+
+        assertThat(facets.makes()).containsExactly(new VehicleFacets.FacetCount(make, 1));
+        assertThat(facets.colors()).containsExactly(new VehicleFacets.FacetCount("prata", 1));
+        assertThat(facets.years()).containsExactly(new VehicleFacets.FacetCount("2020-2024", 1));
+        assertThat(facets.prices()).containsExactly(new VehicleFacets.FacetCount("60000-70000", 1));
+    }
+
+    @Test
+    void oppositeMovesBetweenTheSameCellsDoNotDeadlock() throws Exception {
+        String make = uniqueMake();
+        Vehicle first = create(make, "Verde", 2019, "41000.00");
+        Vehicle second = create(make, "Cinza", 2019, "41000.00");
+
+        // Cada rodada troca as cores dos dois veículos ao mesmo tempo: um sai de Verde para Cinza e o outro faz o
+        // caminho inverso, cada transação decrementando uma célula e incrementando a outra
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String firstColor = round % 2 == 0 ? "Cinza" : "Verde";
+                String secondColor = round % 2 == 0 ? "Verde" : "Cinza";
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Vehicle> movedFirst = executor.submit(() -> {
+                    start.await();
+                    return repaint(first.id(), firstColor);
+                });
+                Future<Vehicle> movedSecond = executor.submit(() -> {
+                    start.await();
+                    return repaint(second.id(), secondColor);
+                });
+                start.countDown();
+
+                // Um deadlock faria o Postgres abortar uma das duas, e o get() lançaria a exceção dela
+                assertThat(movedFirst.get().color()).isEqualTo(firstColor);
+                assertThat(movedSecond.get().color()).isEqualTo(secondColor);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertCubeMatchesVehicles(make);
+    }
+
+    private Vehicle repaint(UUID id, String color) {
+        long version = jdbcTemplate.queryForObject("SELECT version FROM vehicles WHERE id = ?", Long.class, id);
+        return vehicleService.updateVehicle(id, new UpdateVehicleCommand(
+                null, null, null, color, null, null, version), OWNER_ID);
+    }
+
+    private void assertCubeMatchesVehicles(String make) {
+        List<VehicleFacets.Cell> actual = cells(ACTUAL_CELLS_SQL, make);
+        List<VehicleFacets.Cell> cube = cells(CUBE_CELLS_SQL, make);
+
+        assertThat(cube).containsExactlyInAnyOrderElementsOf(actual);
+        assertThat(vehicleService.findAvailableFacets(VehicleSearchCriteria.byMake(make)))
+                .isEqualTo(VehicleFacets.aggregate(actual));
+    }
+
+    private List<VehicleFacets.Cell> cells(String sql, String make) {
+        return new ArrayList<>(jdbcTemplate.query(sql, (rs, rowNum) -> new VehicleFacets.Cell(
+                rs.getString("make"), rs.getString("color"), rs.getInt("year"),
+                rs.getInt("price_bucket"), rs.getLong("available_count")), make));
+    }
+
+    private Vehicle create(String make, String color, int year, String price) {
+        return vehicleService.createVehicle(command(make, color, year, price), OWNER_ID);
+    }
+
+    private static CreateVehicleCommand command(String make, String color, int year, String price) {
+        return new CreateVehicleCommand(make, "Modelo", year, color, new BigDecimal(price), null);
+    }
+
+    private static String uniqueMake() {
+        return "facet-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleRepositoryPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.RecordingStatementInspector;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Caminho de leitura das listagens e do "meus veículos": as linhas viram Vehicle direto da consulta (construtor na
+ * Criteria), com os mesmos valores que a leitura por entidade, sem deixar entidades no contexto de persistência e sem
+ * selecionar a coluna search_vector. A contagem da página só roda quando a primeira página vem cheia.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class VehicleProjectionReadTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                RecordingStatementInspector.class::getName);
+    }
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private VehicleRepositoryPort vehicleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void stopRecording() {
+        RecordingStatementInspector.stop();
+    }
+
+    @Test
+    void projectedRowsMatchTheEntityRead() {
+        String owner = uniqueOwner();
+        Vehicle vehicle = create(owner, "Toyota", "Corolla com teto solar");
+
+        Vehicle listed = vehicleRepository.findAll(VehicleSearchCriteria.byMake("toyota"), VehicleStatus.AVAILABLE,
+                        PageRequest.of(0, 100, Sort.by("price")))
+                .stream().filter(v -> v.id().equals(vehicle.id())).findFirst().orElseThrow();
+        Vehicle sliced = vehicleRepository.findSlice(VehicleSearchCriteria.byMake("toyota"), VehicleStatus.AVAILABLE,
+                        PageRequest.of(0, 100, Sort.by("price")))
+                .stream().filter(v -> v.id().equals(vehicle.id())).findFirst().orElseThrow();
+        Vehicle owned = vehicleRepository.findByOwnerId(owner).get(0);
+        Vehicle loaded = vehicleRepository.findById(vehicle.id()).orElseThrow();
+
+        for (Vehicle projected : List.of(listed, sliced, owned)) {
+            assertThat(projected).usingRecursiveComparison()
+                    .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                    .withComparatorForType(Comparator.comparing(OffsetDateTime::toInstant), OffsetDateTime.class)
+                    .isEqualTo(loaded);
+        }
+    }
+
+    @Test
+    void listingLeavesNoManagedEntitiesAndSkipsTheSearchVector() {
+        String owner = uniqueOwner();
+        create(owner, "Honda", null);
+        create(owner, "Honda", null);
+
+        List<String> statements = transactionTemplate.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            RecordingStatementInspector.start();
+            vehicleRepository.findAll(VehicleSearchCriteria.byMake("honda"), VehicleStatus.AVAILABLE,
+                    PageRequest.of(0, 10, Sort.by("price")));
+            List<Vehicle> owned = vehicleRepository.findByOwnerId(owner);
+            List<String> recorded = RecordingStatementInspector.stop();
+
+            assertThat(owned).hasSize(2);
+            assertThat(session.getStatistics().getEntityCount()).isZero();
+            // Comparação: a leitura por id hidrata a entidade na mesma sessão
+            vehicleRepository.findById(owned.get(0).id());
+            assertThat(session.getStatistics().getEntityCount()).isEqualTo(1);
+            return recorded;
+        });
+
+        assertThat(statements).hasSize(2)
+                .allMatch(sql -> sql.toLowerCase().startsWith("select"))
+                .noneMatch(sql -> sql.toLowerCase().contains("search_vector"));
+    }
+
+    @Test
+    void countRunsOnlyWhenTheFirstPageIsFull() {
+        String owner = uniqueOwner();
+        String make = "proj-" + owner.substring(owner.length() - 8);
+        for (int i = 0; i < 3; i++) {
+            create(owner, make, null);
+        }
+
+        RecordingStatementInspector.start();
+        Page<Vehicle> partial = vehicleRepository.findAll(VehicleSearchCriteria.byMake(make), VehicleStatus.AVAILABLE,
+                PageRequest.of(0, 5, Sort.by("price")));
+        List<String> partialStatements = RecordingStatementInspector.stop();
+
+        RecordingStatementInspector.start();
+        Page<Vehicle> full = vehicleRepository.findAll(VehicleSearchCriteria.byMake(make), VehicleStatus.AVAILABLE,
+                PageRequest.of(0, 2, Sort.by("price")));
+        List<String> fullStatements = RecordingStatementInspector.stop();
+
+        assertThat(partial.getTotalElements()).isEqualTo(3);
+        assertThat(partialStatements).hasSize(1);
+        assertThat(full.getTotalElements()).isEqualTo(3);
+        assertThat(fullStatements).hasSize(2);
+        assertThat(fullStatements.get(1).toLowerCase()).contains("count(");
+    }
+
+    @Test
+    void byOwnerListsEveryStatusOfThatOwnerOnly() {
+        String owner = uniqueOwner();
+        Vehicle available = create(owner, "Nissan", null);
+        Vehicle reserved = create(owner, "Nissan", null);
+        vehicleService.reserveVehicle(reserved.id(), UUID.randomUUID(), reserved.price());
+        create(uniqueOwner(), "Nissan", null);
+
+        assertThat(vehicleService.findVehiclesByOwner(owner))
+                .extracting(Vehicle::id, Vehicle::status)
+                .containsExactlyInAnyOrder(
+                        tuple(available.id(), VehicleStatus.AVAILABLE),
+                        tuple(reserved.id(), VehicleStatus.RESERVED));
+    }
+
+    private Vehicle create(String owner, String make, String description) {
+        return vehicleService.createVehicle(new CreateVehicleCommand(
+                make, "Modelo", 2022, "Preto", new BigDecimal("99000.50"), description), owner);
+    }
+
+    private static String uniqueOwner() {
+        return "owner-projection-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.RecordingStatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Modo de listagem sem COUNT: o slice busca um item a mais para calcular has_next e não manda SELECT count(*) ao
+ * banco; o total aproximado roda o COUNT uma vez por filtro e, dentro do TTL, é respondido pelo cache mesmo que o
+ * estoque mude. Cada teste usa uma marca própria.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class VehicleSliceListingTests {
+
+    private static final String OWNER_ID = "owner-slice-listing";
+    private static final int VEHICLES = 5;
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                RecordingStatementInspector.class::getName);
+        registry.add("vehicles.cache.counts.ttl", () -> "1h");
+    }
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @AfterEach
+    void stopRecording() {
+        RecordingStatementInspector.stop();
+    }
+
+    @Test
+    void sliceComputesHasNextWithoutCounting() {
+        String make = createVehicles();
+        VehicleSearchCriteria criteria = VehicleSearchCriteria.byMake(make);
+
+        RecordingStatementInspector.start();
+        Slice<Vehicle> first = vehicleService.findAvailableVehicleSlice(criteria, PageRequest.of(0, 2, Sort.by("price")));
+        Slice<Vehicle> middle = vehicleService.findAvailableVehicleSlice(criteria, PageRequest.of(1, 2, Sort.by("price")));
+        Slice<Vehicle> last = vehicleService.findAvailableVehicleSlice(criteria, PageRequest.of(2, 2, Sort.by("price")));
+        List<String> statements = RecordingStatementInspector.stop();
+
+        assertThat(first.getContent()).extracting(Vehicle::price)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("50000.00"), new BigDecimal("51000.00"));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(middle.hasNext()).isTrue();
+        assertThat(last.getContent()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+        // Uma consulta por página, nenhuma delas de contagem
+        assertThat(statements).hasSize(3)
+                .noneMatch(sql -> sql.toLowerCase().contains("count("));
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoNext() {
+        String make = createVehicles();
+
+        Slice<Vehicle> slice = vehicleService.findAvailableVehicleSlice(
+                VehicleSearchCriteria.byMake(make), PageRequest.of(0, VEHICLES, Sort.by("price")));
+
+        assertThat(slice.getContent()).hasSize(VEHICLES);
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    void approximateTotalIsCountedOncePerFilterWithinTtl() {
+        String make = createVehicles();
+        VehicleSearchCriteria criteria = VehicleSearchCriteria.byMake(make);
+
+        assertThat(vehicleService.countAvailableVehicles(criteria)).isEqualTo(VEHICLES);
+        create(make, "99000.00");
+
+        RecordingStatementInspector.start();
+        long cached = vehicleService.countAvailableVehicles(criteria);
+        List<String> statements = RecordingStatementInspector.stop();
+
+        // Dentro do TTL o total é o da última contagem, sem ir ao banco
+        assertThat(cached).isEqualTo(VEHICLES);
+        assertThat(statements).isEmpty();
+        // A mesma marca com outra grafia cai na mesma chave; outro status ou outro filtro tem a própria contagem
+        assertThat(vehicleService.countAvailableVehicles(VehicleSearchCriteria.byMake(" " + make.toUpperCase())))
+                .isEqualTo(VEHICLES);
+        assertThat(vehicleService.countSoldVehicles(criteria)).isZero();
+        assertThat(vehicleService.countAvailableVehicles(
+                new VehicleSearchCriteria(make, null, null, null, null, new BigDecimal("90000.00"), null))).isEqualTo(1);
+    }
+
+    // Preços de 50000 a 54000, um por veículo
+    private String createVehicles() {
+        String make = "slice-" + UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < VEHICLES; i++) {
+            create(make, String.valueOf(50000 + i * 1000) + ".00");
+        }
+        return make;
+    }
+
+    private void create(String make, String price) {
+        vehicleService.createVehicle(new CreateVehicleCommand(
+                make, "Modelo", 2021, "Prata", new BigDecimal(price), null), OWNER_ID);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.VehicleNotFoundException;
+import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.VehicleUpdateForbiddenException;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Transições de status concorrentes a partir do mesmo status: o UPDATE condicional do transitionStatus deixa passar
+ * exatamente uma, e as demais recebem VehicleUpdateForbiddenException (veículo existe, mas não está mais no status de
+ * origem), sem escrever nada. Estado e versão são lidos direto da tabela, sem passar pelo cache.
+ * <p>
+ * full-snapshot-every = 2 faz a reserva (versão 1) gravar um DELTA e a venda (versão 2) um FULL, para conferir as datas
+ * da auditoria nos dois formatos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class VehicleStatusTransitionTests {
+
+    private static final String OWNER_ID = "owner-status-transition";
+    private static final int CONTENDERS = 8;
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("vehicles.audit.full-snapshot-every", () -> "2");
+    }
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void concurrentReservationsHaveExactlyOneWinner() throws Exception {
+        Vehicle created = createVehicle();
+
+        List<Callable<Vehicle>> reservations = new ArrayList<>(CONTENDERS);
+        for (int i = 0; i < CONTENDERS; i++) {
+            reservations.add(() -> vehicleService.reserveVehicle(created.id(), UUID.randomUUID(), new BigDecimal("45000.00")));
+        }
+        List<Throwable> failures = new ArrayList<>();
+        List<Vehicle> winners = runConcurrently(reservations, failures);
+
+        assertThat(winners).hasSize(1);
+        assertThat(winners.get(0).version()).isEqualTo(created.version() + 1);
+        assertThat(failures).hasSize(CONTENDERS - 1)
+                .allMatch(VehicleUpdateForbiddenException.class::isInstance);
+        assertThat(currentRow(created.id()))
+                .containsEntry("status", "RESERVED")
+                .containsEntry("version", created.version() + 1);
+        // Só a transação vencedora gravou o VehicleReserved no outbox
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM event_outbox WHERE aggregate_id = ? AND event_type = 'VehicleReserved'",
+                Long.class, created.id())).isEqualTo(1L);
+    }
+
+    @Test
+    void concurrentSalesOfTheSameReservationHaveExactlyOneWinner() throws Exception {
+        Vehicle created = createVehicle();
+        Vehicle reserved = vehicleService.reserveVehicle(created.id(), UUID.randomUUID(), new BigDecimal("45000.00"));
+
+        List<Callable<Vehicle>> sales = new ArrayList<>(CONTENDERS);
+        for (int i = 0; i < CONTENDERS; i++) {
+            sales.add(() -> vehicleService.markVehicleAsSold(reserved.id()));
+        }
+        List<Throwable> failures = new ArrayList<>();
+        List<Vehicle> winners = runConcurrently(sales, failures);
+
+        assertThat(winners).hasSize(1);
+        assertThat(failures).hasSize(CONTENDERS - 1)
+                .allMatch(VehicleUpdateForbiddenException.class::isInstance);
+        assertThat(currentRow(reserved.id()))
+                .containsEntry("status", "SOLD")
+                .containsEntry("version", reserved.version() + 1);
+    }
+
+    @Test
+    void transitionAuditRowsCarryTheRowTimestamps() throws Exception {
+        Vehicle created = createVehicle();
+        Vehicle reserved = vehicleService.reserveVehicle(created.id(), UUID.randomUUID(), new BigDecimal("45000.00"));
+        Vehicle sold = vehicleService.markVehicleAsSold(created.id());
+
+        // DELTA da reserva: só o que mudou, incluindo o updated_at novo (o anterior era o da criação)
+        Map<String, Object> reservation = auditRow(created.id(), reserved.version());
+        assertThat(reservation).containsEntry("snapshot_type", "DELTA");
+        JsonNode delta = objectMapper.readTree((String) reservation.get("snapshot"));
+        assertThat(delta.path("status").asText()).isEqualTo("RESERVED");
+        assertThat(OffsetDateTime.parse(delta.path("updated_at").asText())).isAtSameInstantAs(reserved.updatedAt());
+        assertThat(delta.has("created_at")).isFalse();
+
+        // FULL da venda: o veículo inteiro, com as datas gravadas na linha
+        Map<String, Object> sale = auditRow(created.id(), sold.version());
+        assertThat(sale).containsEntry("snapshot_type", "FULL");
+        JsonNode full = objectMapper.readTree((String) sale.get("snapshot"));
+        assertThat(full.path("status").asText()).isEqualTo("SOLD");
+        assertThat(OffsetDateTime.parse(full.path("updated_at").asText())).isAtSameInstantAs(sold.updatedAt());
+        OffsetDateTime createdAt = jdbcTemplate.queryForObject(
+                "SELECT created_at FROM vehicles WHERE id = ?", OffsetDateTime.class, created.id());
+        assertThat(OffsetDateTime.parse(full.path("created_at").asText())).isAtSameInstantAs(createdAt);
+        assertThat(sold.updatedAt()).isAfterOrEqualTo(reserved.updatedAt());
+    }
+
+    @Test
+    void transitionOfUnknownVehicleIsNotFound() {
+        UUID unknownId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> vehicleService.reserveVehicle(unknownId, UUID.randomUUID(), new BigDecimal("45000.00")))
+                .isInstanceOf(VehicleNotFoundException.class);
+        assertThatThrownBy(() -> vehicleService.markVehicleAsSold(unknownId))
+                .isInstanceOf(VehicleNotFoundException.class);
+    }
+
+    private Vehicle createVehicle() {
+        return vehicleService.createVehicle(new CreateVehicleCommand(
+                "Fiat", "Argo", 2021, "Branco", new BigDecimal("45000.00"), null), OWNER_ID);
+    }
+
+    private Map<String, Object> currentRow(UUID id) {
+        return jdbcTemplate.queryForMap("SELECT status, version FROM vehicles WHERE id = ?", id);
+    }
+
+    // A linha está na staging ou já no vehicle_audit_log (o relay a move logo após o commit); um único SELECT a acha
+    // em exatamente um dos dois
+    private Map<String, Object> auditRow(UUID vehicleId, long version) {
+        return jdbcTemplate.queryForMap(
+                "SELECT vehicle_data_snapshot::text AS snapshot, snapshot_type FROM vehicle_audit_staging"
+                        + " WHERE vehicle_id = ? AND vehicle_version = ?"
+                        + " UNION ALL SELECT vehicle_data_snapshot::text, snapshot_type FROM vehicle_audit_log"
+                        + " WHERE vehicle_id = ? AND vehicle_version = ?",
+                vehicleId, version, vehicleId, version);
+    }
+
+    // Libera todas as chamadas juntas; devolve os resultados de quem venceu e acumula as exceções de quem perdeu
+    private static <T> List<T> runConcurrently(List<Callable<T>> calls, List<Throwable> failures) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(calls.size());
+        try {
+            List<Future<T>> futures = new ArrayList<>(calls.size());
+            for (Callable<T> call : calls) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
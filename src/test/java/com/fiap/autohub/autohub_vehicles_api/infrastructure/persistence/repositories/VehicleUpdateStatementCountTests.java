@@ -0,0 +1,101 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.UpdateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.RecordingStatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que updateVehicle faz uma leitura e uma escrita: o save reaproveita a entidade carregada na mesma transação
+ * (sem o SELECT extra do merge) e, com @DynamicUpdate, o UPDATE leva só as colunas alteradas.
+ * Só os comandos da thread do teste são contados (ver RecordingStatementInspector).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class VehicleUpdateStatementCountTests {
+
+    private static final String OWNER_ID = "owner-statement-count";
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                RecordingStatementInspector.class::getName);
+    }
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @AfterEach
+    void stopRecording() {
+        RecordingStatementInspector.stop();
+    }
+
+    @Test
+    void updateVehicleIssuesOneSelectAndOneUpdateOfChangedColumns() {
+        Vehicle created = vehicleService.createVehicle(new CreateVehicleCommand(
+                "Fiat", "Uno", 2015, "Branco", new BigDecimal("15000.00"), "Primeiro dono"), OWNER_ID);
+
+        // Mesma faixa de preço: a contagem de facetas não muda, então só a linha do veículo é escrita
+        RecordingStatementInspector.start();
+        Vehicle updated = vehicleService.updateVehicle(created.id(), new UpdateVehicleCommand(
+                null, null, null, null, new BigDecimal("15500.00"), "Revisado", created.version()), OWNER_ID);
+        List<String> statements = lowerCase(RecordingStatementInspector.stop());
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).startsWith("select");
+        assertThat(statements.get(1)).startsWith("update vehicles set")
+                .contains("price").contains("description")
+                .doesNotContain("make").doesNotContain("model").doesNotContain("color").doesNotContain("owner_id");
+        assertThat(updated.version()).isEqualTo(created.version() + 1);
+        assertThat(updated.price()).isEqualByComparingTo("15500.00");
+    }
+
+    @Test
+    void updateVehicleWithoutChangesDoesNotWrite() {
+        Vehicle created = vehicleService.createVehicle(new CreateVehicleCommand(
+                "Fiat", "Mobi", 2020, "Prata", new BigDecimal("42000.00"), null), OWNER_ID);
+
+        RecordingStatementInspector.start();
+        Vehicle unchanged = vehicleService.updateVehicle(created.id(), new UpdateVehicleCommand(
+                null, null, null, null, null, null, created.version()), OWNER_ID);
+        List<String> statements = lowerCase(RecordingStatementInspector.stop());
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).startsWith("select");
+        assertThat(unchanged.version()).isEqualTo(created.version());
+    }
+
+    private static List<String> lowerCase(List<String> statements) {
+        return statements.stream().map(String::toLowerCase).toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.specifications;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.UpdateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Resultados da busca textual (q=) pelo serviço: todas as palavras precisam aparecer (com os radicais do dicionário
+ * 'portuguese'), a ordem é por ts_rank (marca/modelo pesam mais que a descrição, e mais ocorrências pesam mais), os
+ * filtros do VehicleSpecification continuam valendo e só veículos AVAILABLE aparecem. Os planos (índice GIN) ficam
+ * em VehicleSearchIndexTests. Cada teste usa uma marca própria como filtro.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class VehicleFullTextSearchTests {
+
+    private static final String OWNER_ID = "owner-full-text-search";
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Test
+    void everyTermMustMatchAndMoreOccurrencesRankHigher() {
+        String make = uniqueMake();
+        Vehicle once = create(make, "Modelo", "Teto solar e bancos de couro");
+        Vehicle often = create(make, "Modelo", "Couro no volante, teto solar, bancos de couro e painel em couro");
+        create(make, "Modelo", "Bancos de couro");
+
+        Page<Vehicle> page = search(make, "couro teto solar");
+
+        assertThat(page.getContent()).extracting(Vehicle::id).containsExactly(often.id(), once.id());
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void makeAndModelWeighMoreThanDescription() {
+        String make = uniqueMake();
+        Vehicle inDescription = create(make, "Renegade", "Mais espaço interno que um Compass");
+        Vehicle inModel = create(make, "Compass", "Revisado na concessionária");
+
+        assertThat(search(make, "compass").getContent()).extracting(Vehicle::id)
+                .containsExactly(inModel.id(), inDescription.id());
+    }
+
+    @Test
+    void supportsWebSearchSyntaxAndStemming() {
+        String make = uniqueMake();
+        Vehicle sunroof = create(make, "Modelo", "Teto solar e bancos de couro");
+        Vehicle leatherOnly = create(make, "Modelo", "Bancos de couro");
+        create(make, "Modelo", "Solar na cor, teto preto");
+
+        // Exclusão com "-", frase entre aspas (palavras vizinhas, na ordem) e singular casando com o plural
+        assertThat(search(make, "couro -teto").getContent()).extracting(Vehicle::id)
+                .containsExactly(leatherOnly.id());
+        assertThat(search(make, "\"teto solar\"").getContent()).extracting(Vehicle::id)
+                .containsExactly(sunroof.id());
+        assertThat(search(make, "banco").getContent()).extracting(Vehicle::id)
+                .containsExactlyInAnyOrder(sunroof.id(), leatherOnly.id());
+    }
+
+    @Test
+    void onlyAvailableVehiclesMatchingTheFiltersAreReturned() {
+        String make = uniqueMake();
+        Vehicle available = create(make, "Modelo", "Único dono, teto solar");
+        Vehicle reserved = create(make, "Modelo", "Único dono, teto solar");
+        vehicleService.reserveVehicle(reserved.id(), UUID.randomUUID(), reserved.price());
+        create(uniqueMake(), "Modelo", "Único dono, teto solar");
+
+        assertThat(search(make, "único dono").getContent()).extracting(Vehicle::id)
+                .containsExactly(available.id());
+    }
+
+    @Test
+    void descriptionChangesAreSearchable() {
+        String make = uniqueMake();
+        Vehicle vehicle = create(make, "Modelo", "Bancos de tecido");
+        assertThat(search(make, "couro").getContent()).isEmpty();
+
+        vehicleService.updateVehicle(vehicle.id(), new UpdateVehicleCommand(
+                null, null, null, null, null, "Bancos de couro", vehicle.version()), OWNER_ID);
+
+        // A coluna gerada é recalculada no UPDATE, e a nova revisão do estoque descarta a página em cache
+        assertThat(search(make, "couro").getContent()).extracting(Vehicle::id).containsExactly(vehicle.id());
+    }
+
+    private Page<Vehicle> search(String make, String text) {
+        // A ordenação pedida é ignorada: o resultado sai sempre por relevância
+        return vehicleService.searchAvailableVehicles(VehicleSearchCriteria.byMake(make), text,
+                PageRequest.of(0, 10, Sort.by("price")), vehicleService.findInventoryRevision());
+    }
+
+    private Vehicle create(String make, String model, String description) {
+        return vehicleService.createVehicle(new CreateVehicleCommand(
+                make, model, 2021, "Prata", new BigDecimal("80000.00"), description), OWNER_ID);
+    }
+
+    private static String uniqueMake() {
+        return "fts" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
\ No newline at end of file
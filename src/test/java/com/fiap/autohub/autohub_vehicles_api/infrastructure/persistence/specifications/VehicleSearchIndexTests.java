@@ -0,0 +1,199 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.specifications;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.VehicleStatus;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.out.VehicleRepositoryPort;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSortRegistry;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.RecordingStatementInspector;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.entities.VehiclePersistenceEntity;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.repositories.JpaVehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que o SQL gerado pelas Specifications usa os índices das migrações: modelo pelos trigramas (V4), marca e cor
+ * pelos B-trees de lower(coluna) (V15), as ordenações do VehicleSortRegistry pelos índices parciais (V5) e a busca
+ * textual pelo GIN da coluna gerada (V7).
+ * <p>
+ * Cada teste executa a consulta real pelos repositórios, captura o SQL com o RecordingStatementInspector e faz o
+ * EXPLAIN dele como plano genérico (os parâmetros viram $n), que é o plano usado quando o statement é reaproveitado.
+ * Aqui o schema vem do Flyway, não do ddl-auto.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class VehicleSearchIndexTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                RecordingStatementInspector.class::getName);
+    }
+
+    @Autowired
+    private JpaVehicleRepository jpaVehicleRepository;
+
+    @Autowired
+    private VehicleRepositoryPort vehicleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedVehicles() {
+        jdbcTemplate.update("DELETE FROM vehicles");
+        jdbcTemplate.update("""
+                INSERT INTO vehicles (id, make, model, year, color, price, status, owner_id)
+                SELECT gen_random_uuid(), 'Make ' || (i % 50), 'Model ' || i, 2000 + (i % 25), 'Color ' || (i % 12),
+                       10000 + i, CASE WHEN i % 4 = 0 THEN 'SOLD' ELSE 'AVAILABLE' END, 'owner-' || (i % 100)
+                FROM generate_series(1, 2000) AS i
+                """);
+        jdbcTemplate.execute("ANALYZE vehicles");
+    }
+
+    @AfterEach
+    void stopRecording() {
+        RecordingStatementInspector.stop();
+    }
+
+    @Test
+    void modelSubstringSearchUsesTrigramIndex() {
+        String plan = explain(capture(VehicleSpecification.hasModel("del 12")));
+        assertThat(plan).contains("idx_vehicles_model_trgm");
+    }
+
+    @Test
+    void makeEqualitySearchUsesLowerIndex() {
+        String plan = explain(capture(VehicleSpecification.hasMake("Make 7")));
+        assertThat(plan).contains("idx_vehicles_make_lower");
+    }
+
+    @Test
+    void colorEqualitySearchUsesLowerIndex() {
+        String plan = explain(capture(VehicleSpecification.hasColor("Color 3")));
+        assertThat(plan).contains("idx_vehicles_color_lower");
+    }
+
+    @Test
+    void availablePriceSortIsServedByPartialIndex() {
+        String plan = explain(captureSlice(VehicleStatus.AVAILABLE, Sort.by(Sort.Direction.DESC, "price")));
+        assertThat(plan).contains("idx_vehicles_available_price_id").doesNotContain("Sort Key");
+    }
+
+    @Test
+    void soldUpdatedAtSortIsServedByPartialIndex() {
+        String plan = explain(captureSlice(VehicleStatus.SOLD, Sort.by(Sort.Direction.DESC, "updatedAt")));
+        assertThat(plan).contains("idx_vehicles_sold_updated_at_id").doesNotContain("Sort Key");
+    }
+
+    @Test
+    void fullTextSearchUsesGeneratedColumnIndex() {
+        String plan = explain(capture(VehicleSpecification.hasStatus(VehicleStatus.AVAILABLE)
+                .and(VehicleSpecification.matchesText("único dono couro"))));
+        assertThat(plan).contains("idx_vehicles_available_search_vector");
+    }
+
+    // Mesma forma de consulta das listagens: projeção + ordenação canônica + LIMIT
+    private String captureSlice(VehicleStatus status, Sort sort) {
+        RecordingStatementInspector.start();
+        vehicleRepository.findSlice(VehicleSearchCriteria.byMake(null), status,
+                VehicleSortRegistry.resolve(status, PageRequest.of(0, 10, sort)));
+        return vehiclesQuery(RecordingStatementInspector.stop());
+    }
+
+    private String capture(Specification<VehiclePersistenceEntity> spec) {
+        RecordingStatementInspector.start();
+        jpaVehicleRepository.findAll(spec);
+        return vehiclesQuery(RecordingStatementInspector.stop());
+    }
+
+    private static String vehiclesQuery(List<String> statements) {
+        return statements.stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select") && sql.toLowerCase().contains(" from vehicles "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No query on vehicles captured: " + statements));
+    }
+
+    // enable_seqscan=off deixa o resultado independente do volume de dados: se o índice servir ao predicado, ele aparece.
+    // force_generic_plan monta o plano sem olhar os valores, então os parâmetros podem ir como NULL.
+    private String explain(String sql) {
+        int[] parameterCount = {0};
+        String prepared = numberParameters(sql, parameterCount);
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE spec_query AS " + prepared);
+            }
+            try (Statement statement = connection.createStatement()) {
+                StringBuilder plan = new StringBuilder();
+                String arguments = parameterCount[0] == 0 ? ""
+                        : "(" + String.join(", ", Collections.nCopies(parameterCount[0], "NULL")) + ")";
+                try (ResultSet rs = statement.executeQuery("EXPLAIN EXECUTE spec_query" + arguments)) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } finally {
+                // Só o statement do teste: DEALLOCATE ALL apagaria também os que o driver JDBC mantém na conexão
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DEALLOCATE spec_query");
+                    statement.execute("RESET plan_cache_mode");
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+
+    // Troca os "?" do JDBC por $1, $2... (PREPARE do Postgres), ignorando os que estão dentro de literais
+    private static String numberParameters(String sql, int[] count) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 8);
+        boolean inLiteral = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++count[0]);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.autohub.autohub_vehicles_api.application.config.SecurityConfig;
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.UpdateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.persistence.audit.AuditLogRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Acesso ao histórico (GET /vehicles/{id}/history) e ao estado reconstruído (GET /vehicles/{id}?as_of=) pela cadeia
+ * de segurança do perfil http: sem JWT é 401; com JWT, só o dono do veículo e quem tem AUDIT_READER enxergam a
+ * auditoria, e para os demais o veículo "não existe" (404). O GET por id sem as_of continua público.
+ * <p>
+ * Cada teste cria o próprio veículo (Branco, depois repintado de Preto) e espera o relay mover as duas linhas de
+ * auditoria para o vehicle_audit_log, que é de onde as duas rotas leem.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "http"})
+@Testcontainers
+class VehicleAuditAccessTests {
+
+    private static final String OWNER_ID = "owner-audit-access";
+    private static final String OTHER_USER_ID = "someone-else";
+    private static final String READER_GROUP = "support";
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("vehicles.audit.reader-group", () -> READER_GROUP);
+    }
+
+    // Só o teste do grupo do Cognito manda um Bearer de verdade; os demais usam o jwt() do spring-security-test
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private AuditLogRelay auditLogRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void createRepaintedVehicle() throws InterruptedException {
+        Vehicle created = vehicleService.createVehicle(new CreateVehicleCommand(
+                "Renault", "Kwid", 2022, "Branco", new BigDecimal("58000.00"), null), OWNER_ID);
+        vehicle = vehicleService.updateVehicle(created.id(), new UpdateVehicleCommand(
+                null, null, null, "Preto", null, null, created.version()), OWNER_ID);
+        awaitAuditRows(2);
+    }
+
+    @Test
+    void historyRequiresJwt() throws Exception {
+        mockMvc.perform(get("/vehicles/{id}/history", vehicle.id()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void ownerPagesThroughTheHistoryNewestFirst() throws Exception {
+        String firstPage = mockMvc.perform(get("/vehicles/{id}/history", vehicle.id())
+                        .param("limit", "1")
+                        .with(user(OWNER_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].operation").value("UPDATE"))
+                .andExpect(jsonPath("$.has_next").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).path("next_cursor").asText();
+
+        mockMvc.perform(get("/vehicles/{id}/history", vehicle.id())
+                        .param("limit", "1")
+                        .param("cursor", cursor)
+                        .with(user(OWNER_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].operation").value("CREATE"))
+                .andExpect(jsonPath("$.has_next").value(false));
+    }
+
+    @Test
+    void historyOfAnotherOwnersVehicleIsNotFound() throws Exception {
+        mockMvc.perform(get("/vehicles/{id}/history", vehicle.id()).with(user(OTHER_USER_ID)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void auditReaderSeesAnyVehiclesHistory() throws Exception {
+        mockMvc.perform(get("/vehicles/{id}/history", vehicle.id()).with(auditReader(OTHER_USER_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+    }
+
+    @Test
+    void cognitoReaderGroupGrantsAuditAccess() throws Exception {
+        // Aqui o token passa pelo JwtAuthenticationConverter do SecurityConfig, que traduz o grupo em AUDIT_READER
+        given(jwtDecoder.decode(anyString())).willReturn(Jwt.withTokenValue("reader-token")
+                .header("alg", "none")
+                .subject(OTHER_USER_ID)
+                .claim("cognito:groups", List.of(READER_GROUP))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build());
+
+        mockMvc.perform(get("/vehicles/{id}/history", vehicle.id())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer reader-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+    }
+
+    @Test
+    void getByIdIsPublicButAsOfRequiresJwt() throws Exception {
+        mockMvc.perform(get("/vehicles/{id}", vehicle.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.color").value("Preto"));
+        mockMvc.perform(get("/vehicles/{id}", vehicle.id()).param("as_of", createdAt().toString()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void asOfRebuildsTheStateForOwnerAndAuditReaderOnly() throws Exception {
+        String asOf = createdAt().toString();
+
+        mockMvc.perform(get("/vehicles/{id}", vehicle.id()).param("as_of", asOf).with(user(OWNER_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.color").value("Branco"));
+        mockMvc.perform(get("/vehicles/{id}", vehicle.id()).param("as_of", asOf).with(auditReader(OTHER_USER_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.color").value("Branco"));
+        mockMvc.perform(get("/vehicles/{id}", vehicle.id()).param("as_of", asOf).with(user(OTHER_USER_ID)))
+                .andExpect(status().isNotFound());
+    }
+
+    private static RequestPostProcessor user(String subject) {
+        return jwt().jwt(token -> token.subject(subject));
+    }
+
+    private static RequestPostProcessor auditReader(String subject) {
+        return jwt().jwt(token -> token.subject(subject))
+                .authorities(new SimpleGrantedAuthority(SecurityConfig.AUDIT_READER_AUTHORITY));
+    }
+
+    // Momento gravado na linha CREATE: o as_of nele enxerga a criação, mas não a repintura
+    private OffsetDateTime createdAt() {
+        return jdbcTemplate.queryForObject(
+                "SELECT change_timestamp FROM vehicle_audit_log WHERE vehicle_id = ? AND operation_type = 'CREATE'",
+                OffsetDateTime.class, vehicle.id());
+    }
+
+    private void awaitAuditRows(int expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            auditLogRelay.drain();
+            Long moved = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM vehicle_audit_log WHERE vehicle_id = ?", Long.class, vehicle.id());
+            if (moved == expected) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Audit rows not moved to vehicle_audit_log after waiting for the relay");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.controllers;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.UpdateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.infrastructure.web.etag.EntityTags;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requisições condicionais pela API: If-None-Match responde 304 sem corpo enquanto o veículo (ETag forte) ou a
+ * listagem (ETag fraco da revisão do estoque) não mudam, e volta a 200 depois de uma escrita; If-Match no PUT responde
+ * 412 sem escrever quando o veículo já está em outra versão.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "http"})
+@Testcontainers
+class VehicleConditionalRequestTests {
+
+    private static final String OWNER_ID = "owner-conditional-requests";
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void vehicleIsNotModifiedUntilItsVersionChanges() throws Exception {
+        Vehicle vehicle = createVehicle("Fiat");
+        String etag = EntityTags.strong(vehicle.id(), vehicle.version());
+
+        mockMvc.perform(get("/vehicles/{id}", vehicle.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/vehicles/{id}", vehicle.id()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/vehicles/{id}", vehicle.id()).header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+
+        Vehicle updated = vehicleService.updateVehicle(vehicle.id(), new UpdateVehicleCommand(
+                null, null, null, "Azul", null, null, vehicle.version()), OWNER_ID);
+
+        mockMvc.perform(get("/vehicles/{id}", vehicle.id()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, EntityTags.strong(updated.id(), updated.version())))
+                .andExpect(jsonPath("$.color").value("Azul"));
+    }
+
+    @Test
+    void unknownVehicleIsNotFoundEvenWithWildcard() throws Exception {
+        mockMvc.perform(get("/vehicles/{id}", UUID.randomUUID()).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listingIsNotModifiedUntilTheInventoryChanges() throws Exception {
+        String make = "etag-" + UUID.randomUUID().toString().substring(0, 8);
+        createVehicle(make);
+
+        String etag = mockMvc.perform(get("/vehicles/available").param("make", make))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/");
+
+        mockMvc.perform(get("/vehicles/available").param("make", make).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        // Outro filtro é outra representação; "*" nunca vale para listagens
+        mockMvc.perform(get("/vehicles/available").param("make", make).param("color", "Prata")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/vehicles/available").param("make", make).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isOk());
+
+        // Qualquer escrita no estoque, mesmo de outra marca, avança a revisão
+        createVehicle("Outra");
+        mockMvc.perform(get("/vehicles/available").param("make", make).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void staleIfMatchFailsWithoutWriting() throws Exception {
+        Vehicle vehicle = createVehicle("Fiat");
+        String staleEtag = EntityTags.strong(vehicle.id(), vehicle.version());
+        Vehicle current = vehicleService.updateVehicle(vehicle.id(), new UpdateVehicleCommand(
+                null, null, null, "Azul", null, null, vehicle.version()), OWNER_ID);
+
+        mockMvc.perform(put("/vehicles/{id}", vehicle.id())
+                        .with(jwt().jwt(token -> token.subject(OWNER_ID)))
+                        .header(HttpHeaders.IF_MATCH, staleEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\": \"Verde\", \"version\": " + current.version() + "}"))
+                .andExpect(status().isPreconditionFailed());
+        // Só o ETag forte vale para If-Match
+        mockMvc.perform(put("/vehicles/{id}", vehicle.id())
+                        .with(jwt().jwt(token -> token.subject(OWNER_ID)))
+                        .header(HttpHeaders.IF_MATCH, "W/" + EntityTags.strong(current.id(), current.version()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\": \"Verde\", \"version\": " + current.version() + "}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(jdbcTemplate.queryForMap("SELECT color, version FROM vehicles WHERE id = ?", vehicle.id()))
+                .containsEntry("color", "Azul")
+                .containsEntry("version", current.version());
+    }
+
+    @Test
+    void currentIfMatchUpdatesAndReturnsTheNewTag() throws Exception {
+        Vehicle vehicle = createVehicle("Fiat");
+        String etag = EntityTags.strong(vehicle.id(), vehicle.version());
+
+        MvcResult result = mockMvc.perform(put("/vehicles/{id}", vehicle.id())
+                        .with(jwt().jwt(token -> token.subject(OWNER_ID)))
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\": \"Verde\", \"version\": " + vehicle.version() + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.color").value("Verde"))
+                .andReturn();
+
+        assertThat(result.getResponse().getHeader(HttpHeaders.ETAG))
+                .isEqualTo(EntityTags.strong(vehicle.id(), vehicle.version() + 1));
+    }
+
+    @Test
+    void ifMatchOnUnknownVehicleFails() throws Exception {
+        mockMvc.perform(put("/vehicles/{id}", UUID.randomUUID())
+                        .with(jwt().jwt(token -> token.subject(OWNER_ID)))
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\": \"Verde\", \"version\": 0}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private Vehicle createVehicle(String make) {
+        return vehicleService.createVehicle(new CreateVehicleCommand(
+                make, "Argo", 2021, "Branco", new BigDecimal("45000.00"), null), OWNER_ID);
+    }
+}
\ No newline at end of file
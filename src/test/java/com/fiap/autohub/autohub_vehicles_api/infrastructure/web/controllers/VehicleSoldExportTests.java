@@ -0,0 +1,162 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.autohub.autohub_vehicles_api.domain.commands.CreateVehicleCommand;
+import com.fiap.autohub.autohub_vehicles_api.domain.entities.Vehicle;
+import com.fiap.autohub.autohub_vehicles_api.domain.ports.in.VehicleServicePort;
+import com.fiap.autohub.autohub_vehicles_api.domain.queries.VehicleSearchCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exportação NDJSON de vendidos (GET /vehicles/sold/export): um JSON por linha, todos os SOLD do filtro em
+ * updated_at DESC, lidos em transação somente leitura (condição para o driver do Postgres usar o cursor do servidor).
+ * fetch-size = 2 faz a exportação atravessar várias idas ao banco. Cada teste usa uma marca própria.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "http"})
+@Testcontainers
+class VehicleSoldExportTests {
+
+    private static final String OWNER_ID = "owner-sold-export";
+    private static final int SOLD = 7;
+
+    @Container
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("vehicles.export.fetch-size", () -> "2");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VehicleServicePort vehicleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void streamsEverySoldVehicleAsOneJsonPerLineNewestFirst() throws Exception {
+        String make = uniqueMake();
+        List<UUID> soldNewestFirst = sellVehicles(make);
+        vehicleService.createVehicle(command(make), OWNER_ID); // Disponível: fica de fora
+
+        MvcResult started = mockMvc.perform(get("/vehicles/sold/export")
+                        .param("make", make)
+                        .with(jwt().jwt(token -> token.subject(OWNER_ID))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        List<UUID> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode vehicle = objectMapper.readTree(line);
+            assertThat(vehicle.path("status").asText()).isEqualTo("SOLD");
+            assertThat(vehicle.path("make").asText()).isEqualTo(make);
+            exported.add(UUID.fromString(vehicle.path("id").asText()));
+        }
+        assertThat(exported).containsExactlyElementsOf(soldNewestFirst);
+    }
+
+    @Test
+    void exportRequiresJwt() throws Exception {
+        mockMvc.perform(get("/vehicles/sold/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void rowsAreHandedOverInsideAReadOnlyTransaction() {
+        String make = uniqueMake();
+        List<UUID> soldNewestFirst = sellVehicles(make);
+
+        List<UUID> seen = new ArrayList<>();
+        vehicleService.exportSoldVehicles(VehicleSearchCriteria.byMake(make), vehicle -> {
+            // Fora de uma transação o driver traria todas as linhas de uma vez, ignorando o fetch size
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isTrue();
+            assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isTrue();
+            seen.add(vehicle.id());
+        });
+
+        assertThat(seen).containsExactlyElementsOf(soldNewestFirst);
+    }
+
+    @Test
+    void failingConsumerStopsTheExport() {
+        String make = uniqueMake();
+        sellVehicles(make);
+
+        // Como quando o cliente desconecta: a exceção do consumidor encerra a leitura no meio
+        List<UUID> seen = new ArrayList<>();
+        assertThatThrownBy(() -> vehicleService.exportSoldVehicles(VehicleSearchCriteria.byMake(make), vehicle -> {
+            seen.add(vehicle.id());
+            if (seen.size() == 3) {
+                throw new IllegalStateException("client went away");
+            }
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(seen).hasSize(3);
+    }
+
+    // Vende SOLD veículos em sequência; o último vendido tem o updated_at mais recente
+    private List<UUID> sellVehicles(String make) {
+        List<UUID> newestFirst = new ArrayList<>();
+        for (int i = 0; i < SOLD; i++) {
+            Vehicle vehicle = vehicleService.createVehicle(command(make), OWNER_ID);
+            vehicleService.reserveVehicle(vehicle.id(), UUID.randomUUID(), vehicle.price());
+            vehicleService.markVehicleAsSold(vehicle.id());
+            newestFirst.add(0, vehicle.id());
+        }
+        return newestFirst;
+    }
+
+    private static CreateVehicleCommand command(String make) {
+        return new CreateVehicleCommand(make, "Polo", 2020, "Cinza", new BigDecimal("70000.00"), null);
+    }
+
+    private static String uniqueMake() {
+        return "export-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
\ No newline at end of file
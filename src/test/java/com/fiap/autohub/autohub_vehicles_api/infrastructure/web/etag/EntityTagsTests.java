@@ -0,0 +1,66 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.etag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regras de comparação dos ETags: If-None-Match usa comparação fraca (com "*" só para o veículo individual) e If-Match
+ * usa comparação forte.
+ */
+class EntityTagsTests {
+
+    private static final UUID ID = UUID.fromString("3f1c2a9e-0000-4000-8000-000000000001");
+
+    @Test
+    void strongTagChangesWithVersion() {
+        assertThat(EntityTags.strong(ID, 3)).isEqualTo("\"" + ID + "-3\"");
+        assertThat(EntityTags.strong(ID, 4)).isNotEqualTo(EntityTags.strong(ID, 3));
+    }
+
+    @Test
+    void weakTagIsStableAndSensitiveToEveryPart() {
+        String tag = EntityTags.weak("available", 42L, "make=fiat");
+
+        assertThat(tag).startsWith("W/\"").endsWith("\"");
+        assertThat(EntityTags.weak("available", 42L, "make=fiat")).isEqualTo(tag);
+        assertThat(EntityTags.weak("available", 43L, "make=fiat")).isNotEqualTo(tag);
+        assertThat(EntityTags.weak("available", 42L, "make=ford")).isNotEqualTo(tag);
+        assertThat(EntityTags.weak("sold", 42L, "make=fiat")).isNotEqualTo(tag);
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        String etag = EntityTags.strong(ID, 3);
+
+        assertThat(EntityTags.matches(etag, etag)).isTrue();
+        assertThat(EntityTags.matches("W/" + etag, etag)).isTrue();
+        assertThat(EntityTags.matches("\"other\", " + etag, etag)).isTrue();
+        assertThat(EntityTags.matches("*", etag)).isTrue();
+        assertThat(EntityTags.matches(EntityTags.strong(ID, 2), etag)).isFalse();
+        assertThat(EntityTags.matches(null, etag)).isFalse();
+        assertThat(EntityTags.matches(" ", etag)).isFalse();
+    }
+
+    @Test
+    void listingsIgnoreTheWildcard() {
+        String etag = EntityTags.weak("available", 42L);
+
+        assertThat(EntityTags.matchesListing(etag, etag)).isTrue();
+        assertThat(EntityTags.matchesListing("*", etag)).isFalse();
+    }
+
+    @Test
+    void ifMatchUsesStrongComparison() {
+        String etag = EntityTags.strong(ID, 3);
+
+        assertThat(EntityTags.matchesStrongly(etag, etag)).isTrue();
+        assertThat(EntityTags.matchesStrongly("\"other\", " + etag, etag)).isTrue();
+        assertThat(EntityTags.matchesStrongly("*", etag)).isTrue();
+        assertThat(EntityTags.matchesStrongly("W/" + etag, etag)).isFalse();
+        assertThat(EntityTags.matchesStrongly(EntityTags.strong(ID, 2), etag)).isFalse();
+        assertThat(EntityTags.matchesStrongly(null, etag)).isFalse();
+    }
+}
\ No newline at end of file
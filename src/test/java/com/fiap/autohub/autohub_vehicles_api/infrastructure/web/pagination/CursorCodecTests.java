@@ -0,0 +1,90 @@
+package com.fiap.autohub.autohub_vehicles_api.infrastructure.web.pagination;
+
+import com.fiap.autohub.autohub_vehicles_api.domain.exceptions.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cursores assinados com HMAC: o que o codec gera volta igual, e qualquer alteração (nos valores, na assinatura, no
+ * escopo, nos filtros ou na chave) é recusada com InvalidCursorException, que a API traduz em 400.
+ */
+class CursorCodecTests {
+
+    private static final String SCOPE = "available";
+    private static final String FILTERS = "make=fiat";
+    private static final List<String> VALUES = List.of("45000.00", "2025-05-10T14:30:00Z", "3f1c2a9e-0000-4000-8000-000000000001");
+
+    private final CursorCodec codec = new CursorCodec("test-cursor-secret");
+
+    @Test
+    void roundTripsTheValues() {
+        String cursor = codec.encode(SCOPE, FILTERS, VALUES);
+
+        assertThat(codec.decode(SCOPE, FILTERS, cursor)).containsExactlyElementsOf(VALUES);
+    }
+
+    @Test
+    void keepsEmptyValues() {
+        List<String> values = List.of("", "2025-05-10T14:30:00Z", "");
+
+        assertThat(codec.decode(SCOPE, FILTERS, codec.encode(SCOPE, FILTERS, values))).containsExactlyElementsOf(values);
+    }
+
+    @Test
+    void rejectsTamperedValues() {
+        String cursor = codec.encode(SCOPE, FILTERS, VALUES);
+        String signature = cursor.substring(cursor.indexOf('.'));
+        // Mesmo formato, preço trocado: sem a chave não há como gerar a assinatura que combina
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                String.join("|", "1.00", VALUES.get(1), VALUES.get(2)).getBytes(StandardCharsets.UTF_8)) + signature;
+
+        assertThatThrownBy(() -> codec.decode(SCOPE, FILTERS, forged)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void rejectsTamperedSignature() {
+        String cursor = codec.encode(SCOPE, FILTERS, VALUES);
+        // Troca o primeiro caractere da assinatura (o último só carrega bits de preenchimento)
+        int start = cursor.indexOf('.') + 1;
+        char first = cursor.charAt(start);
+        String tampered = cursor.substring(0, start) + (first == 'A' ? 'B' : 'A') + cursor.substring(start + 1);
+
+        assertThatThrownBy(() -> codec.decode(SCOPE, FILTERS, tampered)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void rejectsCursorFromAnotherScopeOrFilters() {
+        String cursor = codec.encode(SCOPE, FILTERS, VALUES);
+
+        assertThatThrownBy(() -> codec.decode("sold", FILTERS, cursor)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> codec.decode(SCOPE, "make=ford", cursor)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void rejectsCursorSignedWithAnotherSecret() {
+        String cursor = new CursorCodec("another-secret").encode(SCOPE, FILTERS, VALUES);
+
+        assertThatThrownBy(() -> codec.decode(SCOPE, FILTERS, cursor)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String malformed : List.of("", "no-dot", ".signature", "payload.", "not*base64.sig*")) {
+            assertThatThrownBy(() -> codec.decode(SCOPE, FILTERS, malformed))
+                    .as(malformed)
+                    .isInstanceOf(InvalidCursorException.class);
+        }
+    }
+
+    @Test
+    void refusesToStartWithoutSecret() {
+        assertThatThrownBy(() -> new CursorCodec(" ")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new CursorCodec(null)).isInstanceOf(IllegalStateException.class);
+    }
+}
\ No newline at end of file